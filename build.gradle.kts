@@ -35,6 +35,13 @@ sourceSets.create("integration") {
     runtimeClasspath += output + compileClasspath + sourceSets["test"].runtimeClasspath
 }
 
+sourceSets.create("jmh") {
+    java.srcDir("src/jmh/java")
+    resources.srcDir("src/jmh/resources")
+    compileClasspath += sourceSets["main"].output + sourceSets["main"].compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets["main"].runtimeClasspath
+}
+
 dependencies {
 
     // This dependency is used by the application.
@@ -60,6 +67,10 @@ dependencies {
     // Web server
     implementation("io.javalin:javalin:3.5.0")
     implementation("com.typesafe:config:1.4.0")
+
+    // Benchmarks
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.23")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.23")
 }
 
 // TODO merge integration tests into coverage report
@@ -70,6 +81,33 @@ task<Test>("integration") {
     classpath = sourceSets["integration"].runtimeClasspath
 }
 
+task<JavaExec>("jmh") {
+    group = "verification"
+    description = "runs JMH microbenchmarks, pass a filter with -Pjmh.include=<regex>"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    main = "org.openjdk.jmh.Main"
+    args = listOf(project.findProperty("jmh.include")?.toString() ?: ".*",
+            "-rf", "json", "-rff", "$buildDir/reports/jmh/results.json")
+    doFirst { mkdir("$buildDir/reports/jmh") }
+}
+
+task<JavaExec>("kpi") {
+    group = "verification"
+    description = "runs fixed-seed scenarios end to end and writes scheduler KPIs as JSON"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    main = "elevator.bench.KpiHarness"
+    args = listOf("$buildDir/reports/kpi/results.json")
+}
+
+task<JavaExec>("busLoad") {
+    group = "verification"
+    description = "sweeps event bus implementations over producers, workers and queue depths"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    main = "elevator.bench.BusLoadHarness"
+    args = listOf("out=$buildDir/reports/bus/results.json") +
+            (project.findProperty("busLoad.args")?.toString()?.split(" ") ?: listOf())
+}
+
 task<JavaExec>("chronicleDump") {
     group = "Execution"
     description = "Dump the chronicle queue to console"
@@ -0,0 +1,60 @@
+package elevator;
+
+import elevator.event.*;
+import elevator.model.Building;
+import elevator.model.HomingElevatorFactory;
+import elevator.model.Passenger;
+import elevator.scheduling.RRFIFOScheduler;
+import elevator.simulation.BarrierSimulator;
+import elevator.simulation.DeferredEventQueue;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class BarrierSimulatorTest {
+    private static final int numFloors = 40;
+    private static final int numElevators = 4;
+    private static final int[] homeFloors = {0, 10, 20, 30};
+
+    @Test
+    public void testAllPassengersServed() throws InterruptedException {
+        // One worker per topic, so topics still run concurrently with each other
+        PartitionedEventBus bus = new PartitionedEventBus();
+        DeferredEventQueue queue = new DeferredEventQueue();
+        Building.builder()
+                .floors(numFloors)
+                .elevators(numElevators)
+                .setElevatorFactory(new HomingElevatorFactory(numFloors, homeFloors))
+                .setEventBus(bus)
+                .eventQueue(queue)
+                .scheduler(new RRFIFOScheduler())
+                .build();
+
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            final int origin = 1 + random.nextInt(numFloors - 1);
+            queue.scheduleAt(2 + random.nextInt(500), EventTopic.SCHEDULING, new Event.ScheduleRequest(new Passenger(origin, 0), origin));
+        }
+
+        AtomicInteger drops = new AtomicInteger(0);
+        bus.attachTopic(java.util.EnumSet.of(EventTopic.PASSENGER), (b, event) -> {
+            if (event instanceof Event.DropPassenger)
+                drops.incrementAndGet();
+        });
+
+        BarrierSimulator sim = new BarrierSimulator(bus);
+        sim.runTo(2000);
+
+        assertThat(sim.getTicks(), is(1999L));
+        assertThat(bus.getPending().get(), is(0L));
+        assertThat(sim.getTicksPerSecond(), is(greaterThan(0.0)));
+
+        // Missed connections are rescheduled, so everyone eventually arrives
+        assertThat(drops.get(), is(50));
+    }
+}
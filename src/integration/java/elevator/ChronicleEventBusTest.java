@@ -0,0 +1,86 @@
+package elevator;
+
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import elevator.journal.ChronicleEventBus;
+import elevator.model.Building;
+import elevator.model.HomingElevatorFactory;
+import elevator.model.Passenger;
+import elevator.scheduling.RRFIFOScheduler;
+import elevator.simulation.DeferredEventQueue;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChronicleEventBusTest {
+    // Two buses on one directory stand in for two processes
+    @Test
+    public void testEventsCrossBuses() throws Exception {
+        final Path dir = Files.createTempDirectory("bus");
+        try (ChronicleEventBus elevators = new ChronicleEventBus(dir);
+             ChronicleEventBus scheduler = new ChronicleEventBus(dir)) {
+
+            scheduler.attachTopic(EnumSet.of(EventTopic.DEFAULT), (bus, event) -> {
+                if (event instanceof Event.ClockTick)
+                    bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorIdle(0, (int) ((Event.ClockTick) event).getValue()));
+            });
+
+            AtomicInteger idle = new AtomicInteger(0);
+            elevators.attachTopic(EnumSet.of(EventTopic.ELEVATOR), (bus, event) -> {
+                if (event instanceof Event.ElevatorIdle)
+                    idle.addAndGet(((Event.ElevatorIdle) event).getFloor());
+            });
+
+            for (int i = 1; i <= 10; i++)
+                elevators.fire(new Event.ClockTick(i));
+
+            // Each side only reads the topics it has reactors on
+            assertThat(elevators.processAll(), is(0));
+            assertThat(scheduler.processAll(), is(10));
+            assertThat(elevators.processAll(), is(10));
+            assertThat(idle.get(), is(55));
+        }
+    }
+
+    @Test
+    public void testBuildingOnChronicle() throws Exception {
+        final int numFloors = 20;
+        try (ChronicleEventBus bus = new ChronicleEventBus(Files.createTempDirectory("bus"))) {
+            DeferredEventQueue queue = new DeferredEventQueue();
+            Building.builder()
+                    .floors(numFloors)
+                    .elevators(2)
+                    .setElevatorFactory(new HomingElevatorFactory(numFloors, new int[]{0, 10}))
+                    .setEventBus(bus)
+                    .eventQueue(queue)
+                    .scheduler(new RRFIFOScheduler())
+                    .build();
+
+            Random random = new Random(3);
+            for (int i = 0; i < 20; i++) {
+                final int origin = 1 + random.nextInt(numFloors - 1);
+                queue.scheduleAt(2 + random.nextInt(100), EventTopic.SCHEDULING, new Event.ScheduleRequest(new Passenger(origin, 0), origin));
+            }
+
+            AtomicInteger drops = new AtomicInteger(0);
+            bus.attachTopic(EnumSet.of(EventTopic.PASSENGER), (b, event) -> {
+                if (event instanceof Event.DropPassenger)
+                    drops.incrementAndGet();
+            });
+
+            for (long tick = 1; tick <= 600; tick++) {
+                bus.fire(new Event.ClockTick(tick));
+                bus.processAll();
+            }
+
+            assertThat(drops.get(), is(20));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package elevator;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import elevator.cluster.ClusterNode;
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import elevator.site.Site;
+import elevator.site.SitePool;
+import io.vavr.collection.List;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+// Both nodes run in this JVM. File locks held by one of them are seen as taken by the other, as across processes
+public class ClusterNodeTest {
+    private static final Config conf = ConfigFactory.parseString(
+            "num-floors = 20, num-elevators = 2, scheduler = rrfifo, queue-depth = 1024, " +
+                    "metrics { in-process = false, window-ticks = 100, slots = 10 }");
+
+    private final Map<Integer, AtomicInteger> drops = new ConcurrentHashMap<>();
+
+    private Site building(int shard) {
+        final Site site = Site.create(ClusterNode.siteId(shard), conf);
+        final AtomicInteger counter = drops.computeIfAbsent(shard, s -> new AtomicInteger());
+        site.getBus().attachTopic(EnumSet.of(EventTopic.PASSENGER), (b, event) -> {
+            if (event instanceof Event.DropPassenger)
+                counter.incrementAndGet();
+        });
+        return site;
+    }
+
+    private ClusterNode node(Path dir, String id, SitePool pool) {
+        return new ClusterNode(dir, 4, id, pool, this::building, 20);
+    }
+
+    @Test
+    public void testShardsAreShared() throws Exception {
+        final Path dir = Files.createTempDirectory("cluster");
+        ClusterNode a = node(dir, "a", new SitePool(1, 16, 1));
+        ClusterNode b = node(dir, "b", new SitePool(1, 16, 1));
+
+        a.rebalance();
+        assertThat(List.ofAll(a.getOwned()), is(List.of(0, 1, 2, 3)));
+
+        // The newcomer takes free shards while the old node gives one back per round
+        b.rebalance();
+        a.rebalance();
+        b.rebalance();
+        a.rebalance();
+        b.rebalance();
+        assertThat(List.ofAll(a.getOwned()), is(List.of(0, 1)));
+        assertThat(List.ofAll(b.getOwned()), is(List.of(2, 3)));
+
+        // A node that goes away frees its shards for the others
+        a.releaseAll();
+        b.rebalance();
+        assertThat(List.ofAll(b.getOwned()), is(List.of(0, 1, 2, 3)));
+        b.releaseAll();
+    }
+
+    @Test
+    public void testIngressFollowsOwner() throws Exception {
+        final Path dir = Files.createTempDirectory("cluster");
+        final SitePool poolA = new SitePool(1, 16, 1).start();
+        final SitePool poolB = new SitePool(1, 16, 1).start();
+        ClusterNode a = node(dir, "a", poolA);
+        ClusterNode b = node(dir, "b", poolB);
+
+        a.rebalance();
+        assertThat(a.getSite(2).isDefined(), is(true));
+
+        // Submitted through the other node and delivered to the owner
+        b.submit(2, 5, 1);
+        b.submit(2, 7, 3);
+        assertThat(a.pollIngress(100), is(2));
+        await(drops.get(2), 2);
+        assertThat(drops.get(2).get(), is(2));
+
+        // Requests queued while nobody reads them go to the next owner, and nothing is read twice
+        b.submit(2, 9, 4);
+        a.releaseAll();
+        b.rebalance();
+        assertThat(b.getSite(2).isDefined(), is(true));
+        assertThat(b.pollIngress(100), is(1));
+        await(drops.get(2), 3);
+        assertThat(drops.get(2).get(), is(3));
+
+        b.releaseAll();
+        poolA.shutdown();
+        poolB.shutdown();
+        poolA.await();
+        poolB.await();
+    }
+
+    @Test
+    public void testFullShardQueueKeepsRequests() throws Exception {
+        final Path dir = Files.createTempDirectory("cluster");
+        final Config small = conf.withValue("queue-depth", ConfigValueFactory.fromAnyRef(2));
+        ClusterNode a = new ClusterNode(dir, 4, "a", new SitePool(1, 16, 1),
+                shard -> Site.create(ClusterNode.siteId(shard), small), 20);
+
+        a.rebalance();
+        final Site site = a.getSite(1).get();
+        for (int i = 0; i < 5; i++)
+            a.submit(1, 3, 8);
+
+        // Nothing drains the building here, so the poll stops at its queue depth instead of waiting
+        assertThat(a.pollIngress(100), is(2));
+        assertThat(a.pollIngress(100), is(0));
+
+        // Refused requests stay queued and are read once there is room again
+        site.getBus().process(100);
+        assertThat(a.pollIngress(100), is(2));
+        site.getBus().process(100);
+        assertThat(a.pollIngress(100), is(1));
+        assertThat(a.pollIngress(100), is(0));
+
+        a.releaseAll();
+    }
+
+    private static void await(AtomicInteger counter, int expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (counter.get() < expected && System.nanoTime() < deadline)
+            Thread.sleep(10);
+    }
+}
@@ -0,0 +1,128 @@
+package elevator;
+
+import elevator.event.*;
+import elevator.model.Building;
+import elevator.model.HomingElevatorFactory;
+import elevator.model.Passenger;
+import elevator.scheduling.RRFIFOScheduler;
+import elevator.simulation.DeferredEventQueue;
+import elevator.simulation.DiscreteEventSimulator;
+import elevator.simulation.OfflineSimulator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+// Skipping ticks or stepping elevators in a parallel phase must produce the same passenger events as ticking every cycle
+public class DiscreteEventSimulatorTest {
+    private static final int numFloors = 40;
+    private static final int numElevators = 4;
+    private static final int[] homeFloors = {0, 10, 20, 30};
+    private static final long limit = 5000;
+
+    private List<Passenger> passengers;
+    private List<int[]> requests;
+
+    private static class Recorder implements EventReactor {
+        final List<String> events = new ArrayList<>();
+        long clock = 0;
+
+        @Override
+        public void onEvent(EventBus bus, Event event) {
+            if (event instanceof Event.ClockTick) {
+                clock = ((Event.ClockTick) event).getValue();
+            } else if (event instanceof Event.LoadPassenger) {
+                final Event.LoadPassenger load = (Event.LoadPassenger) event;
+                events.add(clock + " load " + load.getPassenger() + " at " + load.getFloor() + " on " + load.getElevator());
+            } else if (event instanceof Event.DropPassenger) {
+                final Event.DropPassenger drop = (Event.DropPassenger) event;
+                events.add(clock + " drop " + drop.getPassenger() + " at " + drop.getFloor() + " on " + drop.getElevator());
+            }
+        }
+    }
+
+    private Building build(SynchronizedEventBus bus, boolean tickPhase) {
+        DeferredEventQueue queue = new DeferredEventQueue();
+        Building.Builder builder = Building.builder()
+                .floors(numFloors)
+                .elevators(numElevators)
+                .setElevatorFactory(new HomingElevatorFactory(numFloors, homeFloors))
+                .setEventBus(bus)
+                .eventQueue(queue)
+                .scheduler(new RRFIFOScheduler());
+
+        if (tickPhase)
+            builder.tickPhase(new ForkJoinPool(2));
+
+        Building building = builder.build();
+
+        for (int i = 0; i < passengers.size(); i++) {
+            final int[] request = requests.get(i);  // time, origin
+            queue.scheduleAt(request[0], EventTopic.SCHEDULING, new Event.ScheduleRequest(passengers.get(i), request[1]));
+        }
+
+        return building;
+    }
+
+    @Before
+    public void generateRequests() {
+        Random random = new Random(42);
+        passengers = new ArrayList<>();
+        requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int origin = random.nextInt(numFloors);
+            int dest = random.nextInt(numFloors - 1);
+            if (dest >= origin)
+                dest++;
+
+            passengers.add(new Passenger(origin, dest));
+            requests.add(new int[]{2 + random.nextInt((int) limit / 2), origin});
+        }
+    }
+
+    private Recorder runOffline(boolean tickPhase) {
+        SynchronizedEventBus bus = new SynchronizedEventBus();
+        build(bus, tickPhase);
+        Recorder recorder = new Recorder();
+        bus.attach(recorder);
+        new OfflineSimulator(bus).runTo(limit);
+
+        Collections.sort(recorder.events);
+        return recorder;
+    }
+
+    @Test
+    public void testSameOutcomeAsOfflineSimulator() {
+        Recorder offline = runOffline(false);
+
+        SynchronizedEventBus discreteBus = new SynchronizedEventBus();
+        Building building = build(discreteBus, false);
+        Recorder discrete = new Recorder();
+        discreteBus.attach(discrete);
+        DiscreteEventSimulator sim = new DiscreteEventSimulator(discreteBus, building);
+        sim.runTo(limit);
+
+        assertThat(offline.events, hasSize(200));
+        // Dispatch order within a single tick is not fixed
+        Collections.sort(discrete.events);
+        assertThat(discrete.events, is(offline.events));
+        assertThat(sim.getClock(), is(limit));
+        assertThat(sim.getTicksFired(), is(lessThan(limit / 2)));
+    }
+
+    @Test
+    public void testTickPhaseSameOutcome() {
+        Recorder individual = runOffline(false);
+        Recorder phased = runOffline(true);
+
+        assertThat(phased.events, hasSize(200));
+        assertThat(phased.events, is(individual.events));
+    }
+}
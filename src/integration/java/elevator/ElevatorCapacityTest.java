@@ -0,0 +1,106 @@
+package elevator;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import elevator.event.*;
+import elevator.metrics.BuildingStats;
+import elevator.model.Building;
+import elevator.model.ElevatorFactory;
+import elevator.model.Passenger;
+import elevator.scheduling.RRFIFOScheduler;
+import elevator.simulation.DeferredEventQueue;
+import elevator.simulation.OfflineSimulator;
+import elevator.site.Site;
+import elevator.site.SitePool;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+// A full car must not board more passengers than it holds, the others wait for the trip planned for them
+public class ElevatorCapacityTest {
+    private static class Recorder implements EventReactor {
+        final List<String> events = new ArrayList<>();
+        long clock = 0;
+
+        @Override
+        public void onEvent(EventBus bus, Event event) {
+            if (event instanceof Event.ClockTick) {
+                clock = ((Event.ClockTick) event).getValue();
+            } else if (event instanceof Event.LoadPassenger) {
+                final Event.LoadPassenger load = (Event.LoadPassenger) event;
+                events.add(clock + " load " + load.getPassenger() + " at " + load.getFloor());
+            } else if (event instanceof Event.DropPassenger) {
+                final Event.DropPassenger drop = (Event.DropPassenger) event;
+                events.add(clock + " drop " + drop.getPassenger() + " at " + drop.getFloor());
+            } else if (event instanceof Event.MissedConnection) {
+                events.add(clock + " missed " + ((Event.MissedConnection) event).getPassenger());
+            }
+        }
+    }
+
+    @Test
+    public void testSecondPassengerTakesNextTrip() {
+        final SynchronizedEventBus bus = new SynchronizedEventBus();
+        final DeferredEventQueue queue = new DeferredEventQueue();
+        final Building building = Building.builder()
+                .floors(20)
+                .elevators(1)
+                .setElevatorFactory(new ElevatorFactory(20).setCapacity(1))
+                .setEventBus(bus)
+                .eventQueue(queue)
+                .scheduler(new RRFIFOScheduler())
+                .build();
+
+        final Passenger first = new Passenger(3, 10);
+        final Passenger second = new Passenger(3, 12);
+        queue.scheduleAt(2, EventTopic.SCHEDULING, new Event.ScheduleRequest(first, 3));
+        queue.scheduleAt(2, EventTopic.SCHEDULING, new Event.ScheduleRequest(second, 3));
+
+        final Recorder recorder = new Recorder();
+        bus.attach(recorder);
+        new OfflineSimulator(bus).runTo(100);
+
+        // Up to 3, over to 10 and back to 3 for the second passenger
+        assertThat(recorder.events, contains(
+                "5 load " + first + " at 3",
+                "12 drop " + first + " at 10",
+                "19 load " + second + " at 3",
+                "28 drop " + second + " at 12"));
+        assertThat(building.getElevator(0).getPeakLoad(), is(1));
+    }
+
+    // Reactors on a partitioned bus see every arrival in any order, the counts only add up if each passenger
+    // either boards or misses the car, never both
+    @Test(timeout = 60_000)
+    public void testFullCarsOnPartitionedBus() throws InterruptedException {
+        final int numPassengers = 40;
+        final Config conf = ConfigFactory.parseString(
+                "num-floors = 20, num-elevators = 2, scheduler = rrfifo, queue-depth = 4096, capacity = 1, " +
+                        "metrics { in-process = true, window-ticks = 100, slots = 10 }");
+        final SitePool pool = new SitePool(1, 16, 1);
+        final Site site = Site.create("full", conf);
+        for (int i = 0; i < numPassengers; i++) {
+            site.getBuilding().getEventQueue().scheduleAt(2 + i % 4, EventTopic.SCHEDULING,
+                    new Event.ScheduleRequest(new Passenger(5, 6 + i % 14), 5));
+        }
+
+        pool.add(site);
+        pool.start();
+        final BuildingStats stats = site.getStats();
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(50);
+        while (stats.getServed() < numPassengers && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        pool.shutdown();
+        pool.await();
+
+        assertThat(stats.getServed(), is((long) numPassengers));
+        assertThat(stats.getWaiting(), is(0L));
+        assertThat(stats.getInTransit(), is(0L));
+        assertThat(site.getPeakLoad(), is(1));
+    }
+}
@@ -0,0 +1,62 @@
+package elevator;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.journal.EventFilter;
+import elevator.journal.EventKind;
+import elevator.journal.JournalTailer;
+import elevator.model.Passenger;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+// Named tailers consume the same journal independently and only see the events they filter for
+public class JournalFanoutTest {
+    @Test
+    public void testIndependentTailers() throws Exception {
+        final String dir = Files.createTempDirectory("journal").toString();
+        final ChronicleAppenderListener appender = new ChronicleAppenderListener(dir);
+        final EventBus bus = Mockito.mock(EventBus.class);
+
+        final Passenger passenger = new Passenger(5);
+        final Event.ClockTick tick = new Event.ClockTick(1);
+        final Event.LoadPassenger load = new Event.LoadPassenger(2, 0, passenger);
+        final Event.DropPassenger drop = new Event.DropPassenger(5, 1, passenger);
+
+        appender.onEvent(bus, tick);
+        appender.onEvent(bus, load);
+        appender.onEvent(bus, drop);
+
+        try (ChronicleQueue queue = ChronicleQueue.singleBuilder(dir).build()) {
+            EventReactor everything = Mockito.mock(EventReactor.class);
+            EventReactor elevatorOne = Mockito.mock(EventReactor.class);
+
+            JournalTailer all = new JournalTailer(queue, "all", EventFilter.all(), everything);
+            JournalTailer filtered = new JournalTailer(queue, "filtered",
+                    EventFilter.kinds(EventKind.LOAD_PASSENGER, EventKind.DROP_PASSENGER).and(EventFilter.elevator(1)),
+                    elevatorOne);
+
+            while (all.readOne()) ;
+            while (filtered.readOne()) ;
+
+            assertThat(all.getDelivered(), is(3L));
+            assertThat(filtered.getDelivered(), is(1L));
+            assertThat(filtered.getSkipped(), is(2L));
+
+            Mockito.verify(everything, times(1)).syncEvent(any(EventBus.class), eq(tick));
+            Mockito.verify(everything, times(1)).syncEvent(any(EventBus.class), eq(load));
+            Mockito.verify(elevatorOne, times(1)).syncEvent(any(EventBus.class), eq(drop));
+            Mockito.verify(elevatorOne, never()).syncEvent(any(EventBus.class), eq(load));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package elevator;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.journal.EventFilter;
+import elevator.journal.EventKind;
+import elevator.journal.JournalJanitor;
+import elevator.journal.JournalPolicy;
+import elevator.journal.JournalTailer;
+import elevator.model.Passenger;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.RollCycles;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+
+// Closed cycles are compacted and then deleted once they age out
+public class JournalRetentionTest {
+    private static int countCycles(File dir) {
+        return dir.listFiles((d, name) -> name.endsWith(SingleChronicleQueue.SUFFIX)).length;
+    }
+
+    @Test
+    public void testRetentionAndCompaction() throws Exception {
+        final File dir = Files.createTempDirectory("journal").toFile();
+        final String compacted = dir.getPath() + "-compacted";
+        final SetTimeProvider time = new SetTimeProvider(0);
+        final EventBus bus = Mockito.mock(EventBus.class);
+
+        final JournalPolicy policy = new JournalPolicy(RollCycles.TEST_SECONDLY,
+                Duration.ofMillis(1500), 0, Duration.ofMinutes(1),
+                true, EventFilter.kinds(EventKind.LOAD_PASSENGER), compacted);
+
+        try (SingleChronicleQueue queue = ChronicleQueue.singleBuilder(dir)
+                .rollCycle(RollCycles.TEST_SECONDLY)
+                .timeProvider(time)
+                .build()) {
+            ChronicleAppenderListener appender = new ChronicleAppenderListener(queue);
+
+            // One cycle per simulated second, each with a tick and a passenger boarding
+            for (int second = 0; second < 4; second++) {
+                time.currentTimeMillis(second * 1000L);
+                appender.onEvent(bus, new Event.ClockTick(second));
+                appender.onEvent(bus, new Event.LoadPassenger(second, 0, new Passenger(10)));
+            }
+
+            time.currentTimeMillis(3500);
+            assertThat(countCycles(dir), is(4));
+
+            JournalJanitor janitor = new JournalJanitor(queue, policy);
+            assertThat(janitor.sweep(), is(1));
+            assertThat(countCycles(dir), is(3));
+
+            // Nothing else has expired yet
+            assertThat(janitor.sweep(), is(0));
+            janitor.close();
+        }
+
+        // Only the boardings of the three closed cycles survive compaction
+        try (ChronicleQueue queue = ChronicleQueue.singleBuilder(compacted).rollCycle(RollCycles.TEST_SECONDLY).build()) {
+            EventReactor reactor = Mockito.mock(EventReactor.class);
+            JournalTailer tailer = new JournalTailer(queue, "verify", EventFilter.all(), reactor);
+            while (tailer.readOne()) ;
+
+            assertThat(tailer.getDelivered(), is(3L));
+            Mockito.verify(reactor, times(3)).syncEvent(any(EventBus.class), any(Event.LoadPassenger.class));
+        }
+    }
+
+    // The compacted journal is held to the same retention, otherwise it grows without bound
+    @Test
+    public void testCompactedJournalRetention() throws Exception {
+        final File dir = Files.createTempDirectory("journal").toFile();
+        final File compacted = new File(dir.getPath() + "-compacted");
+        final SetTimeProvider time = new SetTimeProvider(0);
+        final EventBus bus = Mockito.mock(EventBus.class);
+
+        final JournalPolicy policy = new JournalPolicy(RollCycles.TEST_SECONDLY,
+                Duration.ofMillis(1000), 0, Duration.ofMinutes(1),
+                true, EventFilter.kinds(EventKind.LOAD_PASSENGER), compacted.getPath());
+
+        try (SingleChronicleQueue queue = ChronicleQueue.singleBuilder(dir)
+                .rollCycle(RollCycles.TEST_SECONDLY)
+                .timeProvider(time)
+                .build();
+             JournalJanitor janitor = new JournalJanitor(queue, policy)) {
+            ChronicleAppenderListener appender = new ChronicleAppenderListener(queue);
+
+            for (int second = 0; second < 10; second++) {
+                time.currentTimeMillis(second * 1000L);
+                appender.onEvent(bus, new Event.LoadPassenger(second, 0, new Passenger(10)));
+                time.currentTimeMillis(second * 1000L + 500);
+                janitor.sweep();
+            }
+
+            // Each keeps the current cycle and the one that ended less than a second ago
+            assertThat(countCycles(dir), is(2));
+            assertThat(countCycles(compacted), is(2));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package elevator;
 import elevator.event.Event;
 import elevator.event.EventBus;
 import elevator.event.EventReactor;
+import elevator.event.EventTopic;
 import elevator.event.PartitionedEventBus;
 import elevator.model.Elevator;
 import elevator.model.Floor;
@@ -10,10 +11,19 @@ import elevator.model.Passenger;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -54,4 +64,68 @@ public class PartitionedEventBusTest {
         Mockito.verify(mock, times(0)).syncEvent(any(EventBus.class), eq(ticks.get(2)));
         Mockito.verify(mock, times(0)).syncEvent(any(EventBus.class), eq(dropEvent));
     }
+
+    // Whatever a tick causes on other topics is only dispatched once every reactor has seen the tick
+    @Test
+    public void testTickReachesEveryReactorFirst() throws InterruptedException {
+        PartitionedEventBus bus = new PartitionedEventBus();
+        AtomicLong seen = new AtomicLong(-1);
+        AtomicInteger early = new AtomicInteger(0);
+        AtomicInteger drops = new AtomicInteger(0);
+
+        bus.attachTopic(EnumSet.of(EventTopic.DEFAULT), (b, event) -> b.fireTopic(EventTopic.PASSENGER, dropEvent));
+        bus.attachTopic(EnumSet.of(EventTopic.DEFAULT), (b, event) -> {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.set(((Event.ClockTick) event).getValue());
+        });
+        bus.attachTopic(EnumSet.of(EventTopic.PASSENGER), (b, event) -> {
+            drops.incrementAndGet();
+            if (seen.get() < drops.get())
+                early.incrementAndGet();
+        });
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread workers = new Thread(() -> {
+            try {
+                bus.run(done);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        workers.start();
+
+        for (int tick = 1; tick <= 20; tick++) {
+            bus.fire(new Event.ClockTick(tick));
+            assertThat(bus.getPending().awaitQuiescence(5, TimeUnit.SECONDS), is(true));
+        }
+        done.set(true);
+        workers.join();
+
+        assertThat(drops.get(), is(20));
+        assertThat(early.get(), is(0));
+    }
+
+    // A delayed event holds up quiescence until it has been dispatched
+    @Test
+    public void testDelayedEventIsPending() throws InterruptedException {
+        PartitionedEventBus bus = new PartitionedEventBus();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        EventReactor mock = Mockito.mock(EventReactor.class);
+        bus.attach(mock);
+
+        bus.fireTopicLater(EventTopic.PASSENGER, dropEvent, executor, 20, TimeUnit.MILLISECONDS);
+        assertThat(bus.getPending().get(), is(1L));
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(bus.getPending().get(), is(1L));
+
+        bus.processAll();
+        assertThat(bus.getPending().get(), is(0L));
+        Mockito.verify(mock, times(1)).syncEvent(any(EventBus.class), eq(dropEvent));
+    }
 }
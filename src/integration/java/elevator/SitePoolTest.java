@@ -0,0 +1,133 @@
+package elevator;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+import elevator.site.Site;
+import elevator.site.SitePool;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class SitePoolTest {
+    private static final Config conf = ConfigFactory.parseString(
+            "num-floors = 20, num-elevators = 2, scheduler = rrfifo, queue-depth = 4096, " +
+                    "metrics { in-process = true, window-ticks = 100, slots = 10 }");
+
+    private static AtomicInteger countDrops(Site site) {
+        AtomicInteger drops = new AtomicInteger(0);
+        site.getBus().attachTopic(EnumSet.of(EventTopic.PASSENGER), (b, event) -> {
+            if (event instanceof Event.DropPassenger)
+                drops.incrementAndGet();
+        });
+        return drops;
+    }
+
+    private static void awaitDrops(AtomicInteger[] drops, int expected, long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (AtomicInteger d : drops) {
+            while (d.get() < expected && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testAllSitesServed() throws InterruptedException {
+        final int numSites = 6;
+        final int numPassengers = 20;
+        SitePool pool = new SitePool(2, 16, 1);
+        AtomicInteger[] drops = new AtomicInteger[numSites];
+
+        Random random = new Random(11);
+        for (int s = 0; s < numSites; s++) {
+            Site site = Site.create(Integer.toString(s), conf);
+            drops[s] = countDrops(site);
+            for (int i = 0; i < numPassengers; i++) {
+                final int origin = 1 + random.nextInt(19);
+                site.getBuilding().getEventQueue().scheduleAt(2 + random.nextInt(100), EventTopic.SCHEDULING,
+                        new Event.ScheduleRequest(new Passenger(origin, 0), origin));
+            }
+            pool.add(site);
+        }
+
+        pool.start();
+        awaitDrops(drops, numPassengers, TimeUnit.SECONDS.toMillis(20));
+        pool.shutdown();
+        pool.await();
+
+        for (int s = 0; s < numSites; s++) {
+            assertThat("site " + s, drops[s].get(), is(numPassengers));
+            assertThat(pool.get(Integer.toString(s)).get().getStats().getServed(), is((long) numPassengers));
+        }
+    }
+
+    // A worker blocked on its own full queue never returns, hence the timeout
+    @Test(timeout = 60_000)
+    public void testBurstLargerThanQueue() throws InterruptedException {
+        final int numPassengers = 200;
+        SitePool pool = new SitePool(1, 16, 1);
+        Site site = Site.create("burst", conf.withValue("queue-depth", ConfigValueFactory.fromAnyRef(64)));
+        AtomicInteger[] drops = {countDrops(site)};
+
+        // Released onto the bus by the worker itself, all on the same tick
+        for (int i = 0; i < numPassengers; i++) {
+            final int origin = 1 + i % 19;
+            site.getBuilding().getEventQueue().scheduleAt(5, EventTopic.SCHEDULING,
+                    new Event.ScheduleRequest(new Passenger(origin, 0), origin));
+        }
+        pool.add(site);
+
+        pool.start();
+        awaitDrops(drops, numPassengers, TimeUnit.SECONDS.toMillis(30));
+        pool.shutdown();
+        pool.await();
+
+        assertThat(drops[0].get(), is(numPassengers));
+    }
+
+    @Test
+    public void testFloodedSiteDoesNotStallOthers() throws InterruptedException {
+        SitePool pool = new SitePool(1, 16, 1);
+        Site flooded = Site.create("flooded", conf);
+        Site quiet = Site.create("quiet", conf);
+        AtomicInteger[] drops = {countDrops(quiet)};
+        pool.add(flooded).add(quiet);
+
+        // Far more work than the single worker gets through in the time the quiet site needs
+        final Event noise = () -> "noise";
+        flooded.getBus().attachTopic(EnumSet.of(EventTopic.DEFAULT), (b, event) -> {
+            if (event != noise)
+                return;
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 4000; i++)
+            flooded.getBus().tryFireTopic(EventTopic.DEFAULT, noise);
+
+        quiet.getBuilding().getEventQueue().scheduleAt(2, EventTopic.SCHEDULING,
+                new Event.ScheduleRequest(new Passenger(15, 0), 15));
+
+        pool.start();
+        awaitDrops(drops, 1, TimeUnit.SECONDS.toMillis(10));
+        final long floodedBacklog = flooded.getBus().getBacklog();
+        pool.shutdown();
+        pool.await();
+
+        assertThat(drops[0].get(), is(1));
+        assertThat(floodedBacklog, is(greaterThan(0L)));
+        assertThat(flooded.getLag(), is(greaterThan(0L)));
+    }
+}
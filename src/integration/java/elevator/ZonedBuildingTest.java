@@ -0,0 +1,59 @@
+package elevator;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import elevator.site.SitePool;
+import elevator.zone.ZoneLayout;
+import elevator.zone.ZonedBuilding;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class ZonedBuildingTest {
+    private static final Config conf = ConfigFactory.parseString(
+            "num-elevators = 2, scheduler = greedy, queue-depth = 1024, " +
+                    "metrics { in-process = false, window-ticks = 100, slots = 10 }");
+
+    @Test
+    public void testPassengersCrossZones() throws InterruptedException {
+        final ZonedBuilding tower = new ZonedBuilding("tower", new ZoneLayout(0, 10, 20, 30), conf, 3);
+        final SitePool pool = new SitePool(2, 16, 1);
+        tower.addTo(pool);
+
+        // Same zone, up across two sky lobbies, down across one and from a sky lobby
+        tower.submit(2, 7);
+        tower.submit(1, 28);
+        tower.submit(25, 12);
+        tower.submit(10, 3);
+
+        final int numRandom = 30;
+        final Random random = new Random(5);
+        for (int i = 0; i < numRandom; i++) {
+            final int origin = random.nextInt(31);
+            int dest = random.nextInt(30);
+            if (dest >= origin)
+                ++dest;
+            tower.submit(origin, dest);
+        }
+
+        pool.start();
+        final long expected = 4 + numRandom;
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (tower.getArrived() < expected && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        pool.shutdown();
+        pool.await();
+
+        assertThat(tower.getArrived(), is(expected));
+        assertThat(tower.getTransfers(), is(greaterThan(3L)));
+
+        // The zones only know their own floors
+        assertThat(tower.getZone(1).getBuilding().getNumFloors(), is(11));
+        assertThat(tower.getRouter(1).getEntered(), is(greaterThan(0L)));
+    }
+}
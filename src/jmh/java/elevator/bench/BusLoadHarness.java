@@ -0,0 +1,405 @@
+package elevator.bench;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.event.PartitionedEventBus;
+import elevator.event.RunnableEventBus;
+import elevator.event.SynchronizedEventBus;
+import elevator.journal.ChronicleEventBus;
+import elevator.metrics.Histogram;
+import io.vavr.collection.Array;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Load harness comparing event bus implementations under the same producer and reactor topology.
+ *
+ * Every run starts a number of producer threads firing probe events round-robin over all topics as fast as
+ * the bus accepts them. A fixed set of reactors subscribes to every topic, so each event is dispatched to
+ * every reactor whichever bus routes it. Probes carry their fire time, giving the fire-to-dispatch latency.
+ * Each combination of bus, workers per topic, producers and queue depth is reported as one JSON object with
+ * throughput, latency percentiles in microseconds and the bytes allocated per event by all threads involved.
+ *
+ * Arguments are optional overrides of the sweep, e.g. {@code producers=1,8 depths=1024 workers=1,4 events=100000}
+ * and {@code out=<path>} to write the results to a file instead of stdout.
+ */
+public class BusLoadHarness {
+    private static final int NUM_REACTORS = 4;
+    private static final long WAKE_UP = -1;
+
+    /**
+     * A bus under test together with the way it is driven.
+     */
+    interface Target {
+        RunnableEventBus bus();
+
+        void start(AtomicBoolean shutdownFlag);
+
+        void stop() throws InterruptedException;
+    }
+
+    /**
+     * Bus implementations by name. New buses only need an entry here to be included in the sweep.
+     */
+    static final Map<String, Function<Settings, Target>> TARGETS = LinkedHashMap.of(
+            "synchronized", SynchronizedTarget::new,
+            "partitioned-run", settings -> new PartitionedTarget(settings, false),
+            "partitioned-dynamic", settings -> new PartitionedTarget(settings, true),
+            "chronicle", ChronicleTarget::new);
+
+    /**
+     * Buses without a bound on their queue, which are run once rather than for every queue depth.
+     */
+    static final Set<String> UNBOUNDED = HashSet.of("synchronized", "chronicle");
+
+    static class Settings {
+        final int workers;
+        final int producers;
+        final int queueDepth;
+        final long events;
+
+        Settings(int workers, int producers, int queueDepth, long events) {
+            this.workers = workers;
+            this.producers = producers;
+            this.queueDepth = queueDepth;
+            this.events = events;
+        }
+    }
+
+    private static class SynchronizedTarget implements Target {
+        private final SynchronizedEventBus bus = new SynchronizedEventBus();
+        private final List<Thread> threads = new ArrayList<>();
+        private final int workers;
+
+        SynchronizedTarget(Settings settings) {
+            this.workers = settings.workers;
+        }
+
+        @Override
+        public RunnableEventBus bus() {
+            return bus;
+        }
+
+        @Override
+        public void start(AtomicBoolean shutdownFlag) {
+            for (int i = 0; i < workers; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        bus.run(shutdownFlag);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "sync-" + i);
+                thread.start();
+                threads.add(thread);
+            }
+        }
+
+        @Override
+        public void stop() throws InterruptedException {
+            // Workers block on the queue until they see one more event after the flag is set
+            for (Thread ignored : threads)
+                bus.fire(new Event.ClockTick(WAKE_UP));
+            for (Thread thread : threads)
+                thread.join();
+        }
+    }
+
+    private static class PartitionedTarget implements Target {
+        private final PartitionedEventBus bus;
+        private final boolean dynamic;
+        private Thread runner;
+
+        PartitionedTarget(Settings settings, boolean dynamic) {
+            this.bus = new PartitionedEventBus(settings.queueDepth);
+            this.dynamic = dynamic;
+            for (EventTopic topic : EventTopic.values())
+                bus.setTopicWorkers(topic, settings.workers);
+        }
+
+        @Override
+        public RunnableEventBus bus() {
+            return bus;
+        }
+
+        @Override
+        public void start(AtomicBoolean shutdownFlag) {
+            runner = new Thread(() -> {
+                try {
+                    if (dynamic)
+                        bus.dynamicRun(shutdownFlag);
+                    else
+                        bus.run(shutdownFlag);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "partitioned");
+            runner.start();
+        }
+
+        @Override
+        public void stop() throws InterruptedException {
+            runner.join();
+        }
+    }
+
+    /**
+     * Topics are memory-mapped files in a scratch directory, read back by a single thread whatever the worker count.
+     */
+    private static class ChronicleTarget implements Target {
+        private final Path dir;
+        private final ChronicleEventBus bus;
+        private Thread runner;
+
+        ChronicleTarget(Settings settings) {
+            try {
+                dir = Files.createTempDirectory("bus-load");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bus = new ChronicleEventBus(dir);
+        }
+
+        @Override
+        public RunnableEventBus bus() {
+            return bus;
+        }
+
+        @Override
+        public void start(AtomicBoolean shutdownFlag) {
+            runner = new Thread(() -> bus.run(shutdownFlag), "chronicle");
+            runner.start();
+        }
+
+        @Override
+        public void stop() throws InterruptedException {
+            runner.join();
+            bus.close();
+            try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Records the latency of probe events. The default {@code syncEvent} serializes dispatch per reactor,
+     * so the histogram has a single writer at a time.
+     */
+    private static class Probe implements EventReactor {
+        private final Histogram latency = new Histogram();
+        private final AtomicLong dispatched;
+
+        Probe(AtomicLong dispatched) {
+            this.dispatched = dispatched;
+        }
+
+        @Override
+        public void onEvent(EventBus bus, Event event) {
+            if (event instanceof Event.ClockTick) {
+                final long firedAt = ((Event.ClockTick) event).getValue();
+                if (firedAt == WAKE_UP)
+                    return;
+
+                latency.record(System.nanoTime() - firedAt);
+                dispatched.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Bytes allocated by each live thread, as far as the JVM supports measuring it.
+     */
+    private static java.util.Map<Long, Long> allocatedByThread() {
+        final java.util.Map<Long, Long> result = new HashMap<>();
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return result;
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long[] ids = threads.getAllThreadIds();
+        final long[] bytes = threads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0)
+                result.put(ids[i], bytes[i]);
+        }
+        return result;
+    }
+
+    private static long currentThreadAllocated() {
+        final java.util.Map<Long, Long> all = allocatedByThread();
+        return all.getOrDefault(Thread.currentThread().getId(), 0L);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(c -> c > 0)
+                .sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(c -> c > 0)
+                .sum();
+    }
+
+    static String run(String name, Settings settings) throws InterruptedException {
+        final Target target = TARGETS.get(name).get().apply(settings);
+        final RunnableEventBus bus = target.bus();
+        final AtomicLong dispatched = new AtomicLong();
+        final Array<Probe> probes = Array.range(0, NUM_REACTORS).map(i -> new Probe(dispatched));
+        probes.forEach(probe -> bus.attachTopic(EnumSet.allOf(EventTopic.class), probe));
+
+        final AtomicBoolean shutdownFlag = new AtomicBoolean(false);
+        final AtomicLong producerAllocated = new AtomicLong();
+        final EventTopic[] topics = EventTopic.values();
+        final long perProducer = settings.events / settings.producers;
+        final long expected = perProducer * settings.producers * NUM_REACTORS;
+
+        System.gc();
+        final java.util.Map<Long, Long> allocatedBefore = allocatedByThread();
+        final long gcCountBefore = gcCount();
+        final long gcMillisBefore = gcMillis();
+        final long started = System.nanoTime();
+
+        target.start(shutdownFlag);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < settings.producers; p++) {
+            final int offset = p;
+            Thread producer = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++)
+                    bus.fireTopic(topics[(int) ((i + offset) % topics.length)], new Event.ClockTick(System.nanoTime()));
+                producerAllocated.addAndGet(currentThreadAllocated());
+            }, "producer-" + p);
+            producer.start();
+            producers.add(producer);
+        }
+
+        for (Thread producer : producers)
+            producer.join();
+        while (dispatched.get() < expected)
+            TimeUnit.MICROSECONDS.sleep(100);
+
+        final double seconds = (System.nanoTime() - started) / 1e9;
+        final java.util.Map<Long, Long> allocatedAfter = allocatedByThread();
+        final long gcCountAfter = gcCount();
+        final long gcMillisAfter = gcMillis();
+
+        shutdownFlag.set(true);
+        target.stop();
+
+        long allocated = producerAllocated.get();
+        for (java.util.Map.Entry<Long, Long> entry : allocatedAfter.entrySet())
+            allocated += entry.getValue() - allocatedBefore.getOrDefault(entry.getKey(), 0L);
+
+        final Histogram latency = new Histogram();
+        probes.forEach(probe -> latency.add(probe.latency));
+        final long events = perProducer * settings.producers;
+
+        return String.format(Locale.ROOT,
+                "{\"bus\":\"%s\",\"workers\":%d,\"producers\":%d,\"queueDepth\":%d,\"reactors\":%d,\"events\":%d," +
+                        "\"wallSeconds\":%.3f,\"eventsPerSecond\":%.0f,\"dispatchesPerSecond\":%.0f," +
+                        "\"latencyMeanMicros\":%.1f,\"latencyP50Micros\":%.1f,\"latencyP99Micros\":%.1f," +
+                        "\"latencyP999Micros\":%.1f,\"latencyMaxMicros\":%.1f," +
+                        "\"allocatedBytesPerEvent\":%.1f,\"allocationMBPerSecond\":%.1f,\"gcCount\":%d,\"gcMillis\":%d}",
+                name, settings.workers, settings.producers, settings.queueDepth, NUM_REACTORS, events,
+                seconds, events / seconds, expected / seconds,
+                latency.getMean() / 1e3, latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3,
+                latency.getValueAtPercentile(99.9) / 1e3, latency.getMax() / 1e3,
+                (double) allocated / events, allocated / seconds / (1 << 20),
+                gcCountAfter - gcCountBefore, gcMillisAfter - gcMillisBefore);
+    }
+
+    private static Array<Integer> intList(String value) {
+        return Array.of(value.split(",")).map(String::trim).map(Integer::parseInt);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Array<String> buses = TARGETS.keySet().toArray();
+        Array<Integer> producers = Array.of(1, 2, 4, 8);
+        Array<Integer> depths = Array.of(64, 1024, 16384);
+        Array<Integer> workers = Array.of(1, 4);
+        long events = 200_000;
+        String out = null;
+
+        for (String arg : args) {
+            final String[] pair = arg.split("=", 2);
+            if (pair.length != 2)
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+
+            switch (pair[0]) {
+                case "buses":
+                    buses = Array.of(pair[1].split(","));
+                    break;
+                case "producers":
+                    producers = intList(pair[1]);
+                    break;
+                case "depths":
+                    depths = intList(pair[1]);
+                    break;
+                case "workers":
+                    workers = intList(pair[1]);
+                    break;
+                case "events":
+                    events = Long.parseLong(pair[1]);
+                    break;
+                case "out":
+                    out = pair[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + pair[0]);
+            }
+        }
+
+        // Let the JIT settle on the dispatch paths before anything is recorded
+        for (String bus : buses)
+            run(bus, new Settings(1, 1, 1024, events / 4));
+
+        List<String> results = new ArrayList<>();
+        for (String bus : buses) {
+            final boolean bounded = !UNBOUNDED.contains(bus);
+            for (int w : workers) {
+                for (int p : producers) {
+                    for (int depth : bounded ? depths : depths.take(1)) {
+                        final String result = run(bus, new Settings(w, p, bounded ? depth : 0, events));
+                        System.err.println(result);
+                        results.add(result);
+                    }
+                }
+            }
+        }
+
+        final String json = "[\n" + String.join(",\n", results) + "\n]\n";
+        if (out != null) {
+            Files.createDirectories(Paths.get(out).toAbsolutePath().getParent());
+            Files.writeString(Paths.get(out), json);
+        } else {
+            System.out.print(json);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package elevator.bench;
+
+import elevator.event.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fire-and-dispatch cost of one event through each bus implementation, processed inline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+    @Param({"synchronized", "partitioned", "topic"})
+    String busType;
+
+    @Param({"1", "16"})
+    int numReactors;
+
+    private RunnableEventBus bus;
+    private final Event event = new Event.ClockTick(1);
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        switch (busType) {
+            case "synchronized":
+                bus = new SynchronizedEventBus();
+                break;
+            case "partitioned":
+                bus = new PartitionedEventBus();
+                break;
+            default:
+                bus = new TopicBus(EventTopic.DEFAULT, new NullBus(), 1024);
+        }
+
+        for (int i = 0; i < numReactors; i++)
+            bus.attachTopic(EnumSet.of(EventTopic.DEFAULT), (b, e) -> blackhole.consume(e));
+    }
+
+    @Benchmark
+    public int fireAndProcess() {
+        bus.fire(event);
+        return bus.process(1);
+    }
+}
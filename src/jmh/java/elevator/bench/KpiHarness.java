@@ -0,0 +1,126 @@
+package elevator.bench;
+
+import elevator.event.EventTopic;
+import elevator.event.SynchronizedEventBus;
+import elevator.metrics.BuildingStats;
+import elevator.metrics.MetricsReactor;
+import elevator.model.Building;
+import elevator.model.HomingElevatorFactory;
+import elevator.scheduling.Scheduler;
+import elevator.scheduling.SchedulerRegistry;
+import elevator.simulation.DeferredEventQueue;
+import elevator.simulation.OfflineSimulator;
+import elevator.traffic.ScenarioFeeder;
+import elevator.traffic.TrafficGenerator;
+import elevator.traffic.TrafficPattern;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * End-to-end KPIs of each scheduler over fixed-seed traffic scenarios, run through {@link OfflineSimulator}.
+ *
+ * Prints a JSON array with one object per scenario and scheduler, to stdout or to the file given as the
+ * first argument, so results of different revisions can be diffed or compared by a script.
+ */
+public class KpiHarness {
+    private static final long SEED = 42;
+    private static final int NUM_FLOORS = 60;
+    private static final int NUM_ELEVATORS = 8;
+    private static final long TRAFFIC_TICKS = 20_000;
+    private static final long DRAIN_TICKS = 2_000;
+
+    private static class Scenario {
+        final String name;
+        final TrafficPattern pattern;
+        final double rate;
+
+        Scenario(String name, TrafficPattern pattern, double rate) {
+            this.name = name;
+            this.pattern = pattern;
+            this.rate = rate;
+        }
+    }
+
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("up-peak", TrafficPattern.UP_PEAK, 0.15),
+            new Scenario("down-peak", TrafficPattern.DOWN_PEAK, 0.15),
+            new Scenario("lunch", TrafficPattern.LUNCH, 0.15),
+            new Scenario("interfloor", TrafficPattern.INTERFLOOR, 0.1),
+            new Scenario("uniform", TrafficPattern.UNIFORM, 0.1));
+
+    private static Scheduler scheduler(String name) {
+        return SchedulerRegistry.create(name);
+    }
+
+    static String run(Scenario scenario, String schedulerName) {
+        int[] homes = new int[NUM_ELEVATORS];
+        for (int i = 0; i < NUM_ELEVATORS; i++)
+            homes[i] = i * NUM_FLOORS / NUM_ELEVATORS;
+
+        SynchronizedEventBus bus = new SynchronizedEventBus();
+        DeferredEventQueue queue = new DeferredEventQueue();
+        Building.builder()
+                .floors(NUM_FLOORS)
+                .elevators(NUM_ELEVATORS)
+                .setElevatorFactory(new HomingElevatorFactory(NUM_FLOORS, homes))
+                .setEventBus(bus)
+                .eventQueue(queue)
+                .scheduler(scheduler(schedulerName))
+                .build();
+
+        final long ticks = TRAFFIC_TICKS + DRAIN_TICKS;
+        MetricsReactor metrics = new MetricsReactor(NUM_ELEVATORS, (int) ticks, 10);
+        BuildingStats stats = new BuildingStats(NUM_ELEVATORS);
+        bus.attach(metrics);
+        bus.attachTopic(BuildingStats.TOPICS, stats);
+
+        TrafficGenerator traffic = TrafficGenerator.builder()
+                .floors(NUM_FLOORS)
+                .pattern(scenario.pattern)
+                .poisson(scenario.rate)
+                .seed(SEED)
+                .until(TRAFFIC_TICKS)
+                .build();
+        ScenarioFeeder feeder = new ScenarioFeeder(traffic, queue, NUM_FLOORS, 0, 50);
+        feeder.fill(0);
+        bus.attachTopic(EnumSet.of(EventTopic.DEFAULT), feeder);
+
+        final long started = System.nanoTime();
+        new OfflineSimulator(bus).runTo(ticks);
+        final double seconds = (System.nanoTime() - started) / 1e9;
+
+        return String.format(Locale.ROOT,
+                "{\"scenario\":\"%s\",\"scheduler\":\"%s\",\"seed\":%d,\"floors\":%d,\"elevators\":%d,\"ticks\":%d," +
+                        "\"requests\":%d,\"served\":%d,\"wallSeconds\":%.3f,\"ticksPerSecond\":%.1f,\"requestsPerSecond\":%.1f," +
+                        "\"meanWait\":%.2f,\"p99Wait\":%d,\"meanRide\":%.2f,\"rejections\":%d,\"rejectionRate\":%.4f,\"missed\":%d}",
+                scenario.name, schedulerName, SEED, NUM_FLOORS, NUM_ELEVATORS, ticks,
+                traffic.getGenerated(), stats.getServed(), seconds, ticks / seconds, traffic.getGenerated() / seconds,
+                metrics.getMeanWait(), metrics.getWaitPercentile(99), metrics.getMeanRide(),
+                metrics.getRejected(), metrics.getRejectionRate(), metrics.getMissedConnections());
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> results = new ArrayList<>();
+        for (Scenario scenario : SCENARIOS) {
+            for (String scheduler : List.of("greedy", "rrfifo")) {
+                final String result = run(scenario, scheduler);
+                System.err.println(result);
+                results.add(result);
+            }
+        }
+
+        final String json = "[\n" + String.join(",\n", results) + "\n]\n";
+        if (args.length > 0) {
+            Files.createDirectories(Paths.get(args[0]).toAbsolutePath().getParent());
+            Files.writeString(Paths.get(args[0]), json);
+        } else {
+            System.out.print(json);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package elevator.bench;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+
+import java.util.EnumSet;
+
+/**
+ * Bus that drops everything, for benchmarking reactors in isolation.
+ */
+class NullBus implements EventBus {
+    long fired = 0;
+
+    @Override
+    public void attachTopic(EnumSet<EventTopic> topics, EventReactor reactor) {
+    }
+
+    @Override
+    public void fireTopic(EventTopic topic, Event event) {
+        fired++;
+    }
+}
@@ -0,0 +1,70 @@
+package elevator.bench;
+
+import elevator.event.Event;
+import elevator.model.Elevator;
+import elevator.model.Passenger;
+import elevator.model.Trajectory;
+import elevator.scheduling.GreedyScheduler;
+import elevator.scheduling.RRFIFOScheduler;
+import elevator.scheduling.Scheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single scheduling decision against a building of busy elevators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+    private static final int NUM_FLOORS = 1000;
+    private static final int NUM_REQUESTS = 1024;
+
+    @Param({"greedy", "rrfifo"})
+    String scheduler;
+
+    @Param({"10", "100"})
+    int numElevators;
+
+    private Scheduler sched;
+    private final NullBus bus = new NullBus();
+    private Event.ScheduleRequest[] requests;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int[] homes = new int[numElevators];
+        for (int i = 0; i < numElevators; i++)
+            homes[i] = i * NUM_FLOORS / numElevators;
+
+        Elevator[] elevators = new Elevator[numElevators];
+        for (int i = 0; i < numElevators; i++) {
+            Trajectory trajectory = Trajectory.createHoming(homes[i], 0, homes[i]);
+            for (int j = 0; j < 4; j++)
+                trajectory = trajectory.augment(random.nextInt(NUM_FLOORS), random.nextInt(NUM_FLOORS));
+
+            elevators[i] = new Elevator(i, NUM_FLOORS, trajectory);
+        }
+
+        sched = scheduler.equals("greedy") ? new GreedyScheduler() : new RRFIFOScheduler();
+        sched.setElevators(elevators);
+
+        requests = new Event.ScheduleRequest[NUM_REQUESTS];
+        for (int i = 0; i < NUM_REQUESTS; i++) {
+            final int origin = random.nextInt(NUM_FLOORS);
+            requests[i] = new Event.ScheduleRequest(new Passenger(origin, (origin + 1 + random.nextInt(NUM_FLOORS - 1)) % NUM_FLOORS), origin);
+        }
+    }
+
+    @Benchmark
+    public long schedule() {
+        sched.onEvent(bus, requests[next++ & (NUM_REQUESTS - 1)]);
+        return bus.fired;
+    }
+}
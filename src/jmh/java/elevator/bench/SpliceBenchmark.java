@@ -0,0 +1,51 @@
+package elevator.bench;
+
+import elevator.util.Splice;
+import io.vavr.collection.Queue;
+import io.vavr.control.Option;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpliceBenchmark {
+    private static final int NUM_FLOORS = 1000;
+    private static final int NUM_REQUESTS = 1024;
+
+    @Param({"4", "32"})
+    int numTurnpoints;
+
+    private Queue<Integer> points;
+    private int[] starts;
+    private int[] ends;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        // Zig-zag so that splices hit both directions
+        points = Queue.empty();
+        for (int i = 0; i < numTurnpoints; i++)
+            points = points.append(i % 2 == 0 ? NUM_FLOORS / 2 + random.nextInt(NUM_FLOORS / 2) : random.nextInt(NUM_FLOORS / 2));
+
+        starts = new int[NUM_REQUESTS];
+        ends = new int[NUM_REQUESTS];
+        for (int i = 0; i < NUM_REQUESTS; i++) {
+            starts[i] = random.nextInt(NUM_FLOORS);
+            ends[i] = random.nextInt(NUM_FLOORS);
+        }
+    }
+
+    @Benchmark
+    public Option<Queue<Integer>> splice() {
+        final int i = next++ & (NUM_REQUESTS - 1);
+        return Splice.splice(0, points, starts[i], ends[i]);
+    }
+}
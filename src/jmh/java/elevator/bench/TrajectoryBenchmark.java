@@ -0,0 +1,62 @@
+package elevator.bench;
+
+import elevator.model.Trajectory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectoryBenchmark {
+    private static final int NUM_FLOORS = 1000;
+    private static final int NUM_REQUESTS = 1024;
+
+    @Param({"4", "32"})
+    int numRequests;
+
+    private Trajectory trajectory;
+    private int[] starts;
+    private int[] ends;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        trajectory = Trajectory.createHoming(0, 0, 0);
+        for (int i = 0; i < numRequests; i++)
+            trajectory = trajectory.augment(random.nextInt(NUM_FLOORS), random.nextInt(NUM_FLOORS));
+
+        starts = new int[NUM_REQUESTS];
+        ends = new int[NUM_REQUESTS];
+        for (int i = 0; i < NUM_REQUESTS; i++) {
+            starts[i] = random.nextInt(NUM_FLOORS);
+            ends[i] = random.nextInt(NUM_FLOORS);
+        }
+    }
+
+    @Benchmark
+    public Trajectory step() {
+        return trajectory.step();
+    }
+
+    @Benchmark
+    public Trajectory advance100() {
+        return trajectory.advance(100);
+    }
+
+    @Benchmark
+    public Trajectory augment() {
+        final int i = next++ & (NUM_REQUESTS - 1);
+        return trajectory.augment(starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public long ticksUntilNextEvent() {
+        return trajectory.ticksUntilNextEvent();
+    }
+}
@@ -5,24 +5,49 @@ package elevator;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import elevator.api.AdmissionControl;
+import elevator.api.PassengerBatch;
+import elevator.api.StressJob;
+import elevator.api.StressJobs;
+import elevator.api.Trips;
+import elevator.cluster.ClusterNode;
 import elevator.event.*;
+import elevator.journal.JournalJanitor;
+import elevator.journal.JournalPolicy;
+import elevator.live.LiveStateBroadcaster;
+import elevator.metrics.BuildingStats;
+import elevator.metrics.MetricsReactor;
 import elevator.model.*;
-import elevator.scheduling.GreedyScheduler;
-import elevator.scheduling.RRFIFOScheduler;
-import elevator.scheduling.Scheduler;
+import elevator.scheduling.SchedulerRegistry;
+import elevator.scheduling.SwitchableScheduler;
+import elevator.simulation.BarrierSimulator;
+import elevator.site.Site;
+import elevator.site.SitePool;
 import elevator.simulation.DeferredEventQueue;
 import elevator.simulation.FixedRateSimulator;
 import elevator.simulation.WatchdogReactor;
+import elevator.traffic.ScenarioFeeder;
+import elevator.traffic.ScenarioReader;
+import elevator.traffic.TrafficGenerator;
+import elevator.traffic.TrafficPattern;
+import elevator.zone.ZonedBuilding;
 import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
 import io.javalin.core.validation.Validator;
 import io.vavr.collection.List;
 import io.vavr.collection.Stream;
+import io.vavr.control.Option;
 import io.vavr.control.Try;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
-import java.util.Set;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -34,16 +59,25 @@ public class App implements EventEmitter, EventReactor {
     private final int TICK_RATE = conf.getInt("tick-rate");
     private final int NUM_FLOORS = conf.getInt("num-floors");
     private final int NUM_ELEVATORS = conf.getInt("num-elevators");
+    private final int MAX_BATCH = conf.getInt("max-batch");
     private int[] HOME_FLOORS;
 
     private DeferredEventQueue queue;
-    private Scheduler sched;
+    private SwitchableScheduler sched;
     private RunnableEventBus bus;
     private ElevatorFactory elevatorFactory;
     private Building building;
+    private BuildingStats stats;
+    private MetricsReactor metrics;
+    private BusInstrumentation instrumentation;
+    private JournalJanitor janitor;
+    private Site mainSite;
+    private SitePool sitePool;
+    private ClusterNode cluster;
+    private ZonedBuilding zoned;
+    private final ScheduledExecutorService housekeeping = Executors.newSingleThreadScheduledExecutor();
 
     private AtomicLong reqs = new AtomicLong(0);
-    private AtomicLong drops = new AtomicLong(0);
     private AtomicLong lastDrop = new AtomicLong(0);
 
     public void init() {
@@ -54,45 +88,79 @@ public class App implements EventEmitter, EventReactor {
 
         queue = new DeferredEventQueue();
 
-        switch (conf.getString("scheduler")) {
-            case "greedy":
-                sched = new GreedyScheduler();
-                break;
-            case "rrfifo":
-            case "round-robin":
-            default:
-                sched = new RRFIFOScheduler();
-                break;
-        }
+        sched = new SwitchableScheduler(conf.getString("scheduler"));
+        if (!conf.getString("shadow-scheduler").isEmpty())
+            sched.shadow(conf.getString("shadow-scheduler"));
 
-        bus = new PartitionedEventBus(conf.getInt("event-bus.queue-depth"))
+        final PartitionedEventBus partitioned = new PartitionedEventBus(conf.getInt("event-bus.queue-depth"))
                 .setTopicWorkers(EventTopic.DEFAULT, conf.getInt("event-bus.workers.default"))
                 .setTopicWorkers(EventTopic.SCHEDULING, conf.getInt("event-bus.workers.scheduling"))
                 .setTopicWorkers(EventTopic.PASSENGER, conf.getInt("event-bus.workers.passenger"))
                 .setTopicWorkers(EventTopic.ELEVATOR, conf.getInt("event-bus.workers.elevator"))
                 .setTopicPriority(EventTopic.ELEVATOR, Thread.MAX_PRIORITY);
 
-        elevatorFactory = new HomingElevatorFactory(NUM_FLOORS, HOME_FLOORS);
+        if (conf.getBoolean("event-bus.instrumentation")) {
+            instrumentation = new BusInstrumentation().register();
+            partitioned.instrument(instrumentation);
+        }
+        bus = partitioned;
+
+        elevatorFactory = new HomingElevatorFactory(NUM_FLOORS, HOME_FLOORS).setCapacity(conf.getInt("capacity"));
 //        elevatorFactory = new ElevatorFactory(NUM_FLOORS);
 
-        building = Building.builder()
+        final Building.Builder builder = Building.builder()
                 .floors(NUM_FLOORS)
                 .elevators(NUM_ELEVATORS)
                 .setElevatorFactory(elevatorFactory)
                 .setEventBus(bus)
                 .eventQueue(queue)
-                .scheduler(sched)
-                .build();
+                .scheduler(sched);
+
+        if (conf.getBoolean("tick-phase"))
+            builder.tickPhase();
+
+        building = builder.build();
 
 //        LoggingEventListener console = new LoggingEventListener(log);
 //        bus.attach(console);
 // Monitor event stream from another process using Chronicle Queue:
-        ChronicleAppenderListener chronicle = new ChronicleAppenderListener(CHRONICLE_DIR);
+        final JournalPolicy journalPolicy = JournalPolicy.fromConfig(CHRONICLE_DIR, conf.getConfig("journal"));
+        final SingleChronicleQueue journal = journalPolicy.open(CHRONICLE_DIR);
+        ChronicleAppenderListener chronicle = new ChronicleAppenderListener(journal);
         bus.attach(chronicle);
+        janitor = new JournalJanitor(journal, journalPolicy).start(housekeeping);
 
         bus.attach(new WatchdogReactor());
 
+        stats = new BuildingStats(NUM_ELEVATORS);
+        bus.attachTopic(BuildingStats.TOPICS, stats);
+
+        // Metrics can also be computed out of process by Monitoring from the journal
+        if (conf.getBoolean("metrics.in-process")) {
+            metrics = new MetricsReactor(NUM_ELEVATORS, conf.getInt("metrics.window-ticks"), conf.getInt("metrics.slots"));
+            bus.attach(metrics);
+        }
+
+        final String scenario = conf.getString("traffic.scenario");
+        ScenarioReader reader = null;
+        if (!scenario.isEmpty()) {
+            reader = Try.of(() -> ScenarioReader.open(Paths.get(scenario)))
+                    .getOrElseThrow(ex -> new IllegalStateException("Cannot open traffic scenario " + scenario, ex));
+            log.info("Replaying traffic scenario {}", scenario);
+        } else if (conf.getBoolean("traffic.synthetic.enabled")) {
+            reader = TrafficGenerator.fromConfig(NUM_FLOORS, conf.getConfig("traffic.synthetic"));
+            log.info("Generating {} traffic", conf.getString("traffic.synthetic.pattern"));
+        }
+
+        if (reader != null) {
+            final ScenarioFeeder feeder = new ScenarioFeeder(reader, queue, NUM_FLOORS, queue.getClock(),
+                    conf.getInt("traffic.lookahead"));
+            feeder.fill(queue.getClock());
+            bus.attachTopic(ScenarioFeeder.TOPICS, feeder);
+        }
+
         bus.attach(this); // This is also a listener for stress test monitoring
+        mainSite = new Site("0", building, partitioned, stats, metrics);
     }
 
     @Override
@@ -102,49 +170,35 @@ public class App implements EventEmitter, EventReactor {
 
     @Override
     public void onEvent(EventBus me, Event evt) {
-        if (evt instanceof Event.DropPassenger) {
-            drops.incrementAndGet();
-//            log.info("Passengers served so far {}/{}", drops.get(), reqs.get());
-        } else if (evt instanceof Event.ClockTick) {
+        if (evt instanceof Event.ClockTick) {
             final long clock = ((Event.ClockTick) evt).getValue();
             if (clock % 30 == 0) {
+                final long served = stats.getServed();
                 log.info("*** Time is now {} ***", clock);
                 log.info("*** Event Bus Queue health: {} depth: {} ***", bus.health(), bus.getBacklog());
-                log.info("*** Passengers served {}/{}. Last drop scheduled for {} ***", drops.get(), reqs.get(), lastDrop.get());
-                final int idling = Stream.range(0, building.getNumElevators())
-                        .map(building::getElevator)
-                        .map(Elevator::getTrajectory)
-                        .count(Trajectory::isIdle);
-
-                final Number waitingForPickup = Stream.range(0, building.getNumFloors())
-                        .map(building::getFloor)
-                        .map(Floor::getPassengers)
-                        .map(Set::size)
-                        .sum();
-
-                final Number inTransit = Stream.range(0, building.getNumElevators())
-                        .map(building::getElevator)
-                        .map(Elevator::getPassengers)
-                        .map(Set::size)
-                        .sum();
-
+                log.info("*** Passengers served {}/{}. Last drop scheduled for {} ***", served, reqs.get(), lastDrop.get());
                 log.info("*** Idle elevators: {}/{} Passengers waiting: {} In transit: {} ***",
-                        idling, building.getNumElevators(),
-                        waitingForPickup,
-                        inTransit);
-
-                if (clock > lastDrop.get() & drops.get() < reqs.get()) {
-                    final List<Passenger> stranded = Stream.range(0, building.getNumFloors())
-                            .map(building::getFloor)
-                            .flatMap(Floor::getPassengers)
-                            .toList();
-
-                    final List<Passenger> riding = Stream.range(0, building.getNumElevators())
-                            .map(building::getElevator)
-                            .flatMap(Elevator::getPassengers)
-                            .toList();
-
-                    log.warn("*** Stranded passengers {} & {} ***", stranded, riding);
+                        stats.getIdleElevators(), stats.getNumElevators(),
+                        stats.getWaiting(),
+                        stats.getInTransit());
+
+                if (clock > lastDrop.get() & served < reqs.get()) {
+                    log.warn("*** Stranded passengers: {} waiting & {} riding ***", stats.getWaiting(), stats.getInTransit());
+
+                    // Full scan of the building only when asked for
+                    if (log.isDebugEnabled()) {
+                        final List<Passenger> stranded = Stream.range(0, building.getNumFloors())
+                                .map(building::getFloor)
+                                .flatMap(Floor::getPassengers)
+                                .toList();
+
+                        final List<Passenger> riding = Stream.range(0, building.getNumElevators())
+                                .map(building::getElevator)
+                                .flatMap(Elevator::getPassengers)
+                                .toList();
+
+                        log.debug("*** Stranded passengers {} & {} ***", stranded, riding);
+                    }
                 }
 
             }
@@ -170,13 +224,87 @@ public class App implements EventEmitter, EventReactor {
     }
 
     public CompletableFuture<Try<Void>> start() {
-        return new FixedRateSimulator(getBus(), TICK_RATE, 1).startAsync();
+        switch (conf.getString("mode")) {
+            case "barrier":
+                // As fast as possible, ignores tick-rate
+                return new BarrierSimulator((PartitionedEventBus) getBus()).startAsync();
+            case "sites":
+                return startSites();
+            case "cluster":
+                return startCluster();
+            case "zoned":
+                return startZoned();
+            case "fixed-rate":
+            default:
+                return new FixedRateSimulator(getBus(), TICK_RATE, 1).startAsync();
+        }
+    }
+
+    private CompletableFuture<Try<Void>> startSites() {
+        getBus();
+        final Config sitesConf = conf.getConfig("sites");
+        sitePool = new SitePool(sitesConf.getInt("workers"), sitesConf.getInt("quantum"), TICK_RATE).add(mainSite);
+        for (int i = 1; i <= sitesConf.getInt("count"); i++)
+            sitePool.add(Site.create(Integer.toString(i), sitesConf));
+
+        sitePool.start();
+        return CompletableFuture.supplyAsync(() -> Try.run(sitePool::await));
+    }
+
+    private CompletableFuture<Try<Void>> startCluster() {
+        final CompletableFuture<Try<Void>> task = startSites();
+        final Config sitesConf = conf.getConfig("sites");
+        cluster = ClusterNode.fromConfig(conf.getConfig("cluster"), sitePool,
+                shard -> Site.create(ClusterNode.siteId(shard), sitesConf)).start();
+
+        // Hand the shards over at once rather than when the other nodes notice the locks are gone
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> Try.run(cluster::shutdown)));
+        return task;
+    }
+
+    private CompletableFuture<Try<Void>> startZoned() {
+        final CompletableFuture<Try<Void>> task = startSites();
+        zoned = ZonedBuilding.fromConfig("tower", conf.getConfig("zoned")).addTo(sitePool);
+        return task;
+    }
+
+    /**
+     * Without a site pool, only the main building is served under /buildings.
+     */
+    private Option<Site> findSite(String id) {
+        if (sitePool != null)
+            return sitePool.get(id);
+
+        return mainSite.getId().equals(id) ? Option.of(mainSite) : Option.none();
+    }
+
+    /**
+     * Clients are told apart by the X-Client-Id header, so feeders behind one proxy can be limited separately.
+     */
+    private static String clientOf(Context ctx) {
+        final String id = ctx.header("X-Client-Id");
+        return id != null ? id : ctx.ip();
+    }
+
+    private static void refuse(Context ctx, AdmissionControl.Decision decision) {
+        ctx.header("Retry-After", Long.toString(decision.getRetryAfterSeconds()));
+        if (decision.getOutcome() == AdmissionControl.Outcome.RATE_LIMITED) {
+            ctx.result("Too many requests from this client\n");
+            ctx.status(429);
+        } else {
+            ctx.result("Simulator is overloaded. Try again later\n");
+            ctx.status(503);
+        }
     }
 
     public static void main(String[] args) throws ExecutionException, InterruptedException {
         App app = new App();
         var task = app.start();
-        final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+        final AdmissionControl admission = AdmissionControl.fromConfig(conf.getConfig("admission"));
+        app.bus.attachTopic(AdmissionControl.TOPICS, admission);
+
+        final StressJobs stressJobs = new StressJobs(app.bus, 2);
+        app.bus.attachTopic(StressJobs.TOPICS, stressJobs);
 
         Javalin server = Javalin.create().start(conf.getInt("listen-port"));
         task.thenAccept(vtry -> vtry.onSuccess(x -> {
@@ -188,21 +316,256 @@ public class App implements EventEmitter, EventReactor {
         }));
 
         server.config.addStaticFiles("/web");
+
+        final LiveStateBroadcaster live = new LiveStateBroadcaster(app.building, app.queue::getClock)
+                .start(conf.getLong("live-interval"));
+        server.ws("/live", ws -> {
+            ws.onConnect(ctx -> live.connect(ctx.getSessionId(), ctx::send));
+            ws.onClose(ctx -> live.disconnect(ctx.getSessionId()));
+            ws.onError(ctx -> live.disconnect(ctx.getSessionId()));
+        });
         server.get("/passenger", ctx -> {
+            // The checks only throw once a value is read, so read both before taking a permit
+            final int origin = ctx.queryParam("origin", Integer.class)
+                    .check(i -> Trips.isValidFloor(app.NUM_FLOORS, i))
+                    .get();
+            final int dest = ctx.queryParam("dest", Integer.class)
+                    .check(i -> Trips.isValid(app.NUM_FLOORS, origin, i))
+                    .get();
+
+            final PassengerBatch passenger = PassengerBatch.of(app.NUM_FLOORS, origin, dest);
+            final AdmissionControl.Decision decision = passenger.admit(admission, clientOf(ctx), app.bus);
+            if (!decision.isAdmitted()) {
+                refuse(ctx, decision);
+                return;
+            }
+
+            if (passenger.getStatus(0) != PassengerBatch.ACCEPTED) {
+                ctx.header("Retry-After", "1");
+                ctx.result("Scheduling queue is full. Try again later\n");
+                ctx.status(503);
+            }
+        });
+
+        server.post("/passengers", ctx -> {
+            final boolean binary = "application/octet-stream".equals(ctx.contentType());
+            final PassengerBatch batch;
+            try {
+                batch = binary
+                        ? PassengerBatch.readBinary(ctx.req.getInputStream(), app.NUM_FLOORS, app.MAX_BATCH)
+                        : PassengerBatch.readJsonLines(ctx.req.getReader(), app.NUM_FLOORS, app.MAX_BATCH);
+            } catch (PassengerBatch.BatchTooLargeException ex) {
+                ctx.result(ex.getMessage() + "\n");
+                ctx.status(413);
+                return;
+            }
+
+            // One admission check for the whole batch. Items beyond the permits or the queue are refused one by one
+            final AdmissionControl.Decision decision = batch.admit(admission, clientOf(ctx), app.bus);
+            if (!decision.isAdmitted()) {
+                ctx.header("Retry-After", Long.toString(decision.getRetryAfterSeconds()));
+                ctx.status(decision.getOutcome() == AdmissionControl.Outcome.RATE_LIMITED ? 429 : 503);
+            } else if (batch.count(PassengerBatch.OVERLOADED) > 0) {
+                ctx.header("Retry-After", "1");
+            }
+
+            if (binary) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size());
+                batch.writeBinary(out);
+                ctx.contentType("application/octet-stream");
+                ctx.result(new ByteArrayInputStream(out.toByteArray()));
+            } else {
+                final StringWriter out = new StringWriter(batch.size() * 32);
+                batch.writeJsonLines(out);
+                ctx.contentType("application/x-ndjson");
+                ctx.result(out.toString());
+            }
+        });
+
+        server.get("/buildings", ctx -> {
+            final java.util.List<Site> sites = app.sitePool != null ? app.sitePool.getSites() : java.util.List.of(app.mainSite);
+            ctx.contentType("application/json");
+            ctx.result(List.ofAll(sites).map(Site::toJson).mkString("[", ",", "]"));
+        });
+
+        server.get("/buildings/:id", ctx -> {
+            final Option<Site> site = app.findSite(ctx.pathParam("id"));
+            if (site.isEmpty()) {
+                ctx.status(404);
+                return;
+            }
+
+            ctx.contentType("application/json");
+            ctx.result(site.get().toJson());
+        });
+
+        // Admission control only tracks the main building, so other buildings shed load on their full queues alone
+        server.get("/buildings/:id/passenger", ctx -> {
+            final Option<Site> site = app.findSite(ctx.pathParam("id"));
+            if (site.isEmpty()) {
+                ctx.status(404);
+                return;
+            }
+
+            final int numFloors = site.get().getBuilding().getNumFloors();
             Validator<Integer> origin = ctx.queryParam("origin", Integer.class)
-                    .check(i -> i > 0 && i < app.NUM_FLOORS);
+                    .check(i -> Trips.isValidFloor(numFloors, i));
 
             Validator<Integer> dest = ctx.queryParam("dest", Integer.class)
-                    .check(i -> i > 0 && i < app.NUM_FLOORS && !Objects.equals(i, origin.get()));
-            ;
+                    .check(i -> Trips.isValid(numFloors, origin.get(), i));
 
             Passenger pass = new Passenger(dest.get());
-            app.bus.fireTopic(EventTopic.SCHEDULING, new Event.ScheduleRequest(pass, origin.get()));
+            if (!site.get().getBus().tryFireTopic(EventTopic.SCHEDULING, new Event.ScheduleRequest(pass, origin.get()))) {
+                ctx.header("Retry-After", "1");
+                ctx.result("Scheduling queue is full. Try again later\n");
+                ctx.status(503);
+            }
+        });
+
+        server.get("/buildings/:id/stats", ctx -> {
+            final Option<Site> site = app.findSite(ctx.pathParam("id"));
+            if (site.isEmpty()) {
+                ctx.status(404);
+                return;
+            }
+
+            if (site.get().getMetrics() == null) {
+                ctx.result("In-process metrics are disabled. Query the monitoring process instead.\n");
+                ctx.status(404);
+                return;
+            }
+
+            ctx.contentType("application/json");
+            ctx.result(site.get().getMetrics().toJson());
+        });
+
+        server.get("/shards", ctx -> {
+            if (app.cluster == null) {
+                ctx.result("Not running in cluster mode\n");
+                ctx.status(404);
+                return;
+            }
+
+            ctx.contentType("application/json");
+            ctx.result(app.cluster.toJson());
+        });
+
+        // Accepted by any node and queued for the node that owns the shard
+        server.get("/shards/:shard/passenger", ctx -> {
+            if (app.cluster == null) {
+                ctx.result("Not running in cluster mode\n");
+                ctx.status(404);
+                return;
+            }
+
+            final int numFloors = conf.getInt("sites.num-floors");
+            Validator<Integer> shard = ctx.pathParam("shard", Integer.class)
+                    .check(i -> i >= 0 && i < app.cluster.getNumShards());
+
+            Validator<Integer> origin = ctx.queryParam("origin", Integer.class)
+                    .check(i -> Trips.isValidFloor(numFloors, i));
+
+            Validator<Integer> dest = ctx.queryParam("dest", Integer.class)
+                    .check(i -> Trips.isValid(numFloors, origin.get(), i));
+
+            app.cluster.submit(shard.get(), origin.get(), dest.get());
+            ctx.status(202);
         });
 
-        server.get("/stress", ctx -> {
-            final long start = System.currentTimeMillis();
+        server.get("/zoned", ctx -> {
+            if (app.zoned == null) {
+                ctx.result("Not running in zoned mode\n");
+                ctx.status(404);
+                return;
+            }
+
+            ctx.contentType("application/json");
+            ctx.result(app.zoned.toJson());
+        });
 
+        server.get("/zoned/passenger", ctx -> {
+            if (app.zoned == null) {
+                ctx.result("Not running in zoned mode\n");
+                ctx.status(404);
+                return;
+            }
+
+            final int numFloors = app.zoned.getLayout().getNumFloors();
+            Validator<Integer> origin = ctx.queryParam("origin", Integer.class)
+                    .check(i -> Trips.isValidFloor(numFloors, i, true));
+
+            Validator<Integer> dest = ctx.queryParam("dest", Integer.class)
+                    .check(i -> Trips.isValid(numFloors, origin.get(), i, true));
+
+            ctx.result(Long.toString(app.zoned.submit(origin.get(), dest.get()).getId()));
+        });
+
+        server.get("/scheduler", ctx -> {
+            ctx.contentType("application/json");
+            ctx.result(app.sched.toJson());
+        });
+
+        // Swaps the active scheduler, e.g. POST /scheduler?name=greedy
+        server.post("/scheduler", ctx -> {
+            final String name = ctx.queryParam("name", "");
+            if (!SchedulerRegistry.contains(name)) {
+                ctx.status(400);
+                ctx.result("Unknown scheduler " + name + ". Use one of " + SchedulerRegistry.names() + "\n");
+                return;
+            }
+
+            app.sched.swap(name);
+            ctx.contentType("application/json");
+            ctx.result(app.sched.toJson());
+        });
+
+        server.post("/scheduler/shadow", ctx -> {
+            final String name = ctx.queryParam("name", "");
+            if (!SchedulerRegistry.contains(name)) {
+                ctx.status(400);
+                ctx.result("Unknown scheduler " + name + ". Use one of " + SchedulerRegistry.names() + "\n");
+                return;
+            }
+
+            app.sched.shadow(name);
+            ctx.contentType("application/json");
+            ctx.result(app.sched.toJson());
+        });
+
+        server.delete("/scheduler/shadow", ctx -> {
+            app.sched.shadow(null);
+            ctx.contentType("application/json");
+            ctx.result(app.sched.toJson());
+        });
+
+        server.get("/admission", ctx -> {
+            ctx.contentType("application/json");
+            ctx.result(admission.toJson());
+        });
+
+        server.get("/stats", ctx -> {
+            if (app.metrics == null) {
+                ctx.result("In-process metrics are disabled. Query the monitoring process instead.\n");
+                ctx.status(404);
+                return;
+            }
+
+            ctx.contentType("application/json");
+            ctx.result(app.metrics.toJson());
+        });
+
+        server.get("/metrics", ctx -> {
+            if (app.instrumentation == null) {
+                ctx.result("Event bus instrumentation is disabled. Set event-bus.instrumentation to enable it.\n");
+                ctx.status(404);
+                return;
+            }
+
+            ctx.contentType("application/json");
+            ctx.result(app.instrumentation.toJson());
+        });
+
+        final Handler startStress = ctx -> {
             if (app.bus.health() != EventBus.Health.GOOD) {
                 ctx.result("Scheduling Bus is saturated. Try again later\n");
                 ctx.status(503);
@@ -212,37 +575,73 @@ public class App implements EventEmitter, EventReactor {
             Validator<Integer> n = ctx.queryParam("n", Integer.class)
                     .check(i -> i > 0);
 
-            Validator<Integer> rate = ctx.queryParam("rate", Integer.class)
-                    .check(i -> i > 0 && i <= (10 * app.TICK_RATE));
+            final String mode = ctx.queryParam("mode", "open").toLowerCase(Locale.ROOT);
+            if (!mode.equals("open") && !mode.equals("closed")) {
+                ctx.result("Unknown stress mode. Use open or closed\n");
+                ctx.status(400);
+                return;
+            }
 
-            CountDownLatch latch = new CountDownLatch(n.get());
-            long delay = (1000 * app.TICK_RATE) / rate.get();
-            final ScheduledFuture<?> submitter = executor.scheduleAtFixedRate(() -> {
-                if (app.bus.health() != EventBus.Health.GOOD)
-                    return;
+            final Try<TrafficPattern> pattern = Try.of(() ->
+                    TrafficPattern.valueOf(ctx.queryParam("pattern", "UNIFORM").toUpperCase(Locale.ROOT)));
+            if (pattern.isFailure()) {
+                ctx.result("Unknown traffic pattern. Use one of " + java.util.Arrays.toString(TrafficPattern.values()) + "\n");
+                ctx.status(400);
+                return;
+            }
 
-                if (latch.getCount() == 0)
-                    return;
+            final long seed = ctx.queryParam("seed", Long.class, Long.toString(System.nanoTime())).get();
+            final TrafficGenerator traffic = TrafficGenerator.builder()
+                    .floors(app.NUM_FLOORS)
+                    .pattern(pattern.get())
+                    .seed(seed)
+                    .build();
+
+            final StressJob job;
+            if (mode.equals("open")) {
+                // Requests per clock tick
+                Validator<Integer> rate = ctx.queryParam("rate", Integer.class)
+                        .check(i -> i > 0 && i <= (10 * app.TICK_RATE));
+                job = stressJobs.startOpenLoop(n.get(), rate.get() * 1000.0 / app.TICK_RATE, traffic);
+            } else {
+                // Passengers in the building at any time
+                Validator<Integer> concurrency = ctx.queryParam("concurrency", Integer.class, "100")
+                        .check(i -> i > 0);
+                job = stressJobs.startClosedLoop(n.get(), concurrency.get(), traffic);
+            }
 
-                int orig = ThreadLocalRandom.current().nextInt(0, app.NUM_FLOORS);
-                int dest = ThreadLocalRandom.current().ints(0, app.NUM_FLOORS)
-                        .filter(d -> d != orig)
-                        .findFirst()
-                        .getAsInt();
+            ctx.status(202);
+            ctx.header("Location", "/stress/" + job.getId());
+            ctx.contentType("application/json");
+            ctx.result(job.toJson());
+        };
+        server.get("/stress", startStress);
+        server.post("/stress", startStress);
+
+        server.get("/stress/:id", ctx -> {
+            final Option<StressJob> job = stressJobs.get(ctx.pathParam("id"));
+            if (job.isEmpty()) {
+                ctx.status(404);
+                return;
+            }
 
-                Passenger pass = new Passenger(dest);
-                app.bus.fireTopic(EventTopic.SCHEDULING, new Event.ScheduleRequest(pass, orig));
-                latch.countDown();
-            }, 0, delay, TimeUnit.MICROSECONDS);
+            ctx.contentType("application/json");
+            ctx.result(job.get().toJson());
+        });
 
-            ctx.result("Launched stress test task\n");
+        // Cancels a running job or forgets a finished one
+        server.delete("/stress/:id", ctx -> {
+            final Option<StressJob> job = stressJobs.get(ctx.pathParam("id"));
+            if (job.isEmpty()) {
+                ctx.status(404);
+                return;
+            }
 
-            latch.await();
-            submitter.cancel(false);
+            if (!stressJobs.cancel(job.get().getId()))
+                stressJobs.remove(job.get().getId());
 
-            final long finished = System.currentTimeMillis();
-            final long dt = finished - start;
-            ctx.result(String.format("Finished submitting %d requests in %dms. Effective rate is %d/s%n", n.get(), dt, (n.get() * 1000) / dt));
+            ctx.contentType("application/json");
+            ctx.result(job.get().toJson());
         });
 
         task.get();
@@ -3,22 +3,29 @@ package elevator;
 import elevator.event.Event;
 import elevator.event.EventBus;
 import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.event.TopicBus;
+import elevator.journal.JournalCodec;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptAppender;
 
 public class ChronicleAppenderListener implements EventReactor {
     private final ChronicleQueue queue;
     private final ExcerptAppender appender;
-    private final EventBus eventBus;
+
+    public ChronicleAppenderListener(ChronicleQueue queue) {
+        this.queue = queue;
+        this.appender = queue.acquireAppender();
+    }
 
     public ChronicleAppenderListener(String dir) {
-        queue = ChronicleQueue.singleBuilder(dir).build();
-        appender = queue.acquireAppender();
-        eventBus = appender.methodWriter(EventBus.class);
+        this(ChronicleQueue.singleBuilder(dir).build());
     }
 
     @Override
     public void onEvent(EventBus bus, Event event) {
-        eventBus.fire(event);
+        // Partitioned buses dispatch through the topic partition that received the event
+        final EventTopic topic = bus instanceof TopicBus ? ((TopicBus) bus).getTopic() : EventTopic.DEFAULT;
+        JournalCodec.write(appender, topic, event);
     }
 }
@@ -30,6 +30,10 @@ public class LoggingEventListener implements EventReactor {
             simTime = ((Event.ClockTick) event).getValue();
         }
 
+        // Skip formatting entirely when nobody is listening
+        if (!log.isInfoEnabled())
+            return;
+
         log.info(String.format("{T=%04d} %s", simTime, event.toMessage()));
     }
 }
@@ -1,57 +1,70 @@
 package elevator;
 
-import elevator.event.RunnableEventBus;
-import elevator.event.SynchronizedEventBus;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import elevator.journal.EventFilter;
+import elevator.journal.EventKind;
+import elevator.journal.JournalFanout;
+import elevator.journal.JournalPolicy;
+import elevator.metrics.MetricsReactor;
 import elevator.simulation.WatchdogReactor;
-import io.vavr.control.Try;
-import net.openhft.chronicle.bytes.MethodReader;
+import io.javalin.Javalin;
 import net.openhft.chronicle.queue.ChronicleQueue;
-import net.openhft.chronicle.queue.ExcerptTailer;
-import net.openhft.chronicle.threads.Pauser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Monitoring {
     private static Logger log = LoggerFactory.getLogger("monitor.elevator.Monitoring"); // meh
+    private static Config conf = ConfigFactory.load().getConfig("elevator");
     final static String CHRONICLE_DIR = App.CHRONICLE_DIR;
 
     private final ChronicleQueue queue;
-    private final ExcerptTailer tailer;
-    private final MethodReader reader;
-    private final RunnableEventBus bus;
+    private final JournalFanout fanout;
+    private final MetricsReactor metrics;
 
     public Monitoring() {
-        queue = ChronicleQueue.singleBuilder(CHRONICLE_DIR).build();
-        tailer = queue.createTailer("Monitor");
+        queue = JournalPolicy.fromConfig(CHRONICLE_DIR, conf.getConfig("simulator.journal")).open(CHRONICLE_DIR);
+        metrics = new MetricsReactor(
+                conf.getInt("simulator.num-elevators"),
+                conf.getInt("simulator.metrics.window-ticks"),
+                conf.getInt("simulator.metrics.slots"));
 
-        // Streaming is receive-only. Events fired through this bus will not be sent to simulation process.
-        bus = new SynchronizedEventBus();
-        bus.attach(new LoggingEventListener(log));
-        bus.attach(new WatchdogReactor());
-
-        reader = tailer.methodReader(bus);
+        // Each consumer tails the journal independently and only deserializes the events it asks for
+        fanout = new JournalFanout(queue)
+                .subscribe("Monitor", EventFilter.all(), new LoggingEventListener(log))
+                .subscribe("Watchdog", EventFilter.kinds(EventKind.CLOCK_TICK, EventKind.ELEVATOR_ARRIVED), new WatchdogReactor())
+                .subscribe("Metrics", EventFilter.kinds(
+                        EventKind.CLOCK_TICK,
+                        EventKind.SCHEDULE_REQUEST,
+                        EventKind.REQUEST_ACCEPTED,
+                        EventKind.REQUEST_REJECTED,
+                        EventKind.LOAD_PASSENGER,
+                        EventKind.DROP_PASSENGER,
+                        EventKind.MISSED_CONNECTION,
+                        EventKind.ELEVATOR_IDLE), metrics);
     }
 
-    public void monitor() throws ExecutionException, InterruptedException {
+    public void monitor() throws InterruptedException {
         AtomicBoolean shutdown = new AtomicBoolean(false);
-        final CompletableFuture<Void> runner = CompletableFuture.runAsync(() -> Try.run(() -> bus.run(shutdown)));
-        Pauser pauser = Pauser.millis(0,100);
-        while(!reader.isClosed()) {
-            if (reader.readOne())
-                pauser.reset();
-            else
-                pauser.pause();
-        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown.set(true)));
 
-        shutdown.set(true);
-        runner.get();
+        Javalin server = Javalin.create().start(conf.getInt("monitor.listen-port"));
+        server.get("/stats", ctx -> {
+            ctx.contentType("application/json");
+            ctx.result(metrics.toJson());
+        });
+
+        try {
+            fanout.run(shutdown);
+        } finally {
+            server.stop();
+            queue.close();
+        }
     }
 
-    public static void main(String[] args) throws ExecutionException, InterruptedException {
+    public static void main(String[] args) throws InterruptedException {
         final Monitoring monitoring = new Monitoring();
         monitoring.monitor();
     }
@@ -0,0 +1,234 @@
+package elevator.api;
+
+import com.typesafe.config.Config;
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.util.LongLongMap;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load shedding in front of the bus for passengers submitted over HTTP.
+ *
+ * Each client gets a token bucket, so one noisy feeder cannot starve the others. On top of that the number of
+ * admitted passengers still waiting for an elevator to accept them is capped by a limit adapted from the
+ * measured scheduling latency, the time from admission to {@code RequestAccepted}: the limit grows by one per
+ * window of samples below the target latency while it is being used, and is cut by a constant factor at most
+ * once per target latency when samples exceed it (AIMD). Requests over either limit are refused at once with
+ * the time to wait, instead of blocking a request thread on a full queue.
+ *
+ * Events handled here only cost a map lookup under a short lock, so the reactor does not hold a monitor.
+ */
+public class AdmissionControl implements EventReactor {
+    public static final EnumSet<EventTopic> TOPICS = EnumSet.of(EventTopic.ELEVATOR);
+    private static final long CLIENT_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int SWEEP_INTERVAL = 4096;
+
+    public enum Outcome {ADMITTED, RATE_LIMITED, OVERLOADED}
+
+    public static class Decision {
+        static final Decision NOTHING = new Decision(Outcome.ADMITTED, 0, 0);
+
+        private final Outcome outcome;
+        private final long retryAfterNanos;
+        private final int granted;
+
+        Decision(Outcome outcome, long retryAfterNanos, int granted) {
+            this.outcome = outcome;
+            this.retryAfterNanos = retryAfterNanos;
+            this.granted = granted;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public boolean isAdmitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+
+        /**
+         * @return Passengers admitted, possibly fewer than requested
+         */
+        public int getGranted() {
+            return granted;
+        }
+
+        /**
+         * @return Whole seconds for a Retry-After header, at least one
+         */
+        public long getRetryAfterSeconds() {
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+
+    private final double clientRate;
+    private final double clientBurst;
+    private final long targetLatency;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double decreaseFactor;
+
+    private final ConcurrentHashMap<String, TokenBucket> clients = new ConcurrentHashMap<>();
+    private final LongLongMap admittedAt = new LongLongMap(); // passenger id -> admission time, guarded by itself
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong sweepCounter = new AtomicLong();
+
+    // Guarded by this
+    private double limit;
+    private long lastDecrease = 0;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+
+    /**
+     * @param clientRate     Requests per second allowed for each client
+     * @param clientBurst    Requests a client may send at once after being quiet
+     * @param targetLatency  Nanoseconds of scheduling latency above which the limit is cut
+     * @param initialLimit   Starting concurrency limit
+     * @param minLimit       The limit is never cut below this
+     * @param maxLimit       The limit never grows beyond this
+     * @param decreaseFactor Multiplier applied to the limit when latency exceeds the target
+     */
+    public AdmissionControl(double clientRate, double clientBurst, long targetLatency,
+                            double initialLimit, double minLimit, double maxLimit, double decreaseFactor) {
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.targetLatency = targetLatency;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.decreaseFactor = decreaseFactor;
+    }
+
+    public static AdmissionControl fromConfig(Config conf) {
+        return new AdmissionControl(
+                conf.getDouble("client-rate"),
+                conf.getDouble("client-burst"),
+                conf.getDuration("target-latency", TimeUnit.NANOSECONDS),
+                conf.getDouble("initial-limit"),
+                conf.getDouble("min-limit"),
+                conf.getDouble("max-limit"),
+                conf.getDouble("decrease-factor"));
+    }
+
+    public Decision tryAcquire(String client, int passengers) {
+        return tryAcquire(client, passengers, System.nanoTime());
+    }
+
+    /**
+     * Admits a request of one or more passengers. A client pays one token per request, so batches are not
+     * penalized for saving round trips, while the concurrency limit counts every passenger. A batch only gets
+     * the permits left under the limit and the caller refuses the rest, so one batch cannot overshoot it.
+     */
+    Decision tryAcquire(String client, int passengers, long now) {
+        if (sweepCounter.incrementAndGet() % SWEEP_INTERVAL == 0)
+            clients.values().removeIf(bucket -> bucket.isIdle(now, CLIENT_IDLE_NANOS));
+
+        final TokenBucket bucket = clients.computeIfAbsent(client, k -> new TokenBucket(clientRate, clientBurst, now));
+        final long wait = bucket.tryAcquire(1, now);
+        if (wait > 0) {
+            rateLimited.increment();
+            return new Decision(Outcome.RATE_LIMITED, wait, 0);
+        }
+
+        final double currentLimit = getLimit();
+        while (true) {
+            final long current = inFlight.get();
+            final long room = (long) Math.ceil(currentLimit - current);
+            if (room <= 0) {
+                overloaded.increment();
+                return new Decision(Outcome.OVERLOADED, targetLatency, 0);
+            }
+
+            final int granted = (int) Math.min(passengers, room);
+            if (inFlight.compareAndSet(current, current + granted)) {
+                admitted.add(granted);
+                return new Decision(Outcome.ADMITTED, 0, granted);
+            }
+        }
+    }
+
+    /**
+     * Starts timing an admitted passenger. Must be called before it is fired, in case it is accepted right away.
+     */
+    public void submitted(long passengerId) {
+        submitted(passengerId, System.nanoTime());
+    }
+
+    void submitted(long passengerId, long now) {
+        synchronized (admittedAt) {
+            admittedAt.put(passengerId, now);
+        }
+    }
+
+    /**
+     * Returns the permit of an admitted passenger that could not be fired after all.
+     */
+    public void abandon(long passengerId) {
+        final long since;
+        synchronized (admittedAt) {
+            since = admittedAt.remove(passengerId, -1);
+        }
+
+        if (since >= 0)
+            inFlight.decrementAndGet();
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void sample(long latency, long now) {
+        if (latency > targetLatency) {
+            if (now - lastDecrease >= targetLatency) {
+                limit = Math.max(minLimit, limit * decreaseFactor);
+                lastDecrease = now;
+            }
+        } else if (inFlight.get() >= limit / 2) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    void accepted(long passengerId, long now) {
+        final long since;
+        synchronized (admittedAt) {
+            since = admittedAt.remove(passengerId, -1);
+        }
+
+        if (since < 0)
+            return; // Not submitted through here, or a retry after a missed connection
+
+        inFlight.decrementAndGet();
+        sample(now - since, now);
+    }
+
+    @Override
+    public void syncEvent(EventBus bus, Event event) {
+        onEvent(bus, event);
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.RequestAccepted)
+            accepted(((Event.RequestAccepted) event).getRequest().getPassenger().getId(), System.nanoTime());
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"limit\":%.1f,\"inFlight\":%d,\"admitted\":%d,\"rateLimited\":%d,\"overloaded\":%d,\"clients\":%d}",
+                getLimit(), inFlight.get(), admitted.sum(), rateLimited.sum(), overloaded.sum(), clients.size());
+    }
+}
@@ -0,0 +1,292 @@
+package elevator.api;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * A batch of passenger requests submitted in one HTTP request.
+ *
+ * Requests are read either as JSON lines, one {@code {"origin":3,"dest":17}} object per line, or as a binary body
+ * of big-endian int32 origin/destination pairs. Each item is validated on its own, by the same rules as single
+ * passengers (see {@link Trips}), and all valid ones are fired
+ * onto the SCHEDULING topic together, so a malformed item only rejects itself.
+ */
+public class PassengerBatch {
+    public static final int RECORD_SIZE = 8;
+
+    public static final byte ACCEPTED = 0;
+    public static final byte INVALID = 1;
+    public static final byte OVERLOADED = 2;
+    private static final String[] STATUS_NAMES = {"accepted", "invalid", "overloaded"};
+
+    private final int numFloors;
+    private final int maxSize;
+    private int size = 0;
+    private int[] origins = new int[64];
+    private int[] destinations = new int[64];
+    private long[] ids = new long[64];
+    private byte[] status = new byte[64];
+
+    PassengerBatch(int numFloors, int maxSize) {
+        this.numFloors = numFloors;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * A single passenger, admitted and submitted like a batch of one.
+     */
+    public static PassengerBatch of(int numFloors, int origin, int destination) {
+        PassengerBatch batch = new PassengerBatch(numFloors, 1);
+        batch.add(origin, destination, true);
+        return batch;
+    }
+
+    private void add(int origin, int destination, boolean parsed) {
+        if (size == maxSize)
+            throw new BatchTooLargeException(maxSize);
+
+        if (size == origins.length) {
+            final int capacity = Math.min(size * 2, maxSize);
+            origins = Arrays.copyOf(origins, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            status = Arrays.copyOf(status, capacity);
+        }
+
+        final boolean valid = parsed && Trips.isValid(numFloors, origin, destination);
+        origins[size] = origin;
+        destinations[size] = destination;
+        ids[size] = -1;
+        status[size] = valid ? ACCEPTED : INVALID;
+        size++;
+    }
+
+    /**
+     * Thrown while reading once a batch has more items than allowed.
+     */
+    public static class BatchTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BatchTooLargeException(int maxSize) {
+            super("Batches are limited to " + maxSize + " passengers");
+        }
+    }
+
+    /**
+     * @return The integer value of a top-level field in a flat JSON object or null if it is missing or not an integer
+     */
+    static Integer intField(String json, String name) {
+        final int key = json.indexOf('"' + name + '"');
+        if (key < 0)
+            return null;
+
+        int i = json.indexOf(':', key + name.length() + 2);
+        if (i < 0)
+            return null;
+
+        i++;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i)))
+            i++;
+
+        final int start = i;
+        if (i < json.length() && json.charAt(i) == '-')
+            i++;
+        while (i < json.length() && Character.isDigit(json.charAt(i)))
+            i++;
+
+        try {
+            return Integer.parseInt(json.substring(start, i));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static PassengerBatch readJsonLines(BufferedReader reader, int numFloors, int maxSize) throws IOException {
+        PassengerBatch batch = new PassengerBatch(numFloors, maxSize);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank())
+                continue;
+
+            final Integer origin = intField(line, "origin");
+            final Integer dest = intField(line, "dest");
+            final boolean parsed = origin != null && dest != null;
+            batch.add(parsed ? origin : -1, parsed ? dest : -1, parsed);
+        }
+
+        return batch;
+    }
+
+    /**
+     * A trailing partial record is reported as one invalid item.
+     */
+    public static PassengerBatch readBinary(InputStream input, int numFloors, int maxSize) throws IOException {
+        PassengerBatch batch = new PassengerBatch(numFloors, maxSize);
+        byte[] record = new byte[RECORD_SIZE];
+
+        while (true) {
+            final int read = input.readNBytes(record, 0, RECORD_SIZE);
+            if (read == 0)
+                break;
+
+            if (read < RECORD_SIZE) {
+                batch.add(-1, -1, false);
+                break;
+            }
+
+            final int origin = (record[0] << 24) | ((record[1] & 0xFF) << 16) | ((record[2] & 0xFF) << 8) | (record[3] & 0xFF);
+            final int dest = (record[4] << 24) | ((record[5] & 0xFF) << 16) | ((record[6] & 0xFF) << 8) | (record[7] & 0xFF);
+            batch.add(origin, dest, true);
+        }
+
+        return batch;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte getStatus(int i) {
+        return status[i];
+    }
+
+    /**
+     * @return The passenger id assigned to an accepted item or -1
+     */
+    public long getId(int i) {
+        return ids[i];
+    }
+
+    public int count(byte s) {
+        int result = 0;
+        for (int i = 0; i < size; i++) {
+            if (status[i] == s)
+                result++;
+        }
+        return result;
+    }
+
+    /**
+     * Marks every valid item as rejected with the given status without firing anything.
+     */
+    public void rejectAll(byte reason) {
+        for (int i = 0; i < size; i++) {
+            if (status[i] == ACCEPTED)
+                status[i] = reason;
+        }
+    }
+
+    public int submit(EventBus bus) {
+        return submit(bus, id -> {
+        });
+    }
+
+    /**
+     * Fires a schedule request for each valid item in one batch.
+     *
+     * @param tracker Called with the id of each passenger before the batch is fired
+     * @return Number of passengers submitted
+     */
+    public int submit(EventBus bus, LongConsumer tracker) {
+        List<Event> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (status[i] != ACCEPTED)
+                continue;
+
+            final Passenger passenger = new Passenger(origins[i], destinations[i]);
+            ids[i] = passenger.getId();
+            tracker.accept(ids[i]);
+            events.add(new Event.ScheduleRequest(passenger, origins[i]));
+        }
+
+        bus.fireTopicAll(EventTopic.SCHEDULING, events);
+        return events.size();
+    }
+
+    /**
+     * Takes admission permits for the valid items and fires them without waiting for room in the queue.
+     *
+     * Items are only admitted once they are known to be valid, so invalid ones never hold a permit. Valid items
+     * beyond the permits granted, or that do not fit in the queue, are marked as overloaded. The latter give their
+     * permit back.
+     *
+     * @return The admission decision. Nothing is fired if it was refused
+     */
+    public AdmissionControl.Decision admit(AdmissionControl admission, String client, EventBus bus) {
+        final int valid = count(ACCEPTED);
+        if (valid == 0)
+            return AdmissionControl.Decision.NOTHING;
+
+        final AdmissionControl.Decision decision = admission.tryAcquire(client, valid);
+        if (!decision.isAdmitted()) {
+            rejectAll(OVERLOADED);
+            return decision;
+        }
+
+        final int[] items = new int[decision.getGranted()];
+        final List<Event> events = new ArrayList<>(items.length);
+        for (int i = 0; i < size; i++) {
+            if (status[i] != ACCEPTED)
+                continue;
+
+            if (events.size() == items.length) {
+                status[i] = OVERLOADED;
+                continue;
+            }
+
+            final Passenger passenger = new Passenger(origins[i], destinations[i]);
+            ids[i] = passenger.getId();
+            admission.submitted(ids[i]);
+            items[events.size()] = i;
+            events.add(new Event.ScheduleRequest(passenger, origins[i]));
+        }
+
+        final int fired = bus.tryFireTopicAll(EventTopic.SCHEDULING, events);
+        for (int k = fired; k < items.length; k++) {
+            final int i = items[k];
+            admission.abandon(ids[i]);
+            ids[i] = -1;
+            status[i] = OVERLOADED;
+        }
+
+        return decision;
+    }
+
+    /**
+     * One {@code {"status":...,"id":...}} line per item in submission order. The id is only present when accepted.
+     */
+    public void writeJsonLines(Writer writer) throws IOException {
+        for (int i = 0; i < size; i++) {
+            writer.write("{\"status\":\"");
+            writer.write(STATUS_NAMES[status[i]]);
+            writer.write('"');
+            if (status[i] == ACCEPTED) {
+                writer.write(",\"id\":");
+                writer.write(Long.toString(ids[i]));
+            }
+            writer.write("}\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * One status byte per item in submission order.
+     */
+    public void writeBinary(OutputStream output) throws IOException {
+        output.write(status, 0, size);
+        output.flush();
+    }
+}
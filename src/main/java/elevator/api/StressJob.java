@@ -0,0 +1,200 @@
+package elevator.api;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventTopic;
+import elevator.metrics.ConcurrentHistogram;
+import elevator.metrics.Histogram;
+import elevator.model.Passenger;
+import elevator.traffic.TrafficGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A stress test submitting passengers in the background.
+ *
+ * In open-loop mode passengers arrive at a fixed rate whatever the state of the simulation, so a saturated bus shows
+ * up as queueing: submissions falling behind schedule and growing latencies. In closed-loop mode a fixed number of
+ * passengers is kept in the system and a new one is only submitted once another has been dropped off, so the
+ * throughput measures what the building can sustain.
+ *
+ * The driver runs every {@link #PERIOD_MILLIS} on a scheduler thread and submits everything that is due as one
+ * batch. Progress is reported by {@link StressJobs} from the events of the job's passengers.
+ */
+public class StressJob {
+    public static final long PERIOD_MILLIS = 10;
+
+    public enum Mode {OPEN, CLOSED}
+
+    public enum State {RUNNING, DRAINING, DONE, CANCELLED}
+
+    private final String id;
+    private final Mode mode;
+    private final long total;
+    private final double ratePerSecond;
+    private final int concurrency;
+    private final TrafficGenerator traffic;
+    private final EventBus bus;
+    private final StressJobs registry;
+
+    private volatile State state = State.RUNNING;
+    private ScheduledFuture<?> driver;
+    private long started;
+    private volatile long finished = 0;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final AtomicLong served = new AtomicLong();
+    private volatile long maxLagNanos = 0;
+
+    // Microseconds from submission
+    private final ConcurrentHistogram acceptLatency = new ConcurrentHistogram();
+    private final ConcurrentHistogram tripLatency = new ConcurrentHistogram();
+
+    StressJob(String id, Mode mode, long total, double ratePerSecond, int concurrency,
+              TrafficGenerator traffic, EventBus bus, StressJobs registry) {
+        this.id = id;
+        this.mode = mode;
+        this.total = total;
+        this.ratePerSecond = ratePerSecond;
+        this.concurrency = concurrency;
+        this.traffic = traffic;
+        this.bus = bus;
+        this.registry = registry;
+    }
+
+    void start(ScheduledExecutorService executor) {
+        started = System.nanoTime();
+        driver = executor.scheduleAtFixedRate(this::drive, 0, PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits whatever is due. Executions of a fixed rate task never overlap, so the generator needs no locking.
+     */
+    private void drive() {
+        if (state != State.RUNNING) {
+            if (state == State.DRAINING && served.get() >= submitted.get())
+                finish(State.DONE);
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final long done = submitted.get();
+        long due;
+        if (mode == Mode.OPEN) {
+            final long scheduled = Math.min(total, (long) ((now - started) / 1e9 * ratePerSecond) + 1);
+            due = scheduled - done;
+
+            // How far behind the arrival schedule the submissions are running
+            final long lag = done == 0 ? 0 : now - started - (long) (done / ratePerSecond * 1e9);
+            if (lag > maxLagNanos)
+                maxLagNanos = lag;
+        } else {
+            due = Math.min(total - done, concurrency - (done - served.get()));
+        }
+
+        if (due > 0)
+            submit((int) Math.min(due, Integer.MAX_VALUE));
+
+        if (submitted.get() >= total)
+            state = State.DRAINING;
+    }
+
+    private void submit(int count) {
+        List<Event> events = new ArrayList<>(count);
+        final long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            traffic.next();
+            final Passenger passenger = new Passenger(traffic.origin(), traffic.destination());
+            registry.track(passenger.getId(), this, now);
+            events.add(new Event.ScheduleRequest(passenger, traffic.origin()));
+        }
+
+        submitted.addAndGet(count);
+        bus.fireTopicAll(EventTopic.SCHEDULING, events);
+    }
+
+    void onAccepted(long submittedAt) {
+        accepted.increment();
+        acceptLatency.record((System.nanoTime() - submittedAt) / 1000);
+    }
+
+    void onRejected() {
+        rejected.increment();
+    }
+
+    void onMissed() {
+        missed.increment();
+    }
+
+    void onServed(long submittedAt) {
+        tripLatency.record((System.nanoTime() - submittedAt) / 1000);
+        served.incrementAndGet();
+    }
+
+    /**
+     * Stops submitting. Passengers already in the building are still served but no longer reported.
+     */
+    public void cancel() {
+        if (state == State.RUNNING || state == State.DRAINING)
+            finish(State.CANCELLED);
+    }
+
+    private void finish(State result) {
+        state = result;
+        finished = System.nanoTime();
+        if (driver != null)
+            driver.cancel(false);
+        registry.finished(this);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getServed() {
+        return served.get();
+    }
+
+    private static String latencyJson(Histogram h) {
+        return String.format(Locale.ROOT, "{\"mean\":%.1f,\"p50\":%.1f,\"p99\":%.1f,\"max\":%.1f}",
+                h.getMean() / 1e3, h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(99) / 1e3, h.getMax() / 1e3);
+    }
+
+    /**
+     * Rates are per second and latencies in milliseconds since submission.
+     */
+    public String toJson() {
+        final long end = finished == 0 ? System.nanoTime() : finished;
+        final double seconds = Math.max(end - started, 1) / 1e9;
+
+        return String.format(Locale.ROOT,
+                "{\"id\":\"%s\",\"mode\":\"%s\",\"state\":\"%s\",\"total\":%d,\"submitted\":%d,\"accepted\":%d," +
+                        "\"rejected\":%d,\"missedConnections\":%d,\"served\":%d,\"progress\":%.4f,\"elapsedSeconds\":%.3f," +
+                        "\"offeredRate\":%s,\"concurrency\":%s,\"submitRate\":%.1f,\"throughput\":%.1f,\"maxLagMillis\":%.1f," +
+                        "\"acceptLatency\":%s,\"tripLatency\":%s}",
+                id, mode.name().toLowerCase(Locale.ROOT), state.name().toLowerCase(Locale.ROOT), total, submitted.get(),
+                accepted.sum(), rejected.sum(), missed.sum(), served.get(), (double) served.get() / total, seconds,
+                mode == Mode.OPEN ? String.format(Locale.ROOT, "%.1f", ratePerSecond) : "null",
+                mode == Mode.CLOSED ? Integer.toString(concurrency) : "null",
+                submitted.get() / seconds, served.get() / seconds, maxLagNanos / 1e6,
+                latencyJson(acceptLatency.snapshot()), latencyJson(tripLatency.snapshot()));
+    }
+}
@@ -0,0 +1,145 @@
+package elevator.api;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.traffic.TrafficGenerator;
+import elevator.util.LongObjectMap;
+import io.vavr.control.Option;
+
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of stress jobs that follows their passengers on the bus.
+ *
+ * Handling an event only costs a type check and, for events about a passenger, a lookup in a lock-protected
+ * id map, so the reactor does not serialize the bus workers on its own monitor.
+ */
+public class StressJobs implements EventReactor {
+    public static final EnumSet<EventTopic> TOPICS = EnumSet.of(EventTopic.SCHEDULING, EventTopic.ELEVATOR, EventTopic.PASSENGER);
+
+    private static class Tracked {
+        final StressJob job;
+        final long submittedAt;
+        boolean accepted = false;
+
+        Tracked(StressJob job, long submittedAt) {
+            this.job = job;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    private final EventBus bus;
+    private final ScheduledExecutorService executor;
+    private final ConcurrentHashMap<String, StressJob> jobs = new ConcurrentHashMap<>();
+    private final LongObjectMap<Tracked> passengers = new LongObjectMap<>(); // guarded by itself
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public StressJobs(EventBus bus, int numThreads) {
+        this.bus = bus;
+        this.executor = Executors.newScheduledThreadPool(numThreads, r -> {
+            Thread thread = new Thread(r, "stress-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public StressJob startOpenLoop(long total, double ratePerSecond, TrafficGenerator traffic) {
+        return start(StressJob.Mode.OPEN, total, ratePerSecond, 0, traffic);
+    }
+
+    public StressJob startClosedLoop(long total, int concurrency, TrafficGenerator traffic) {
+        return start(StressJob.Mode.CLOSED, total, 0, concurrency, traffic);
+    }
+
+    private StressJob start(StressJob.Mode mode, long total, double rate, int concurrency, TrafficGenerator traffic) {
+        final StressJob job = new StressJob(Long.toString(nextId.getAndIncrement()), mode, total, rate, concurrency,
+                traffic, bus, this);
+        jobs.put(job.getId(), job);
+        job.start(executor);
+        return job;
+    }
+
+    public Option<StressJob> get(String id) {
+        return Option.of(jobs.get(id));
+    }
+
+    /**
+     * @return False if there is no such job or it has already finished
+     */
+    public boolean cancel(String id) {
+        final StressJob job = jobs.get(id);
+        if (job == null || job.getState() == StressJob.State.DONE || job.getState() == StressJob.State.CANCELLED)
+            return false;
+
+        job.cancel();
+        return true;
+    }
+
+    public void remove(String id) {
+        jobs.remove(id);
+    }
+
+    public Iterable<StressJob> getJobs() {
+        return jobs.values();
+    }
+
+    void track(long passengerId, StressJob job, long submittedAt) {
+        synchronized (passengers) {
+            passengers.put(passengerId, new Tracked(job, submittedAt));
+        }
+    }
+
+    /**
+     * Forgets the passengers of a finished job. Called rarely, so a full scan is fine.
+     */
+    void finished(StressJob job) {
+        synchronized (passengers) {
+            passengers.removeIf(tracked -> tracked.job == job);
+        }
+    }
+
+    private Tracked lookup(long passengerId, boolean remove) {
+        synchronized (passengers) {
+            return remove ? passengers.remove(passengerId) : passengers.get(passengerId);
+        }
+    }
+
+    @Override
+    public void syncEvent(EventBus bus, Event event) {
+        onEvent(bus, event);
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.RequestAccepted) {
+            final Tracked tracked = lookup(((Event.RequestAccepted) event).getRequest().getPassenger().getId(), false);
+            if (tracked != null) {
+                // Retries after a missed connection are accepted again but only the first one counts
+                synchronized (tracked) {
+                    if (tracked.accepted)
+                        return;
+                    tracked.accepted = true;
+                }
+                tracked.job.onAccepted(tracked.submittedAt);
+            }
+        } else if (event instanceof Event.RequestRejected) {
+            final Tracked tracked = lookup(((Event.RequestRejected) event).getRequest().getPassenger().getId(), false);
+            if (tracked != null)
+                tracked.job.onRejected();
+        } else if (event instanceof Event.MissedConnection) {
+            final Tracked tracked = lookup(((Event.MissedConnection) event).getPassenger().getId(), false);
+            if (tracked != null)
+                tracked.job.onMissed();
+        } else if (event instanceof Event.DropPassenger) {
+            final Tracked tracked = lookup(((Event.DropPassenger) event).getPassenger().getId(), true);
+            if (tracked != null)
+                tracked.job.onServed(tracked.submittedAt);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package elevator.api;
+
+/**
+ * Token bucket rate limiter refilled continuously from the elapsed time.
+ */
+public class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long updated;
+    private long lastUsed;
+
+    /**
+     * @param ratePerSecond Sustained rate of tokens
+     * @param burst         Most tokens that can be saved up, which is also where a new bucket starts
+     * @param now           Current time in nanoseconds
+     */
+    public TokenBucket(double ratePerSecond, double burst, long now) {
+        this.tokensPerNano = ratePerSecond / 1e9;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.updated = now;
+        this.lastUsed = now;
+    }
+
+    private void refill(long now) {
+        if (now > updated) {
+            tokens = Math.min(capacity, tokens + (now - updated) * tokensPerNano);
+            updated = now;
+        }
+    }
+
+    /**
+     * Takes tokens if there are enough. Requests for more than the burst size only need a full bucket.
+     *
+     * @return Zero if the tokens were taken, otherwise the nanoseconds until there will be enough
+     */
+    public synchronized long tryAcquire(double cost, long now) {
+        refill(now);
+        lastUsed = now;
+        final double needed = Math.min(cost, capacity);
+        if (tokens >= needed) {
+            tokens -= needed;
+            return 0;
+        }
+
+        return (long) Math.ceil((needed - tokens) / tokensPerNano);
+    }
+
+    /**
+     * @return True if the bucket is full and has not been asked for tokens for a while, so it can be forgotten
+     */
+    public synchronized boolean isIdle(long now, long idleNanos) {
+        refill(now);
+        return tokens >= capacity && now - lastUsed >= idleNanos;
+    }
+}
@@ -0,0 +1,33 @@
+package elevator.api;
+
+/**
+ * Validation of the trips passengers request over HTTP, shared by the single and batch endpoints so that both
+ * accept the same requests. Traffic scenarios and the zoned tower also board at the ground floor lobby.
+ */
+public final class Trips {
+    private Trips() {
+    }
+
+    /**
+     * @return True for floors 1 to numFloors - 1. Floor 0 cannot be requested
+     */
+    public static boolean isValidFloor(int numFloors, int floor) {
+        return isValidFloor(numFloors, floor, false);
+    }
+
+    /**
+     * @param lobby Whether floor 0 takes passengers too
+     */
+    public static boolean isValidFloor(int numFloors, int floor, boolean lobby) {
+        return floor >= (lobby ? 0 : 1) && floor < numFloors;
+    }
+
+    public static boolean isValid(int numFloors, int origin, int destination) {
+        return isValid(numFloors, origin, destination, false);
+    }
+
+    public static boolean isValid(int numFloors, int origin, int destination, boolean lobby) {
+        return isValidFloor(numFloors, origin, lobby) && isValidFloor(numFloors, destination, lobby) &&
+                origin != destination;
+    }
+}
@@ -0,0 +1,283 @@
+package elevator.cluster;
+
+import com.typesafe.config.Config;
+import elevator.journal.JournalTailer;
+import elevator.site.Site;
+import elevator.site.SitePool;
+import io.vavr.control.Option;
+import net.openhft.chronicle.threads.Pauser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One simulator process of a cluster sharing a directory on the same host.
+ *
+ * Buildings are split into a fixed number of shards. A process owns a shard while it holds the shard's
+ * {@link FileLease} and runs the shard's building on its {@link SitePool}. Every node also holds a lease on a file of
+ * its own under {@code nodes/}, so each node can count the live ones and aims to own its fair share of the shards:
+ * it takes free shards while it has fewer and gives one back per round while it has more. Shards of a process that
+ * exits are freed by the operating system and picked up by the others on their next round.
+ *
+ * The state of a building is not handed over. The new owner starts the building afresh and carries on with the
+ * requests left in the shard's {@link ShardIngress} queue.
+ */
+public class ClusterNode {
+    private static final Logger log = LoggerFactory.getLogger(ClusterNode.class);
+
+    private final Path dir;
+    private final int numShards;
+    private final String nodeId;
+    private final SitePool pool;
+    private final IntFunction<Site> buildings;
+    private final long rebalanceNanos;
+
+    private final Map<Integer, ShardIngress> ingress = new ConcurrentHashMap<>();
+    // Only changed by the cluster thread, or by the caller when not started
+    private final NavigableMap<Integer, Owned> owned = new ConcurrentSkipListMap<>();
+    private FileLease registration;
+
+    private final AtomicBoolean shutdownFlag = new AtomicBoolean(false);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private static class Owned {
+        final FileLease lease;
+        final Site site;
+        final JournalTailer consumer;
+
+        Owned(FileLease lease, Site site, JournalTailer consumer) {
+            this.lease = lease;
+            this.site = site;
+            this.consumer = consumer;
+        }
+    }
+
+    /**
+     * @param buildings Creates the building of a shard when this node takes it over
+     */
+    public ClusterNode(Path dir, int numShards, String nodeId, SitePool pool, IntFunction<Site> buildings, long rebalanceMillis) {
+        this.dir = dir;
+        this.numShards = numShards;
+        this.nodeId = nodeId;
+        this.pool = pool;
+        this.buildings = buildings;
+        this.rebalanceNanos = TimeUnit.MILLISECONDS.toNanos(rebalanceMillis);
+
+        try {
+            Files.createDirectories(dir.resolve("nodes"));
+            Files.createDirectories(dir.resolve("leases"));
+            Files.createDirectories(dir.resolve("ingress"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cluster directory " + dir, e);
+        }
+    }
+
+    /**
+     * Reads the {@code cluster} config block. The node id defaults to the process id.
+     */
+    public static ClusterNode fromConfig(Config conf, SitePool pool, IntFunction<Site> buildings) {
+        final String nodeId = conf.getString("node-id").isEmpty()
+                ? Long.toString(ManagementFactory.getRuntimeMXBean().getPid())
+                : conf.getString("node-id");
+
+        return new ClusterNode(Paths.get(conf.getString("dir")), conf.getInt("shards"), nodeId, pool, buildings,
+                conf.getDuration("rebalance-interval", TimeUnit.MILLISECONDS));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getNumShards() {
+        return numShards;
+    }
+
+    /**
+     * @return Ids of the shards owned by this node, in order
+     */
+    public Iterable<Integer> getOwned() {
+        return owned.keySet();
+    }
+
+    /**
+     * @return The building of a shard if this node owns it
+     */
+    public Option<Site> getSite(int shard) {
+        return Option.of(owned.get(shard)).map(o -> o.site);
+    }
+
+    public static String siteId(int shard) {
+        return "shard-" + shard;
+    }
+
+    public ShardIngress ingress(int shard) {
+        if (shard < 0 || shard >= numShards)
+            throw new IllegalArgumentException("No shard " + shard);
+
+        return ingress.computeIfAbsent(shard, s -> new ShardIngress(dir.resolve("ingress"), s));
+    }
+
+    /**
+     * Queues a passenger for the building of a shard, whichever node owns it.
+     */
+    public void submit(int shard, int origin, int destination) {
+        ingress(shard).submit(origin, destination);
+    }
+
+    /**
+     * Counts nodes whose registration is locked, removing the files of nodes that are gone.
+     */
+    int liveNodes() {
+        try (Stream<Path> files = Files.list(dir.resolve("nodes"))) {
+            int live = 0;
+            for (Path file : files.collect(Collectors.toList())) {
+                if (registration != null && file.equals(registration.getPath())) {
+                    ++live;
+                    continue;
+                }
+
+                final Option<FileLease> dead = FileLease.tryAcquire(file, nodeId);
+                if (dead.isDefined()) {
+                    Files.deleteIfExists(file);
+                    dead.get().release();
+                } else {
+                    ++live;
+                }
+            }
+            return Math.max(live, 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list cluster nodes in " + dir, e);
+        }
+    }
+
+    /**
+     * One round of coordination: takes free shards up to this node's share or gives back one shard above it.
+     *
+     * Runs on the cluster thread once the node is started. Only call it directly on a node that is not started.
+     */
+    public void rebalance() {
+        final Path nodeFile = dir.resolve("nodes").resolve(nodeId + ".lock");
+        // Another node may have mistaken a registration in progress for a dead one and removed it
+        if (registration == null || !Files.exists(nodeFile)) {
+            if (registration != null)
+                registration.release();
+            registration = FileLease.tryAcquire(nodeFile, nodeId)
+                    .getOrElseThrow(() -> new IllegalStateException("Node id " + nodeId + " is already running"));
+        }
+
+        final int nodes = liveNodes();
+        final int share = (numShards + nodes - 1) / nodes;
+        if (owned.size() > share) {
+            release(owned.lastKey());
+            return;
+        }
+
+        for (int shard = 0; shard < numShards && owned.size() < share; shard++) {
+            if (!owned.containsKey(shard))
+                tryAcquire(shard);
+        }
+    }
+
+    private void tryAcquire(int shard) {
+        final Path file = dir.resolve("leases").resolve(String.format("shard-%03d.lock", shard));
+        FileLease.tryAcquire(file, nodeId).forEach(lease -> {
+            final Site site = buildings.apply(shard);
+            final JournalTailer consumer = ingress(shard).consumer(site.getBus());
+            owned.put(shard, new Owned(lease, site, consumer));
+            pool.add(site);
+            log.info("Node {} took over shard {}", nodeId, shard);
+        });
+    }
+
+    private void release(int shard) {
+        final Owned o = owned.remove(shard);
+        pool.remove(o.site);
+        o.lease.release();
+        log.info("Node {} gave back shard {}", nodeId, shard);
+    }
+
+    /**
+     * Moves queued requests of the owned shards into their buildings.
+     *
+     * @return Number of requests read
+     */
+    public int pollIngress(int limit) {
+        int count = 0;
+        for (Owned o : owned.values()) {
+            for (int i = 0; i < limit && o.consumer.readOne(); i++)
+                ++count;
+        }
+        return count;
+    }
+
+    private void run() {
+        final Pauser pauser = Pauser.millis(0, 10);
+        long nextRebalance = System.nanoTime();
+        try {
+            while (!shutdownFlag.get()) {
+                if (System.nanoTime() - nextRebalance >= 0) {
+                    rebalance();
+                    nextRebalance = System.nanoTime() + rebalanceNanos;
+                }
+
+                if (pollIngress(256) > 0)
+                    pauser.reset();
+                else
+                    pauser.pause();
+            }
+        } catch (RuntimeException e) {
+            log.error("Cluster node {} died. Giving up its shards", nodeId, e);
+        } finally {
+            releaseAll();
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Gives back every shard and the registration, so other nodes can take over right away.
+     */
+    public void releaseAll() {
+        while (!owned.isEmpty())
+            release(owned.lastKey());
+
+        if (registration != null) {
+            registration.release();
+            registration = null;
+        }
+    }
+
+    public ClusterNode start() {
+        final Thread thread = new Thread(this::run, "cluster");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    public void shutdown() throws InterruptedException {
+        shutdownFlag.set(true);
+        stopped.await();
+        ingress.values().forEach(ShardIngress::close);
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"node\":\"%s\",\"shards\":%d,\"owned\":%s}",
+                nodeId, numShards, owned.keySet().stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]")));
+    }
+}
@@ -0,0 +1,72 @@
+package elevator.cluster;
+
+import io.vavr.control.Option;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An exclusive lock on a file, held for as long as the owning process lives.
+ *
+ * The operating system drops the lock when the process exits for any reason, so other processes can take over
+ * without a heartbeat or an external coordinator. The owner's name is written into the file for operators only.
+ */
+final class FileLease {
+    private final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private FileLease(Path path, FileChannel channel, FileLock lock) {
+        this.path = path;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * @return The lease or none if another process, or another lease in this JVM, holds the file
+     */
+    static Option<FileLease> tryAcquire(Path path, String owner) {
+        try {
+            final FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            final FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                channel.close();
+                return Option.none();
+            }
+
+            if (lock == null) {
+                channel.close();
+                return Option.none();
+            }
+
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap((owner + "\n").getBytes(StandardCharsets.UTF_8)), 0);
+            return Option.of(new FileLease(path, channel, lock));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot lock " + path, e);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    void release() {
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot release " + path, e);
+        }
+    }
+}
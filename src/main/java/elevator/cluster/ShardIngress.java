@@ -0,0 +1,63 @@
+package elevator.cluster;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventTopic;
+import elevator.journal.EventFilter;
+import elevator.journal.EventKind;
+import elevator.journal.JournalCodec;
+import elevator.journal.JournalTailer;
+import elevator.model.Passenger;
+import net.openhft.chronicle.queue.ChronicleQueue;
+
+import java.nio.file.Path;
+
+/**
+ * Passenger requests for one shard, queued through a Chronicle Queue shared by every process of the cluster.
+ *
+ * Any process can submit to any shard. Only the owner of the shard consumes the queue, with a named tailer, so its read
+ * position survives the owner and the next owner carries on with the requests that were not read yet.
+ */
+public class ShardIngress implements AutoCloseable {
+    static final String CONSUMER = "owner";
+
+    private final int shard;
+    private final ChronicleQueue queue;
+
+    ShardIngress(Path dir, int shard) {
+        this.shard = shard;
+        this.queue = ChronicleQueue.singleBuilder(dir.resolve(String.format("shard-%03d", shard)).toFile()).build();
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * Passengers are numbered by the process that runs the building, so the request carries no id.
+     */
+    public void submit(int origin, int destination) {
+        JournalCodec.write(queue.acquireAppender(), EventTopic.SCHEDULING,
+                new Event.ScheduleRequest(Passenger.withId(0, destination), origin));
+    }
+
+    /**
+     * Starts consuming requests into the bus of the building that owns this shard.
+     *
+     * The cluster thread polls every shard, so a request the building's queue has no room for is not waited on. It
+     * stays unread in this queue and is offered again on the next poll.
+     */
+    JournalTailer consumer(EventBus target) {
+        return new JournalTailer(queue, CONSUMER, EventFilter.kinds(EventKind.SCHEDULE_REQUEST), (Event event) -> {
+            final Event.ScheduleRequest request = (Event.ScheduleRequest) event;
+            final int origin = request.getStart();
+            return target.tryFireTopic(EventTopic.SCHEDULING,
+                    new Event.ScheduleRequest(new Passenger(origin, request.getPassenger().getDestination()), origin));
+        });
+    }
+
+    @Override
+    public void close() {
+        queue.close();
+    }
+}
@@ -0,0 +1,191 @@
+package elevator.event;
+
+import elevator.metrics.ConcurrentHistogram;
+import elevator.metrics.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Opt-in timing of the event buses.
+ *
+ * An instrumented bus stamps each event as it is fired and records, per topic, how many events were fired and
+ * dispatched and how long they waited in the queue. Each reactor's {@code syncEvent} is timed as well, keyed by
+ * the reactor's class. Everything is recorded into lock-free counters and histograms, so workers never contend on
+ * a lock here. Buses without instrumentation skip all of this behind a single null check.
+ */
+public class BusInstrumentation implements BusInstrumentationMXBean {
+    private static final Logger log = LoggerFactory.getLogger(BusInstrumentation.class);
+    public static final String OBJECT_NAME = "elevator:type=EventBus";
+
+    private static class TopicStats {
+        final LongAdder fired = new LongAdder();
+        final LongAdder dispatched = new LongAdder();
+        final ConcurrentHistogram queueWait = new ConcurrentHistogram();
+    }
+
+    private final EnumMap<EventTopic, TopicStats> topics = new EnumMap<>(EventTopic.class);
+    private final ConcurrentHashMap<String, ConcurrentHistogram> handlers = new ConcurrentHashMap<>();
+    private final long started = System.nanoTime();
+
+    public BusInstrumentation() {
+        for (EventTopic topic : EventTopic.values())
+            topics.put(topic, new TopicStats());
+    }
+
+    StampedEvent stamp(EventTopic topic, Event event) {
+        topics.get(topic).fired.increment();
+        return new StampedEvent(event, System.nanoTime());
+    }
+
+    void dequeued(EventTopic topic, StampedEvent stamped) {
+        final TopicStats stats = topics.get(topic);
+        stats.dispatched.increment();
+        stats.queueWait.record(System.nanoTime() - stamped.firedAt);
+    }
+
+    void handle(EventReactor reactor, EventBus bus, Event event) {
+        final long start = System.nanoTime();
+        try {
+            reactor.syncEvent(bus, event);
+        } finally {
+            handlers.computeIfAbsent(reactor.getClass().getSimpleName(), k -> new ConcurrentHistogram())
+                    .record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Registers this as an MXBean with the platform MBean server. Failure is logged but not fatal.
+     */
+    public BusInstrumentation register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            log.warn("Could not register event bus MXBean", e);
+        }
+        return this;
+    }
+
+    private Map<String, Long> byTopic(ToLongFunction<TopicStats> f) {
+        Map<String, Long> result = new TreeMap<>();
+        topics.forEach((topic, stats) -> result.put(topic.name(), f.applyAsLong(stats)));
+        return result;
+    }
+
+    private Map<String, Double> waitByTopic(ToDoubleFunction<Histogram> f) {
+        Map<String, Double> result = new TreeMap<>();
+        topics.forEach((topic, stats) -> result.put(topic.name(), f.applyAsDouble(stats.queueWait.snapshot()) / 1e3));
+        return result;
+    }
+
+    private Map<String, Double> byHandler(ToDoubleFunction<Histogram> f) {
+        Map<String, Double> result = new TreeMap<>();
+        handlers.forEach((name, histogram) -> result.put(name, f.applyAsDouble(histogram.snapshot()) / 1e3));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getFired() {
+        return byTopic(stats -> stats.fired.sum());
+    }
+
+    @Override
+    public Map<String, Long> getDispatched() {
+        return byTopic(stats -> stats.dispatched.sum());
+    }
+
+    /**
+     * @return Events dispatched per second since the instrumentation was created
+     */
+    @Override
+    public Map<String, Double> getDispatchRate() {
+        final double seconds = Math.max(System.nanoTime() - started, 1) / 1e9;
+        Map<String, Double> result = new TreeMap<>();
+        topics.forEach((topic, stats) -> result.put(topic.name(), stats.dispatched.sum() / seconds));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getQueueWaitMean() {
+        return waitByTopic(Histogram::getMean);
+    }
+
+    @Override
+    public Map<String, Double> getQueueWaitP99() {
+        return waitByTopic(h -> h.getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getHandlerCalls() {
+        Map<String, Long> result = new TreeMap<>();
+        handlers.forEach((name, histogram) -> result.put(name, histogram.getTotalCount()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getHandlerTimeMean() {
+        return byHandler(Histogram::getMean);
+    }
+
+    @Override
+    public Map<String, Double> getHandlerTimeP99() {
+        return byHandler(h -> h.getValueAtPercentile(99));
+    }
+
+    private static void appendTimes(StringBuilder sb, Histogram h) {
+        sb.append("\"mean\":").append(String.format(Locale.ROOT, "%.1f", h.getMean() / 1e3))
+                .append(",\"p50\":").append(String.format(Locale.ROOT, "%.1f", h.getValueAtPercentile(50) / 1e3))
+                .append(",\"p99\":").append(String.format(Locale.ROOT, "%.1f", h.getValueAtPercentile(99) / 1e3))
+                .append(",\"max\":").append(String.format(Locale.ROOT, "%.1f", h.getMax() / 1e3));
+    }
+
+    /**
+     * Times are in microseconds and rates in events per second.
+     */
+    public String toJson() {
+        final double seconds = Math.max(System.nanoTime() - started, 1) / 1e9;
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("{\"topics\":{");
+
+        boolean first = true;
+        for (Map.Entry<EventTopic, TopicStats> entry : topics.entrySet()) {
+            final TopicStats stats = entry.getValue();
+            if (!first)
+                sb.append(',');
+            first = false;
+
+            sb.append('"').append(entry.getKey().name()).append("\":{")
+                    .append("\"fired\":").append(stats.fired.sum())
+                    .append(",\"dispatched\":").append(stats.dispatched.sum())
+                    .append(",\"rate\":").append(String.format(Locale.ROOT, "%.1f", stats.dispatched.sum() / seconds))
+                    .append(",\"queueWait\":{");
+            appendTimes(sb, stats.queueWait.snapshot());
+            sb.append("}}");
+        }
+
+        sb.append("},\"handlers\":{");
+        first = true;
+        for (Map.Entry<String, ConcurrentHistogram> entry : new TreeMap<>(handlers).entrySet()) {
+            final Histogram h = entry.getValue().snapshot();
+            if (!first)
+                sb.append(',');
+            first = false;
+
+            sb.append('"').append(entry.getKey()).append("\":{\"calls\":").append(h.getTotalCount()).append(',');
+            appendTimes(sb, h);
+            sb.append('}');
+        }
+
+        return sb.append("}}").toString();
+    }
+}
@@ -0,0 +1,24 @@
+package elevator.event;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link BusInstrumentation}. Maps are keyed by topic or reactor class and times are in microseconds.
+ */
+public interface BusInstrumentationMXBean {
+    Map<String, Long> getFired();
+
+    Map<String, Long> getDispatched();
+
+    Map<String, Double> getDispatchRate();
+
+    Map<String, Double> getQueueWaitMean();
+
+    Map<String, Double> getQueueWaitP99();
+
+    Map<String, Long> getHandlerCalls();
+
+    Map<String, Double> getHandlerTimeMean();
+
+    Map<String, Double> getHandlerTimeP99();
+}
@@ -186,11 +186,20 @@ public interface Event {
         private final int elevator;
         private final int floor;
         private final long clock;
+        private final int room;
 
-        public ElevatorArrived(int elevator, int floor, long clock) {
+        /**
+         * @param room Passengers that can board once those for this floor got off
+         */
+        public ElevatorArrived(int elevator, int floor, long clock, int room) {
             this.elevator = elevator;
             this.floor = floor;
             this.clock = clock;
+            this.room = room;
+        }
+
+        public ElevatorArrived(int elevator, int floor, long clock) {
+            this(elevator, floor, clock, Integer.MAX_VALUE);
         }
 
         public ElevatorArrived(Elevator elevator, Floor floor) {
@@ -209,9 +218,13 @@ public interface Event {
             return clock;
         }
 
+        public int getRoom() {
+            return room;
+        }
+
         @Override
         public String toMessage() {
-            return String.format("ElevatorArrived(elevator=%d, floor=%d, clock=%d)", elevator, floor, clock);
+            return String.format("ElevatorArrived(elevator=%d, floor=%d, clock=%d, room=%d)", elevator, floor, clock, room);
         }
     }
 
@@ -250,18 +263,32 @@ public interface Event {
 
     class RequestAccepted extends AbstractMarshallable implements Event {
         private final AssignRequest request;
+        private final int trip;
 
-        public RequestAccepted(AssignRequest request) {
+        /**
+         * @param trip Stops of the elevator at the request's floor before the one planned for the pickup, -1 for the
+         *             stop it is on
+         */
+        public RequestAccepted(AssignRequest request, int trip) {
             this.request = request;
+            this.trip = trip;
+        }
+
+        public RequestAccepted(AssignRequest request) {
+            this(request, 0);
         }
 
         public AssignRequest getRequest() {
             return request;
         }
 
+        public int getTrip() {
+            return trip;
+        }
+
         @Override
         public String toMessage() {
-            return String.format("RequestAccepted(%s)", request.toMessage());
+            return String.format("RequestAccepted(%s, trip=%d)", request.toMessage(), trip);
         }
     }
 
@@ -370,4 +397,50 @@ public interface Event {
                     '}';
         }
     }
+
+    /**
+     * A passenger entering a zone of a zoned building at a global floor, either at a sky lobby from another zone or,
+     * with fromZone -1, as a new request. The passenger's destination is the final global floor.
+     */
+    class TransferPassenger extends AbstractMarshallable implements Event {
+        public static final int OUTSIDE = -1;
+
+        private final Passenger passenger;
+        private final int fromZone;
+        private final int toZone;
+        private final int floor;
+
+        public TransferPassenger(Passenger passenger, int fromZone, int toZone, int floor) {
+            this.passenger = passenger;
+            this.fromZone = fromZone;
+            this.toZone = toZone;
+            this.floor = floor;
+        }
+
+        public Passenger getPassenger() {
+            return passenger;
+        }
+
+        public int getFromZone() {
+            return fromZone;
+        }
+
+        public int getToZone() {
+            return toZone;
+        }
+
+        public int getFloor() {
+            return floor;
+        }
+
+        @Override
+        public String toMessage() {
+            return "TransferPassenger{" +
+                    "passenger=" + passenger +
+                    ", fromZone=" + fromZone +
+                    ", toZone=" + toZone +
+                    ", floor=" + floor +
+                    '}';
+        }
+    }
 }
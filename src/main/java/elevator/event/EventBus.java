@@ -1,6 +1,9 @@
 package elevator.event;
 
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public interface EventBus {
     enum Health {
@@ -39,6 +42,65 @@ public interface EventBus {
      */
     void fireTopic(EventTopic topic, Event event);
 
+    /**
+     * Publishes an event after a wall-clock delay, e.g. to back off before a retry.
+     *
+     * Buses that count pending events count this one from now on, so it belongs to the tick that caused it
+     * rather than to whichever tick is running once the delay is over.
+     *
+     * @param topic The topic of the message.
+     * @param event The event to broadcast
+     * @param executor Runs the delayed publication
+     */
+    default void fireTopicLater(EventTopic topic, Event event, ScheduledExecutorService executor, long delay, TimeUnit unit) {
+        executor.schedule(() -> fireTopic(topic, event), delay, unit);
+    }
+
+    /**
+     * Publishes an event only if that does not have to wait for room in a queue.
+     *
+     * Buses with unbounded queues always accept the event.
+     *
+     * @param topic The topic of the message.
+     * @param event The event to broadcast
+     * @return False if the event was dropped because the topic's queue is full
+     */
+    default boolean tryFireTopic(EventTopic topic, Event event) {
+        fireTopic(topic, event);
+        return true;
+    }
+
+    /**
+     * Publishes several events on one topic, e.g. a batch of requests received together.
+     *
+     * Implementations may enqueue the batch more cheaply than firing each event, but events are
+     * still dispatched individually and in order.
+     *
+     * @param topic The topic of all the messages
+     * @param events The events to broadcast
+     */
+    default void fireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+        for (Event event : events)
+            fireTopic(topic, event);
+    }
+
+    /**
+     * Publishes events on one topic in order for as long as that does not have to wait for room in a queue.
+     *
+     * @param topic The topic of all the messages
+     * @param events The events to broadcast
+     * @return Number of events published, always a prefix of the collection
+     */
+    default int tryFireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+        int fired = 0;
+        for (Event event : events) {
+            if (!tryFireTopic(topic, event))
+                break;
+            fired++;
+        }
+        return fired;
+    }
+
     default void fire(Event event) {
         fireTopic(EventTopic.DEFAULT, event);
     }
@@ -8,11 +8,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -22,13 +25,27 @@ public class PartitionedEventBus implements RunnableEventBus {
     EnumMap<EventTopic, Integer> topicWorkers = new EnumMap<>(EventTopic.class);
     EnumMap<EventTopic, Integer> topicPriority = new EnumMap<>(EventTopic.class);
     private ExecutorService executors = Executors.newCachedThreadPool(); // TODO configurable
+    private final PendingEvents pending = new PendingEvents(); // shared by all topics
 
-    public PartitionedEventBus(int queueDepth) {
+    private PartitionedEventBus(int queueDepth, boolean blocking) {
         Arrays.stream(EventTopic.values()).forEach(topic -> {
-            topicBus.put(topic, new TopicBus(topic, this, queueDepth));
+            topicBus.put(topic, new TopicBus(topic, this, queueDepth, pending, blocking));
         });
     }
 
+    public PartitionedEventBus(int queueDepth) {
+        this(queueDepth, true);
+    }
+
+    /**
+     * A bus that is only driven through {@link #process}. Reactors fire from inside {@code process}, on the only
+     * thread that drains the queues, so firing must never wait for room. Queues are unbounded and the depth only
+     * limits {@link #tryFireTopic}, i.e. what comes from outside.
+     */
+    public static PartitionedEventBus nonBlocking(int queueDepth) {
+        return new PartitionedEventBus(queueDepth, false);
+    }
+
     public PartitionedEventBus() {
         this(1024);
     }
@@ -43,6 +60,16 @@ public class PartitionedEventBus implements RunnableEventBus {
         return this;
     }
 
+    /**
+     * Records queue wait and handler times on every topic.
+     *
+     * @param instrumentation Where to record or null to stop recording
+     */
+    public PartitionedEventBus instrument(BusInstrumentation instrumentation) {
+        topicBus.values().forEach(bus -> bus.instrument(instrumentation));
+        return this;
+    }
+
     @Override
     public Health health() {
         return Stream.ofAll(topicBus.values())
@@ -137,6 +164,33 @@ public class PartitionedEventBus implements RunnableEventBus {
         topicBus.get(topic).fireTopic(topic, event);
     }
 
+    @Override
+    public void fireTopicLater(EventTopic topic, Event event, ScheduledExecutorService executor, long delay, TimeUnit unit) {
+        topicBus.get(topic).fireTopicLater(topic, event, executor, delay, unit);
+    }
+
+    @Override
+    public boolean tryFireTopic(EventTopic topic, Event event) {
+        return topicBus.get(topic).tryFireTopic(topic, event);
+    }
+
+    @Override
+    public void fireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+        topicBus.get(topic).fireTopicAll(topic, events);
+    }
+
+    @Override
+    public int tryFireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+        return topicBus.get(topic).tryFireTopicAll(topic, events);
+    }
+
+    /**
+     * Events fired on any topic that have not been completely dispatched yet.
+     */
+    public PendingEvents getPending() {
+        return pending;
+    }
+
     @Override
     public long getBacklog() {
         return Stream.ofAll(topicBus.values()).map(TopicBus::getBacklog).sum().longValue();
@@ -0,0 +1,61 @@
+package elevator.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts events that have been fired but not yet fully dispatched.
+ *
+ * An event is counted from the moment it is queued until every reactor has handled it. Follow-up events
+ * fired by reactors are counted before the triggering event completes, so the count only reaches zero
+ * once a whole cascade of events has been handled.
+ */
+public class PendingEvents {
+    private final AtomicLong count = new AtomicLong(0);
+    private final Object monitor = new Object();
+
+    void enqueued() {
+        count.incrementAndGet();
+    }
+
+    void enqueued(int n) {
+        count.addAndGet(n);
+    }
+
+    void completed() {
+        completed(1);
+    }
+
+    void completed(int n) {
+        if (count.addAndGet(-n) == 0) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    /**
+     * Blocks until no events are pending.
+     *
+     * @return False if the timeout expired first
+     */
+    public boolean awaitQuiescence(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (monitor) {
+            while (count.get() != 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+
+                TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+            }
+        }
+
+        return true;
+    }
+}
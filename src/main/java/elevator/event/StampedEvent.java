@@ -0,0 +1,14 @@
+package elevator.event;
+
+/**
+ * Queue entry of an instrumented bus: the event together with the time it was fired.
+ */
+final class StampedEvent {
+    final Event event;
+    final long firedAt;
+
+    StampedEvent(Event event, long firedAt) {
+        this.event = event;
+        this.firedAt = firedAt;
+    }
+}
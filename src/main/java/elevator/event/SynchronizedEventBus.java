@@ -18,7 +18,8 @@ public class SynchronizedEventBus implements RunnableEventBus {
     private static final Logger log = LoggerFactory.getLogger(SynchronizedEventBus.class);
 
     private AtomicReference<Set<EventReactor>> allTopics = new AtomicReference<>(HashSet.empty());
-    private BlockingQueue<Tuple2<EventTopic, Event>> queue = new LinkedBlockingQueue<>();
+    private BlockingQueue<Tuple2<EventTopic, Object>> queue = new LinkedBlockingQueue<>(); // Events, or StampedEvents while instrumented
+    private volatile BusInstrumentation instrumentation = null;
 
 
     @Override
@@ -33,6 +34,16 @@ public class SynchronizedEventBus implements RunnableEventBus {
         }
     }
 
+    /**
+     * Starts recording queue wait and handler times. Events already queued are not timed.
+     *
+     * @param instrumentation Where to record or null to stop recording
+     */
+    public SynchronizedEventBus instrument(BusInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        return this;
+    }
+
     public long getBacklog() {
         return queue.size();
     }
@@ -52,13 +63,27 @@ public class SynchronizedEventBus implements RunnableEventBus {
     @Override
     public void fireTopic(EventTopic topic, Event event) {
         try {
-            queue.put(Tuple.of(topic, event));
+            final BusInstrumentation instrumentation = this.instrumentation;
+            queue.put(Tuple.of(topic, instrumentation == null ? event : instrumentation.stamp(topic, event)));
         } catch (InterruptedException e) {
             log.warn("Interrupted while firing event", e);
         }
     }
 
-    private void dispatch(EventTopic topic, Event event) {
+    private void dispatch(EventTopic topic, Object item) {
+        final BusInstrumentation instrumentation = this.instrumentation;
+        if (item instanceof StampedEvent && instrumentation != null) {
+            final StampedEvent stamped = (StampedEvent) item;
+            instrumentation.dequeued(topic, stamped);
+            allTopics.get()
+                    .toStream().shuffle()
+                    .forEach(handler -> {
+                        instrumentation.handle(handler, this, stamped.event);
+                    });
+            return;
+        }
+
+        final Event event = item instanceof StampedEvent ? ((StampedEvent) item).event : (Event) item;
         // TODO route event only to relevant topic listeners
         allTopics.get()
                 .toStream().shuffle()
@@ -71,7 +96,7 @@ public class SynchronizedEventBus implements RunnableEventBus {
     public int process(int limit) {
         int ctr = 0;
         while (true) {
-            Tuple2<EventTopic, Event> event = queue.poll();
+            Tuple2<EventTopic, Object> event = queue.poll();
             if (event == null)
                 break;
 
@@ -84,7 +109,7 @@ public class SynchronizedEventBus implements RunnableEventBus {
     @Override
     public void run(AtomicBoolean shutdownFlag) throws InterruptedException {
         while (true) {
-            Tuple2<EventTopic, Event> event = queue.take();
+            Tuple2<EventTopic, Object> event = queue.take();
             dispatch(event._1, event._2);
 
             if (shutdownFlag.get()) {
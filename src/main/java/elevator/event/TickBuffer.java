@@ -0,0 +1,68 @@
+package elevator.event;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds back what reactors fire while they handle a clock tick, until every reactor has seen the tick.
+ *
+ * Topics are dispatched by different workers, so without it a request released by the event queue could be scheduled
+ * against an elevator that has not moved for the tick yet. The tick itself stays pending while the buffer fills, so
+ * a barrier cannot start the next tick before the buffered events are released.
+ */
+class TickBuffer implements EventBus {
+    private final EventBus target;
+    private final List<EventTopic> topics = new ArrayList<>();
+    private final List<Event> events = new ArrayList<>();
+    private boolean released = false;
+
+    TickBuffer(EventBus target) {
+        this.target = target;
+    }
+
+    @Override
+    public Health health() {
+        return target.health();
+    }
+
+    @Override
+    public void attachTopic(EnumSet<EventTopic> topics, EventReactor reactor) {
+        target.attachTopic(topics, reactor);
+    }
+
+    /**
+     * Buffered, unless the tick has been handled already, e.g. when a reactor kept the bus for later.
+     */
+    @Override
+    public void fireTopic(EventTopic topic, Event event) {
+        synchronized (this) {
+            if (!released) {
+                topics.add(topic);
+                events.add(event);
+                return;
+            }
+        }
+
+        target.fireTopic(topic, event);
+    }
+
+    @Override
+    public void fireTopicLater(EventTopic topic, Event event, ScheduledExecutorService executor, long delay, TimeUnit unit) {
+        target.fireTopicLater(topic, event, executor, delay, unit);
+    }
+
+    /**
+     * Fires everything buffered in order. Queues may be full, so this can block, but not on the topics being held back.
+     */
+    void release() {
+        synchronized (this) {
+            released = true;
+        }
+
+        for (int i = 0; i < events.size(); i++)
+            target.fireTopic(topics.get(i), events.get(i));
+    }
+}
@@ -5,6 +5,7 @@ import io.vavr.collection.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -19,27 +20,52 @@ public class TopicBus implements RunnableEventBus {
     private final EventTopic topic;
     private final EventBus parent;
     private final int capacity;
+    private final PendingEvents pending;
 
     private AtomicReference<Set<EventReactor>> reactors = new AtomicReference<>(HashSet.empty());
-    private BlockingQueue<Event> queue;
+    private BlockingQueue<Object> queue; // Events, or StampedEvents while instrumented
+    private volatile BusInstrumentation instrumentation = null;
 
-    public TopicBus(EventTopic topic, EventBus parent, int queueDepth) {
+    /**
+     * @param blocking When false the queue is unbounded and queueDepth only limits {@link #tryFireTopic}, so firing
+     *                 never waits. For buses whose events are handled on the thread that fires them
+     */
+    public TopicBus(EventTopic topic, EventBus parent, int queueDepth, PendingEvents pending, boolean blocking) {
         this.topic = topic;
         this.parent = parent;
         this.capacity = queueDepth;
-        this.queue = new LinkedBlockingQueue<>(queueDepth);
+        this.pending = pending;
+        this.queue = blocking ? new LinkedBlockingQueue<>(queueDepth) : new LinkedBlockingQueue<>();
+    }
+
+    public TopicBus(EventTopic topic, EventBus parent, int queueDepth, PendingEvents pending) {
+        this(topic, parent, queueDepth, pending, true);
+    }
+
+    public TopicBus(EventTopic topic, EventBus parent, int queueDepth) {
+        this(topic, parent, queueDepth, new PendingEvents());
     }
 
     @Override
     public Health health() {
         if (queue.size() > 16)
             return Health.DEGRADED;
-        else if (queue.remainingCapacity() < capacity / 2)
+        else if (capacity - queue.size() < capacity / 2)
             return Health.CRITICAL;
         else
             return Health.GOOD;
     }
 
+    /**
+     * Starts recording queue wait and handler times. Events already queued are not timed.
+     *
+     * @param instrumentation Where to record or null to stop recording
+     */
+    public TopicBus instrument(BusInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        return this;
+    }
+
     public EventTopic getTopic() {
         return topic;
     }
@@ -68,9 +94,12 @@ public class TopicBus implements RunnableEventBus {
     @Override
     public void fireTopic(EventTopic topic, Event event) {
         if (this.topic.equals(topic)) {
+            final BusInstrumentation instrumentation = this.instrumentation;
+            pending.enqueued();
             try {
-                queue.put(event);
+                queue.put(instrumentation == null ? event : instrumentation.stamp(topic, event));
             } catch (InterruptedException e) {
+                pending.completed();
                 log.warn("Interrupted while firing event", e);
             }
         } else {
@@ -78,19 +107,138 @@ public class TopicBus implements RunnableEventBus {
         }
     }
 
-    private void dispatch(Event event) {
-        reactors.get()
-                .toStream().shuffle()
-                .forEach(handler -> {
-                    handler.syncEvent(this, event);
-                });
+    @Override
+    public void fireTopicLater(EventTopic topic, Event event, ScheduledExecutorService executor, long delay, TimeUnit unit) {
+        // fireTopic counts the event before this is released, so the shared count never drops to zero in between
+        pending.enqueued();
+        try {
+            executor.schedule(() -> {
+                try {
+                    fireTopic(topic, event);
+                } finally {
+                    pending.completed();
+                }
+            }, delay, unit);
+        } catch (RejectedExecutionException e) {
+            pending.completed();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryFireTopic(EventTopic topic, Event event) {
+        if (!this.topic.equals(topic))
+            return parent.tryFireTopic(topic, event);
+
+        // Checked separately for unbounded queues, so concurrent callers may overshoot the depth a little
+        if (queue.size() >= capacity)
+            return false;
+
+        final BusInstrumentation instrumentation = this.instrumentation;
+        pending.enqueued();
+        if (queue.offer(instrumentation == null ? event : instrumentation.stamp(topic, event)))
+            return true;
+
+        pending.completed();
+        return false;
+    }
+
+    @Override
+    public void fireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+        if (!this.topic.equals(topic)) {
+            parent.fireTopicAll(topic, events);
+            return;
+        }
+
+        final BusInstrumentation instrumentation = this.instrumentation;
+        int remaining = events.size();
+        pending.enqueued(remaining);
+        try {
+            for (Event event : events) {
+                queue.put(instrumentation == null ? event : instrumentation.stamp(topic, event));
+                --remaining;
+            }
+        } catch (InterruptedException e) {
+            pending.completed(remaining);
+            log.warn("Interrupted while firing {} events", remaining, e);
+        }
+    }
+
+    @Override
+    public int tryFireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+        if (!this.topic.equals(topic))
+            return parent.tryFireTopicAll(topic, events);
+
+        final BusInstrumentation instrumentation = this.instrumentation;
+        int fired = 0;
+        pending.enqueued(events.size());
+        for (Event event : events) {
+            if (queue.size() >= capacity || !queue.offer(instrumentation == null ? event : instrumentation.stamp(topic, event)))
+                break;
+            fired++;
+        }
+
+        if (fired < events.size())
+            pending.completed(events.size() - fired);
+        return fired;
+    }
+
+    // Events fired in reaction to a clock tick wait until every reactor has seen it
+    private EventBus busFor(Event event) {
+        return event instanceof Event.ClockTick ? new TickBuffer(this) : this;
+    }
+
+    private void dispatch(Object item) {
+        try {
+            if (item instanceof StampedEvent) {
+                dispatchInstrumented((StampedEvent) item);
+                return;
+            }
+
+            final Event event = (Event) item;
+            final EventBus bus = busFor(event);
+            try {
+                reactors.get()
+                        .toStream().shuffle()
+                        .forEach(handler -> {
+                            handler.syncEvent(bus, event);
+                        });
+            } finally {
+                if (bus != this)
+                    ((TickBuffer) bus).release();
+            }
+        } finally {
+            pending.completed();
+        }
+    }
+
+    private void dispatchInstrumented(StampedEvent stamped) {
+        final BusInstrumentation instrumentation = this.instrumentation;
+        final EventBus bus = busFor(stamped.event);
+        try {
+            if (instrumentation == null) {
+                // Instrumentation was switched off while the event was queued
+                reactors.get().toStream().shuffle().forEach(handler -> handler.syncEvent(bus, stamped.event));
+                return;
+            }
+
+            instrumentation.dequeued(topic, stamped);
+            reactors.get()
+                    .toStream().shuffle()
+                    .forEach(handler -> {
+                        instrumentation.handle(handler, bus, stamped.event);
+                    });
+        } finally {
+            if (bus != this)
+                ((TickBuffer) bus).release();
+        }
     }
 
     @Override
     public int process(int limit) {
         int ctr = 0;
         for (int i = 0; i < limit; i++) {
-            Event event = queue.poll();
+            Object event = queue.poll();
             if (event == null)
                 break;
 
@@ -104,7 +252,7 @@ public class TopicBus implements RunnableEventBus {
     @Override
     public void run(AtomicBoolean shutdownFlag) throws InterruptedException {
         while (true) {
-            Event event = queue.poll(100, TimeUnit.MILLISECONDS);
+            Object event = queue.poll(100, TimeUnit.MILLISECONDS);
             if (event != null)
                 dispatch(event);
 
@@ -128,7 +276,7 @@ public class TopicBus implements RunnableEventBus {
         OverloadStrategy overloadStrategy = new OverloadStrategy(executor, maxWorkers);
 
         while (!shutdownFlag.get()) {
-            Event event = queue.poll(100, TimeUnit.MILLISECONDS);
+            Object event = queue.poll(100, TimeUnit.MILLISECONDS);
 
             if (event != null) {
                 overloadStrategy.apply(this);
@@ -0,0 +1,128 @@
+package elevator.journal;
+
+import elevator.event.Event;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.event.RunnableEventBus;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Set;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.threads.Pauser;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An event bus whose topics are memory-mapped Chronicle Queues, so reactors can live in different processes.
+ *
+ * Each topic is a queue under the bus directory. {@link #fireTopic} appends the event in the journal format of
+ * {@link JournalCodec}, and {@link #run} tails the topics that have local reactors and dispatches what it reads.
+ * Processes opening the same directory see each other's events through shared memory without a broker or socket.
+ *
+ * Every process with reactors on a topic receives every event of the topic, including its own. A topic should
+ * therefore be handled by one process only, e.g. scheduling in one and the elevators in another. Events are read by
+ * a single thread, from {@link #run} or {@link #process}, and only those appended after the bus was opened.
+ */
+public class ChronicleEventBus implements RunnableEventBus, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ChronicleEventBus.class);
+    private static final EventTopic[] TOPICS = EventTopic.values();
+
+    private final EnumMap<EventTopic, ChronicleQueue> queues = new EnumMap<>(EventTopic.class);
+    private final EnumMap<EventTopic, ExcerptTailer> tailers = new EnumMap<>(EventTopic.class);
+    private final EnumMap<EventTopic, AtomicReference<Set<EventReactor>>> reactors = new EnumMap<>(EventTopic.class);
+
+    public ChronicleEventBus(Path dir) {
+        for (EventTopic topic : TOPICS) {
+            final ChronicleQueue queue = ChronicleQueue.singleBuilder(dir.resolve(topic.name().toLowerCase(Locale.ROOT)).toFile()).build();
+            queues.put(topic, queue);
+            tailers.put(topic, queue.createTailer().toEnd());
+            reactors.put(topic, new AtomicReference<>(HashSet.empty()));
+        }
+    }
+
+    @Override
+    public void attachTopic(EnumSet<EventTopic> topics, EventReactor reactor) {
+        for (EventTopic topic : topics)
+            reactors.get(topic).updateAndGet(set -> set.add(reactor));
+    }
+
+    @Override
+    public void fireTopic(EventTopic topic, Event event) {
+        // Appenders are per thread
+        JournalCodec.write(queues.get(topic).acquireAppender(), topic, event);
+    }
+
+    /**
+     * Reads and dispatches the next event of a topic.
+     *
+     * @return False when there is nothing left to read
+     */
+    private boolean readOne(EventTopic topic) {
+        final Event event;
+        try (DocumentContext dc = tailers.get(topic).readingDocument()) {
+            if (!dc.isPresent())
+                return false;
+
+            if (dc.isMetaData())
+                return true;
+
+            JournalCodec.readHeader(dc.wire());
+            event = JournalCodec.readEvent(dc.wire());
+        }
+
+        // Reactors may append follow-up events, so dispatch after the excerpt is released
+        if (event != null) {
+            for (EventReactor reactor : reactors.get(topic).get())
+                reactor.syncEvent(this, event);
+        }
+        return true;
+    }
+
+    /**
+     * Processes events on every topic with local reactors, including those fired in reaction, until none are left.
+     */
+    @Override
+    public int process(int limit) {
+        int ctr = 0;
+        boolean progress = true;
+        while (progress && ctr < limit) {
+            progress = false;
+            for (EventTopic topic : TOPICS) {
+                if (reactors.get(topic).get().isEmpty())
+                    continue;
+
+                while (ctr < limit && readOne(topic)) {
+                    ++ctr;
+                    progress = true;
+                }
+            }
+        }
+        return ctr;
+    }
+
+    @Override
+    public void run(AtomicBoolean shutdownFlag) {
+        final Pauser pauser = Pauser.balanced();
+        while (!shutdownFlag.get()) {
+            if (process(1024) > 0)
+                pauser.reset();
+            else
+                pauser.pause();
+        }
+
+        log.info("Chronicle event bus stopping");
+    }
+
+    @Override
+    public void close() {
+        queues.values().forEach(ChronicleQueue::close);
+    }
+}
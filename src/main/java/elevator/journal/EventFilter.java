@@ -0,0 +1,48 @@
+package elevator.journal;
+
+import java.util.EnumSet;
+
+/**
+ * Predicate over a packed {@link EventHeader}.
+ *
+ * Filters are evaluated before the payload is deserialized, so rejecting an excerpt costs a single read.
+ */
+@FunctionalInterface
+public interface EventFilter {
+    boolean test(long header);
+
+    default EventFilter and(EventFilter other) {
+        return header -> test(header) && other.test(header);
+    }
+
+    default EventFilter or(EventFilter other) {
+        return header -> test(header) || other.test(header);
+    }
+
+    default EventFilter negate() {
+        return header -> !test(header);
+    }
+
+    static EventFilter all() {
+        return header -> true;
+    }
+
+    static EventFilter kinds(EventKind first, EventKind... rest) {
+        final EnumSet<EventKind> kinds = EnumSet.of(first, rest);
+        // Bit mask keeps the hot path free of EnumSet lookups
+        long mask = 0;
+        for (EventKind kind : kinds)
+            mask |= 1L << kind.ordinal();
+
+        final long accepted = mask;
+        return header -> (accepted & (1L << EventHeader.kind(header).ordinal())) != 0;
+    }
+
+    static EventFilter elevator(int id) {
+        return header -> EventHeader.elevator(header) == id;
+    }
+
+    static EventFilter floor(int id) {
+        return header -> EventHeader.floor(header) == id;
+    }
+}
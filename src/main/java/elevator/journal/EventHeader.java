@@ -0,0 +1,105 @@
+package elevator.journal;
+
+import elevator.event.Event;
+import elevator.event.EventTopic;
+
+/**
+ * Packs the routing attributes of an event into a single long that precedes the payload in the journal.
+ *
+ * Layout (most significant bits first):
+ * <pre>
+ *   | kind:8 | topic:8 | elevator:24 | floor:24 |
+ * </pre>
+ * Elevator and floor are stored with an offset of one so that zero means "not applicable".
+ */
+public final class EventHeader {
+    public static final int NONE = -1;
+
+    private static final int ID_BITS = 24;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int FLOOR_SHIFT = 0;
+    private static final int ELEVATOR_SHIFT = FLOOR_SHIFT + ID_BITS;
+    private static final int TOPIC_SHIFT = ELEVATOR_SHIFT + ID_BITS;
+    private static final int KIND_SHIFT = TOPIC_SHIFT + 8;
+
+    private EventHeader() {
+    }
+
+    public static long pack(EventKind kind, EventTopic topic, int elevator, int floor) {
+        return ((long) kind.ordinal() << KIND_SHIFT)
+                | ((long) topic.ordinal() << TOPIC_SHIFT)
+                | (packId(elevator) << ELEVATOR_SHIFT)
+                | (packId(floor) << FLOOR_SHIFT);
+    }
+
+    public static long of(EventTopic topic, Event event) {
+        int elevator = NONE;
+        int floor = NONE;
+
+        if (event instanceof Event.LoadPassenger) {
+            elevator = ((Event.LoadPassenger) event).getElevator();
+            floor = ((Event.LoadPassenger) event).getFloor();
+        } else if (event instanceof Event.DropPassenger) {
+            elevator = ((Event.DropPassenger) event).getElevator();
+            floor = ((Event.DropPassenger) event).getFloor();
+        } else if (event instanceof Event.AssignRequest) {
+            elevator = ((Event.AssignRequest) event).getElevator();
+            floor = ((Event.AssignRequest) event).getFloor();
+        } else if (event instanceof Event.RequestAccepted) {
+            elevator = ((Event.RequestAccepted) event).getRequest().getElevator();
+            floor = ((Event.RequestAccepted) event).getRequest().getFloor();
+        } else if (event instanceof Event.RequestRejected) {
+            elevator = ((Event.RequestRejected) event).getRequest().getElevator();
+            floor = ((Event.RequestRejected) event).getRequest().getFloor();
+        } else if (event instanceof Event.ElevatorArrived) {
+            elevator = ((Event.ElevatorArrived) event).getElevator();
+            floor = ((Event.ElevatorArrived) event).getFloor();
+        } else if (event instanceof Event.ElevatorIdle) {
+            elevator = ((Event.ElevatorIdle) event).getElevator();
+            floor = ((Event.ElevatorIdle) event).getFloor();
+        } else if (event instanceof Event.PassengerWaiting) {
+            elevator = ((Event.PassengerWaiting) event).getElevator();
+            floor = ((Event.PassengerWaiting) event).getFloor();
+        } else if (event instanceof Event.MissedConnection) {
+            elevator = ((Event.MissedConnection) event).getElevator();
+            floor = ((Event.MissedConnection) event).getFloor();
+        } else if (event instanceof Event.ScheduleRequest) {
+            floor = ((Event.ScheduleRequest) event).getStart();
+        } else if (event instanceof Event.TransferPassenger) {
+            floor = ((Event.TransferPassenger) event).getFloor();
+        }
+
+        return pack(EventKind.of(event), topic, elevator, floor);
+    }
+
+    public static EventKind kind(long header) {
+        final int ordinal = (int) (header >>> KIND_SHIFT) & 0xff;
+        return ordinal < EventKind.cardinal.length ? EventKind.cardinal[ordinal] : EventKind.UNKNOWN;
+    }
+
+    public static EventTopic topic(long header) {
+        final int ordinal = (int) (header >>> TOPIC_SHIFT) & 0xff;
+        final EventTopic[] topics = EventTopic.values();
+        return ordinal < topics.length ? topics[ordinal] : EventTopic.DEFAULT;
+    }
+
+    public static int elevator(long header) {
+        return unpackId(header >>> ELEVATOR_SHIFT);
+    }
+
+    public static int floor(long header) {
+        return unpackId(header >>> FLOOR_SHIFT);
+    }
+
+    private static long packId(int id) {
+        if (id < 0)
+            return 0;
+
+        assert (id < ID_MASK);
+        return (id + 1) & ID_MASK;
+    }
+
+    private static int unpackId(long bits) {
+        return (int) (bits & ID_MASK) - 1;
+    }
+}
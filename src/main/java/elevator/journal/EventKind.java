@@ -0,0 +1,53 @@
+package elevator.journal;
+
+import elevator.event.Event;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Compact identifier for each concrete event type.
+ *
+ * The ordinal is written into the journal header so consumers can filter on event type
+ * without resolving the class name embedded in the payload.
+ * New kinds must be appended to keep existing journals readable.
+ */
+public enum EventKind {
+    UNKNOWN(null),
+    CLOCK_TICK(Event.ClockTick.class),
+    SCHEDULE_REQUEST(Event.ScheduleRequest.class),
+    ASSIGN_REQUEST(Event.AssignRequest.class),
+    REQUEST_ACCEPTED(Event.RequestAccepted.class),
+    REQUEST_REJECTED(Event.RequestRejected.class),
+    PASSENGER_WAITING(Event.PassengerWaiting.class),
+    LOAD_PASSENGER(Event.LoadPassenger.class),
+    DROP_PASSENGER(Event.DropPassenger.class),
+    MISSED_CONNECTION(Event.MissedConnection.class),
+    ELEVATOR_ARRIVED(Event.ElevatorArrived.class),
+    ELEVATOR_IDLE(Event.ElevatorIdle.class),
+    TRANSFER_PASSENGER(Event.TransferPassenger.class);
+
+    public static final EventKind[] cardinal = values();
+    private static final Map<Class<?>, EventKind> byClass = new IdentityHashMap<>();
+
+    static {
+        for (EventKind kind : cardinal) {
+            if (kind.type != null)
+                byClass.put(kind.type, kind);
+        }
+    }
+
+    private final Class<? extends Event> type;
+
+    EventKind(Class<? extends Event> type) {
+        this.type = type;
+    }
+
+    public Class<? extends Event> getType() {
+        return type;
+    }
+
+    public static EventKind of(Event event) {
+        return byClass.getOrDefault(event.getClass(), UNKNOWN);
+    }
+}
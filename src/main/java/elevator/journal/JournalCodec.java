@@ -0,0 +1,43 @@
+package elevator.journal;
+
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+
+/**
+ * Wire format of the event journal.
+ *
+ * Each excerpt holds an {@link EventHeader} followed by the marshalled event.
+ * Readers can inspect the header and skip the excerpt without touching the payload.
+ */
+public final class JournalCodec {
+    static final String HEADER = "h";
+    static final String EVENT = "e";
+
+    private JournalCodec() {
+    }
+
+    public static void write(ExcerptAppender appender, EventTopic topic, Event event) {
+        try (DocumentContext dc = appender.writingDocument()) {
+            final Wire wire = dc.wire();
+            wire.write(HEADER).int64(EventHeader.of(topic, event));
+            wire.write(EVENT).object(event);
+        }
+    }
+
+    /**
+     * Must be called before {@link #readEvent(Wire)} on the same excerpt.
+     *
+     * @return The packed header or zero (kind UNKNOWN) for excerpts written without one
+     */
+    public static long readHeader(Wire wire) {
+        return wire.read(HEADER).int64();
+    }
+
+    public static Event readEvent(Wire wire) {
+        final Object payload = wire.read(EVENT).object();
+        return payload instanceof Event ? (Event) payload : null;
+    }
+}
@@ -0,0 +1,79 @@
+package elevator.journal;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies lifecycle-significant excerpts out of closed journal cycles into a compacted journal.
+ *
+ * Excerpts are filtered on their header and copied byte for byte, so nothing is deserialized.
+ * Progress is kept by a named tailer, so compaction resumes where it left off after a restart.
+ * The caller owns the compacted journal and applies retention to it.
+ */
+public class JournalCompactor {
+    private static final Logger log = LoggerFactory.getLogger(JournalCompactor.class);
+    private final ExcerptTailer tailer;
+    private final ExcerptAppender appender;
+    private final EventFilter keep;
+
+    private long copied = 0;
+    private long dropped = 0;
+
+    public JournalCompactor(ChronicleQueue source, ChronicleQueue target, EventFilter keep) {
+        this.tailer = source.createTailer("Compactor");
+        this.appender = target.acquireAppender();
+        this.keep = keep;
+    }
+
+    public long getCopied() {
+        return copied;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Compacts every excerpt in cycles strictly before the given one.
+     *
+     * The writer only ever appends to the current cycle, so once this returns the earlier cycles are
+     * fully represented in the compacted journal and may be deleted.
+     *
+     * @param untilCycle First cycle to leave untouched, usually the one currently being written
+     */
+    public void compactUntil(int untilCycle) {
+        final long before = copied;
+
+        while (true) {
+            try (DocumentContext dc = tailer.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+
+                if (tailer.cycle() >= untilCycle) {
+                    dc.rollbackOnClose();
+                    break;
+                }
+
+                if (dc.isMetaData())
+                    continue;
+
+                final Bytes<?> bytes = dc.wire().bytes();
+                final long start = bytes.readPosition();
+                if (keep.test(JournalCodec.readHeader(dc.wire()))) {
+                    bytes.readPosition(start);
+                    appender.writeBytes(bytes);
+                    ++copied;
+                } else {
+                    ++dropped;
+                }
+            }
+        }
+
+        log.debug("Compacted {} excerpts up to cycle {}", copied - before, untilCycle);
+    }
+}
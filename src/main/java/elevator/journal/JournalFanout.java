@@ -0,0 +1,58 @@
+package elevator.journal;
+
+import elevator.event.EventReactor;
+import io.vavr.collection.List;
+import io.vavr.control.Try;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs several named tailers over the same journal, each in its own thread.
+ *
+ * Consumers do not share buffers, so a slow consumer (e.g. a dashboard) cannot hold back a fast one
+ * (e.g. the watchdog).
+ */
+public class JournalFanout {
+    private static final Logger log = LoggerFactory.getLogger(JournalFanout.class);
+    private final ChronicleQueue queue;
+    private List<JournalTailer> tailers = List.empty();
+
+    public JournalFanout(ChronicleQueue queue) {
+        this.queue = queue;
+    }
+
+    public JournalFanout subscribe(String name, EventFilter filter, EventReactor reactor) {
+        if (tailers.exists(t -> t.getName().equals(name)))
+            throw new IllegalArgumentException("Duplicate tailer name " + name);
+
+        tailers = tailers.append(new JournalTailer(queue, name, filter, reactor));
+        return this;
+    }
+
+    public List<JournalTailer> getTailers() {
+        return tailers;
+    }
+
+    public void run(AtomicBoolean shutdownFlag) throws InterruptedException {
+        log.info("Starting {} journal tailers", tailers.size());
+        CountDownLatch childLatch = new CountDownLatch(tailers.size());
+
+        tailers.forEach(tailer -> {
+            Thread th = new Thread(() ->
+                    Try.run(() -> tailer.run(shutdownFlag))
+                            .onFailure(ex -> {
+                                log.error("Tailer {} died. Shutting down", tailer.getName(), ex);
+                                shutdownFlag.set(true);
+                            })
+                            .andFinally(childLatch::countDown));
+            th.setName(String.format("%-8.8s", tailer.getName()));
+            th.start();
+        });
+
+        childLatch.await();
+    }
+}
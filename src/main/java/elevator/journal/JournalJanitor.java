@@ -0,0 +1,141 @@
+package elevator.journal;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.Array;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the retention policy of a journal by deleting its oldest closed cycles.
+ *
+ * A cycle is deleted once it ended more than max-age ago or while the journal exceeds max-size.
+ * The cycle currently being written is never touched. With compaction enabled, closed cycles are
+ * compacted before they become eligible for deletion, and the compacted journal is held to the
+ * same policy. Its cycles are those in which the excerpts were compacted.
+ */
+public class JournalJanitor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JournalJanitor.class);
+    private final SingleChronicleQueue queue;
+    private final JournalPolicy policy;
+    private final DateTimeFormatter cycleFormat;
+    private final SingleChronicleQueue compacted;
+    private final JournalCompactor compactor;
+    private ScheduledFuture<?> task;
+
+    public JournalJanitor(SingleChronicleQueue queue, JournalPolicy policy) {
+        this.queue = queue;
+        this.policy = policy;
+        this.cycleFormat = new DateTimeFormatterBuilder()
+                .appendPattern(queue.rollCycle().format())
+                .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+                .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+                .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+                .toFormatter();
+        this.compacted = policy.isCompaction()
+                ? ChronicleQueue.singleBuilder(policy.getCompactedDir())
+                        .rollCycle(queue.rollCycle())
+                        .timeProvider(queue.time())
+                        .build()
+                : null;
+        this.compactor = compacted != null
+                ? new JournalCompactor(queue, compacted, policy.getKeep())
+                : null;
+    }
+
+    public JournalJanitor start(ScheduledExecutorService executor) {
+        final long interval = policy.getSweepInterval().toMillis();
+        task = executor.scheduleWithFixedDelay(() -> Try.run(this::sweep)
+                        .onFailure(ex -> log.warn("Journal sweep failed", ex)),
+                interval, interval, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private Option<Integer> cycleOf(SingleChronicleQueue journal, File file) {
+        final String name = file.getName();
+        final String stem = name.substring(0, name.length() - SingleChronicleQueue.SUFFIX.length());
+        final RollCycle rollCycle = journal.rollCycle();
+
+        return Try.of(() -> LocalDateTime.parse(stem, cycleFormat).toInstant(ZoneOffset.UTC).toEpochMilli())
+                .map(epochMs -> (int) (epochMs / rollCycle.length()))
+                .toOption();
+    }
+
+    /**
+     * Runs one retention pass over the journal and, with compaction enabled, over the compacted journal.
+     *
+     * @return Number of cycle files deleted from either
+     */
+    public synchronized int sweep() {
+        final int deleted = retain(queue, compactor != null);
+        return compacted != null ? deleted + retain(compacted, false) : deleted;
+    }
+
+    private int retain(SingleChronicleQueue journal, boolean compact) {
+        final File[] listing = journal.file().listFiles((dir, name) -> name.endsWith(SingleChronicleQueue.SUFFIX));
+        if (listing == null)
+            return 0;
+
+        final int current = journal.cycle();
+        final Array<Tuple2<Integer, File>> closed = Array.of(listing)
+                .flatMap(file -> cycleOf(journal, file).map(cycle -> Tuple.of(cycle, file)))
+                .filter(pair -> pair._1 < current)
+                .sortBy(pair -> pair._1);
+
+        if (compact && closed.nonEmpty())
+            compactor.compactUntil(current);
+
+        long total = Array.of(listing).map(File::length).sum().longValue();
+        final long maxBytes = policy.getMaxBytes();
+        final long maxAgeMs = policy.getMaxAge().toMillis();
+        final long cutoff = journal.time().currentTimeMillis() - maxAgeMs;
+        final long cycleLength = journal.rollCycle().length();
+
+        int deleted = 0;
+        for (Tuple2<Integer, File> pair : closed) {
+            final boolean expired = maxAgeMs > 0 && (pair._1 + 1L) * cycleLength < cutoff;
+            final boolean oversize = maxBytes > 0 && total > maxBytes;
+            if (!expired && !oversize)
+                break;
+
+            final long size = pair._2.length();
+            if (!pair._2.delete()) {
+                log.warn("Unable to delete journal cycle {}", pair._2);
+                break;
+            }
+
+            total -= size;
+            ++deleted;
+            log.info("Deleted journal cycle {} ({} bytes, expired={}, oversize={})", pair._2.getName(), size, expired, oversize);
+        }
+
+        if (deleted > 0)
+            journal.refreshDirectlyListing();
+
+        return deleted;
+    }
+
+    @Override
+    public void close() {
+        if (task != null)
+            task.cancel(false);
+
+        if (compacted != null)
+            compacted.close();
+    }
+}
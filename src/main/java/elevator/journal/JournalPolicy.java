@@ -0,0 +1,87 @@
+package elevator.journal;
+
+import com.typesafe.config.Config;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.queue.RollCycles;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Roll cycle, retention and compaction settings shared by every process that opens the journal.
+ *
+ * A max age or max size of zero disables that limit.
+ */
+public class JournalPolicy {
+    private final RollCycle rollCycle;
+    private final Duration maxAge;
+    private final long maxBytes;
+    private final Duration sweepInterval;
+    private final boolean compaction;
+    private final EventFilter keep;
+    private final String compactedDir;
+
+    public JournalPolicy(RollCycle rollCycle, Duration maxAge, long maxBytes, Duration sweepInterval,
+                         boolean compaction, EventFilter keep, String compactedDir) {
+        this.rollCycle = rollCycle;
+        this.maxAge = maxAge;
+        this.maxBytes = maxBytes;
+        this.sweepInterval = sweepInterval;
+        this.compaction = compaction;
+        this.keep = keep;
+        this.compactedDir = compactedDir;
+    }
+
+    public static JournalPolicy fromConfig(String dir, Config conf) {
+        final List<String> kinds = conf.getStringList("compaction.keep");
+        EventFilter keep = header -> false;
+        for (String kind : kinds)
+            keep = keep.or(EventFilter.kinds(EventKind.valueOf(kind)));
+
+        return new JournalPolicy(
+                RollCycles.valueOf(conf.getString("roll-cycle")),
+                conf.getDuration("retention.max-age"),
+                conf.getBytes("retention.max-size"),
+                conf.getDuration("retention.sweep-interval"),
+                conf.getBoolean("compaction.enabled"),
+                keep,
+                conf.hasPath("compaction.dir") ? conf.getString("compaction.dir") : dir + "-compacted");
+    }
+
+    /**
+     * Opens the journal with this policy's roll cycle.
+     */
+    public SingleChronicleQueue open(String dir) {
+        return ChronicleQueue.singleBuilder(dir).rollCycle(rollCycle).build();
+    }
+
+    public RollCycle getRollCycle() {
+        return rollCycle;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public boolean isCompaction() {
+        return compaction;
+    }
+
+    public EventFilter getKeep() {
+        return keep;
+    }
+
+    public String getCompactedDir() {
+        return compactedDir;
+    }
+}
@@ -0,0 +1,142 @@
+package elevator.journal;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.threads.Pauser;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A named, independent consumer of the event journal.
+ *
+ * The tailer reads straight from the memory-mapped queue so memory use does not depend on how far
+ * it lags behind the writer. Its read position is persisted under its name, so a restarted consumer
+ * resumes where it left off without affecting other consumers.
+ */
+public class JournalTailer {
+    private static final Logger log = LoggerFactory.getLogger(JournalTailer.class);
+    private static final EventBus receiveOnly = new ReceiveOnlyBus();
+
+    private final String name;
+    private final ExcerptTailer tailer;
+    private final EventFilter filter;
+    private final Sink sink;
+
+    private long delivered = 0;
+    private long skipped = 0;
+    private long refused = 0;
+
+    /**
+     * Receives the events read by a tailer and may refuse them.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * @return False to leave the event unread, so the next read offers it again
+         */
+        boolean offer(Event event);
+    }
+
+    public JournalTailer(ChronicleQueue queue, String name, EventFilter filter, EventReactor reactor) {
+        this(queue, name, filter, event -> {
+            reactor.syncEvent(receiveOnly, event);
+            return true;
+        });
+    }
+
+    public JournalTailer(ChronicleQueue queue, String name, EventFilter filter, Sink sink) {
+        this.name = name;
+        this.tailer = queue.createTailer(name);
+        this.filter = filter;
+        this.sink = sink;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return Number of times the sink refused an event
+     */
+    public long getRefused() {
+        return refused;
+    }
+
+    /**
+     * Reads the next excerpt and dispatches it to the reactor if it passes the filter.
+     *
+     * @return False when there is nothing left to read, or the sink refused the event
+     */
+    public boolean readOne() {
+        try (DocumentContext dc = tailer.readingDocument()) {
+            if (!dc.isPresent())
+                return false;
+
+            if (dc.isMetaData())
+                return true;
+
+            final Wire wire = dc.wire();
+            if (!filter.test(JournalCodec.readHeader(wire))) {
+                ++skipped;
+                return true;
+            }
+
+            final Event event = JournalCodec.readEvent(wire);
+            if (event != null) {
+                if (!sink.offer(event)) {
+                    dc.rollbackOnClose();
+                    ++refused;
+                    return false;
+                }
+                ++delivered;
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Tails the journal in the current thread until the shutdown flag is released.
+     */
+    public void run(AtomicBoolean shutdownFlag) {
+        Pauser pauser = Pauser.millis(0, 100);
+        while (!shutdownFlag.get()) {
+            if (readOne())
+                pauser.reset();
+            else
+                pauser.pause();
+        }
+
+        log.info("Tailer {} stopping after {} delivered, {} skipped and {} refused events", name, delivered, skipped, refused);
+    }
+
+    // Streaming is receive-only. Events fired in reaction will not be sent to the simulation process.
+    private static class ReceiveOnlyBus implements EventBus {
+        @Override
+        public void attachTopic(EnumSet<EventTopic> topics, EventReactor reactor) {
+            throw new UnsupportedOperationException("Journal tailers do not support subscriptions");
+        }
+
+        @Override
+        public void fireTopic(EventTopic topic, Event event) {
+            log.debug("Dropping {} fired on {} by journal consumer", event, topic);
+        }
+    }
+}
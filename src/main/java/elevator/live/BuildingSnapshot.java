@@ -0,0 +1,85 @@
+package elevator.live;
+
+import elevator.model.Building;
+import elevator.model.Elevator;
+import elevator.model.Trajectory;
+
+import java.util.Arrays;
+
+/**
+ * Point-in-time view of the building as shown to live viewers: the position and direction of each elevator and
+ * the number of passengers waiting on each floor.
+ *
+ * Snapshots are mutable so the broadcaster can keep two of them and capture into the older one every frame.
+ */
+public class BuildingSnapshot {
+    long clock;
+    final int[] elevatorFloors;
+    final byte[] directions;
+    final int[] waiting;
+
+    public BuildingSnapshot(int numElevators, int numFloors) {
+        elevatorFloors = new int[numElevators];
+        directions = new byte[numElevators];
+        waiting = new int[numFloors];
+    }
+
+    /**
+     * Reads the current state from another thread than the bus workers. Elevators are read through their
+     * immutable trajectories and floors only take their passenger lock briefly to count.
+     */
+    public BuildingSnapshot capture(Building building, long clock) {
+        this.clock = clock;
+        for (int i = 0; i < elevatorFloors.length; i++) {
+            final Elevator elevator = building.getElevator(i);
+            final Trajectory trajectory = elevator.getTrajectory();
+            elevatorFloors[i] = trajectory.getCurrentFloor();
+            directions[i] = (byte) Integer.signum(trajectory.nextFloor() - trajectory.getCurrentFloor());
+        }
+
+        for (int i = 0; i < waiting.length; i++)
+            waiting[i] = building.getFloor(i).getPassengerCount();
+
+        return this;
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    public int getNumElevators() {
+        return elevatorFloors.length;
+    }
+
+    public int getNumFloors() {
+        return waiting.length;
+    }
+
+    public int getElevatorFloor(int elevator) {
+        return elevatorFloors[elevator];
+    }
+
+    public int getDirection(int elevator) {
+        return directions[elevator];
+    }
+
+    public int getWaiting(int floor) {
+        return waiting[floor];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BuildingSnapshot that = (BuildingSnapshot) o;
+        return clock == that.clock &&
+                Arrays.equals(elevatorFloors, that.elevatorFloors) &&
+                Arrays.equals(directions, that.directions) &&
+                Arrays.equals(waiting, that.waiting);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(clock) + Arrays.hashCode(elevatorFloors)) + Arrays.hashCode(waiting);
+    }
+}
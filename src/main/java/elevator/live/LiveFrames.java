@@ -0,0 +1,159 @@
+package elevator.live;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary frames of the live state stream.
+ *
+ * All integers are unsigned LEB128 varints except directions, which are a signed byte (-1, 0 or 1).
+ *
+ * <pre>
+ * keyframe: KEYFRAME clock numElevators numFloors (floor direction)* (waiting)*
+ * delta:    DELTA clock numChanged (gap floor direction)* numChanged (gap waiting)*
+ * </pre>
+ *
+ * In a delta, {@code gap} is the distance from the previously changed index (or from -1 for the first), so runs of
+ * nearby changes take one byte per index. A delta with no changes is three bytes plus the clock.
+ */
+public class LiveFrames {
+    public static final byte KEYFRAME = 0;
+    public static final byte DELTA = 1;
+
+    private static final int MAX_VARINT = 10;
+
+    private LiveFrames() {
+    }
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return result;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    public static ByteBuffer keyframe(BuildingSnapshot state) {
+        final int numElevators = state.getNumElevators();
+        final int numFloors = state.getNumFloors();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + MAX_VARINT * 3 + numElevators * (MAX_VARINT + 1) + numFloors * MAX_VARINT);
+
+        buffer.put(KEYFRAME);
+        putVarint(buffer, state.clock);
+        putVarint(buffer, numElevators);
+        putVarint(buffer, numFloors);
+        for (int i = 0; i < numElevators; i++) {
+            putVarint(buffer, state.elevatorFloors[i]);
+            buffer.put(state.directions[i]);
+        }
+        for (int i = 0; i < numFloors; i++)
+            putVarint(buffer, state.waiting[i]);
+
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes the changes from one snapshot to the next of the same building.
+     */
+    public static ByteBuffer delta(BuildingSnapshot previous, BuildingSnapshot next) {
+        int changedElevators = 0;
+        for (int i = 0; i < next.elevatorFloors.length; i++) {
+            if (next.elevatorFloors[i] != previous.elevatorFloors[i] || next.directions[i] != previous.directions[i])
+                changedElevators++;
+        }
+
+        int changedFloors = 0;
+        for (int i = 0; i < next.waiting.length; i++) {
+            if (next.waiting[i] != previous.waiting[i])
+                changedFloors++;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + MAX_VARINT * 3 +
+                changedElevators * (2 * MAX_VARINT + 1) + changedFloors * 2 * MAX_VARINT);
+        buffer.put(DELTA);
+        putVarint(buffer, next.clock);
+
+        putVarint(buffer, changedElevators);
+        int last = -1;
+        for (int i = 0; i < next.elevatorFloors.length; i++) {
+            if (next.elevatorFloors[i] != previous.elevatorFloors[i] || next.directions[i] != previous.directions[i]) {
+                putVarint(buffer, i - last);
+                putVarint(buffer, next.elevatorFloors[i]);
+                buffer.put(next.directions[i]);
+                last = i;
+            }
+        }
+
+        putVarint(buffer, changedFloors);
+        last = -1;
+        for (int i = 0; i < next.waiting.length; i++) {
+            if (next.waiting[i] != previous.waiting[i]) {
+                putVarint(buffer, i - last);
+                putVarint(buffer, next.waiting[i]);
+                last = i;
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Applies a frame to a snapshot, which is how clients are expected to maintain their view.
+     *
+     * @return The snapshot passed in or a new one when a keyframe changes the dimensions of the building
+     */
+    public static BuildingSnapshot apply(ByteBuffer frame, BuildingSnapshot state) {
+        try {
+            final byte kind = frame.get();
+            final long clock = getVarint(frame);
+
+            if (kind == KEYFRAME) {
+                final int numElevators = (int) getVarint(frame);
+                final int numFloors = (int) getVarint(frame);
+                if (state == null || state.getNumElevators() != numElevators || state.getNumFloors() != numFloors)
+                    state = new BuildingSnapshot(numElevators, numFloors);
+
+                for (int i = 0; i < numElevators; i++) {
+                    state.elevatorFloors[i] = (int) getVarint(frame);
+                    state.directions[i] = frame.get();
+                }
+                for (int i = 0; i < numFloors; i++)
+                    state.waiting[i] = (int) getVarint(frame);
+            } else if (kind == DELTA) {
+                if (state == null)
+                    throw new IllegalStateException("Delta frame received before a keyframe");
+
+                int index = -1;
+                for (long n = getVarint(frame); n > 0; n--) {
+                    index += (int) getVarint(frame);
+                    state.elevatorFloors[index] = (int) getVarint(frame);
+                    state.directions[index] = frame.get();
+                }
+
+                index = -1;
+                for (long n = getVarint(frame); n > 0; n--) {
+                    index += (int) getVarint(frame);
+                    state.waiting[index] = (int) getVarint(frame);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown frame kind " + kind);
+            }
+
+            state.clock = clock;
+            return state;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        }
+    }
+}
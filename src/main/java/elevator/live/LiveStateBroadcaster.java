@@ -0,0 +1,150 @@
+package elevator.live;
+
+import elevator.model.Building;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Pushes the building state to live viewers from a thread of its own.
+ *
+ * Each period the broadcaster captures a {@link BuildingSnapshot} and encodes one delta against the previous
+ * snapshot, which is shared by all viewers that are caught up. A viewer whose previous frame has not been written
+ * yet is skipped rather than queued, and once it catches up it gets a keyframe of the latest state instead of the
+ * deltas it missed. So slow viewers see fewer frames, never stale ones, and memory per viewer stays constant.
+ *
+ * Nothing is attached to the event bus, so the number of viewers does not affect the bus workers.
+ */
+public class LiveStateBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(LiveStateBroadcaster.class);
+
+    /**
+     * Connection to one viewer.
+     */
+    public interface Sink {
+        /**
+         * Starts sending a frame without blocking.
+         *
+         * @return Completes once the frame has been written
+         */
+        Future<?> send(ByteBuffer frame);
+    }
+
+    private static class Viewer {
+        final Sink sink;
+        Future<?> inFlight = null;
+        boolean needsKeyframe = true;
+
+        Viewer(Sink sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final Building building;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Viewer> viewers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "live-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BuildingSnapshot previous;
+    private BuildingSnapshot current;
+    private long framesSent = 0;
+    private long framesSkipped = 0;
+
+    public LiveStateBroadcaster(Building building, LongSupplier clock) {
+        this.building = building;
+        this.clock = clock;
+        this.previous = new BuildingSnapshot(building.getNumElevators(), building.getNumFloors());
+        this.current = new BuildingSnapshot(building.getNumElevators(), building.getNumFloors());
+        previous.capture(building, clock.getAsLong());
+    }
+
+    public void connect(String id, Sink sink) {
+        viewers.put(id, new Viewer(sink));
+        log.info("Live viewer {} connected ({} total)", id, viewers.size());
+    }
+
+    public void disconnect(String id) {
+        if (viewers.remove(id) != null)
+            log.info("Live viewer {} disconnected ({} total)", id, viewers.size());
+    }
+
+    public int getNumViewers() {
+        return viewers.size();
+    }
+
+    public LiveStateBroadcaster start(long periodMillis) {
+        executor.scheduleAtFixedRate(() -> Try.run(this::broadcast)
+                        .onFailure(ex -> log.warn("Live broadcast failed", ex)),
+                periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Captures the state and sends a frame to every viewer that is ready for one. Not thread-safe, only the
+     * broadcaster thread calls it once started.
+     */
+    void broadcast() {
+        current.capture(building, clock.getAsLong());
+
+        ByteBuffer delta = null;
+        ByteBuffer keyframe = null;
+        for (Map.Entry<String, Viewer> entry : viewers.entrySet()) {
+            final Viewer viewer = entry.getValue();
+            if (viewer.inFlight != null && !viewer.inFlight.isDone()) {
+                viewer.needsKeyframe = true;
+                framesSkipped++;
+                continue;
+            }
+
+            final ByteBuffer frame;
+            if (viewer.needsKeyframe) {
+                if (keyframe == null)
+                    keyframe = LiveFrames.keyframe(current);
+                frame = keyframe;
+                viewer.needsKeyframe = false;
+            } else {
+                if (delta == null)
+                    delta = LiveFrames.delta(previous, current);
+                frame = delta;
+            }
+
+            // Each send gets its own position and limit over the shared bytes
+            try {
+                viewer.inFlight = viewer.sink.send(frame.asReadOnlyBuffer());
+                framesSent++;
+            } catch (RuntimeException e) {
+                log.info("Dropping live viewer {}: {}", entry.getKey(), e.toString());
+                viewers.remove(entry.getKey());
+            }
+        }
+
+        final BuildingSnapshot swap = previous;
+        previous = current;
+        current = swap;
+    }
+
+    long getFramesSent() {
+        return framesSent;
+    }
+
+    long getFramesSkipped() {
+        return framesSkipped;
+    }
+}
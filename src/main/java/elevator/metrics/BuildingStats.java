@@ -0,0 +1,98 @@
+package elevator.metrics;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live building occupancy maintained incrementally from passenger and elevator events.
+ *
+ * Readings cost O(1) regardless of building size. Events on different topics may be processed
+ * out of order, so a snapshot can be momentarily off by the handful of events in flight.
+ *
+ * An elevator counts as idle from the start and after each {@code ElevatorIdle} until it accepts
+ * another request.
+ */
+public class BuildingStats implements EventReactor {
+    public static final EnumSet<EventTopic> TOPICS = EnumSet.of(EventTopic.PASSENGER, EventTopic.ELEVATOR);
+
+    private static final int IDLE = 0;
+    private static final int BUSY = 1;
+
+    private final LongAdder waiting = new LongAdder();
+    private final LongAdder inTransit = new LongAdder();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder idle = new LongAdder();
+    private final AtomicIntegerArray elevatorState;
+
+    public BuildingStats(int numElevators) {
+        this.elevatorState = new AtomicIntegerArray(numElevators);
+        idle.add(numElevators);
+    }
+
+    // Lock-free, no need for the coarse reactor lock
+    @Override
+    public void syncEvent(EventBus bus, Event event) {
+        onEvent(bus, event);
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.PassengerWaiting) {
+            waiting.increment();
+        } else if (event instanceof Event.LoadPassenger) {
+            waiting.decrement();
+            inTransit.increment();
+        } else if (event instanceof Event.DropPassenger) {
+            inTransit.decrement();
+            served.increment();
+        } else if (event instanceof Event.MissedConnection) {
+            // Passenger leaves the floor queue and is rescheduled
+            waiting.decrement();
+            missed.increment();
+        } else if (event instanceof Event.RequestAccepted) {
+            transition(((Event.RequestAccepted) event).getRequest().getElevator(), IDLE, BUSY);
+        } else if (event instanceof Event.ElevatorIdle) {
+            transition(((Event.ElevatorIdle) event).getElevator(), BUSY, IDLE);
+        }
+    }
+
+    private void transition(int elevator, int from, int to) {
+        if (elevatorState.compareAndSet(elevator, from, to)) {
+            if (to == IDLE)
+                idle.increment();
+            else
+                idle.decrement();
+        }
+    }
+
+    public long getWaiting() {
+        return waiting.sum();
+    }
+
+    public long getInTransit() {
+        return inTransit.sum();
+    }
+
+    public long getServed() {
+        return served.sum();
+    }
+
+    public long getMissed() {
+        return missed.sum();
+    }
+
+    public long getIdleElevators() {
+        return idle.sum();
+    }
+
+    public int getNumElevators() {
+        return elevatorState.length();
+    }
+}
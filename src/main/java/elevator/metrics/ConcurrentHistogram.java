@@ -0,0 +1,42 @@
+package elevator.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counterpart of {@link Histogram} for values recorded from many threads.
+ *
+ * Uses the same buckets, so a {@link #snapshot()} can be queried for percentiles like any other histogram.
+ * A snapshot taken while values are being recorded may be off by the records in flight.
+ */
+public class ConcurrentHistogram {
+    private final AtomicLongArray counts = new AtomicLongArray(Histogram.NUM_BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        counts.incrementAndGet(Histogram.bucketOf(value));
+        totalCount.increment();
+        sum.add(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value))
+            current = max.get();
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public Histogram snapshot() {
+        final long[] copy = new long[Histogram.NUM_BUCKETS];
+        for (int i = 0; i < copy.length; i++)
+            copy[i] = counts.get(i);
+
+        Histogram result = new Histogram();
+        result.load(copy, totalCount.sum(), sum.sum(), max.get());
+        return result;
+    }
+}
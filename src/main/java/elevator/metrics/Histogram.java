@@ -0,0 +1,129 @@
+package elevator.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram in the spirit of HdrHistogram.
+ *
+ * Values below 64 are counted exactly. Larger values fall into one of 32 linear sub-buckets per
+ * power of two, giving a relative error of at most ~3%. All storage is allocated up front, so
+ * recording never allocates.
+ *
+ * Not thread-safe. Callers are expected to confine each instance to one writer.
+ */
+public class Histogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+    static final int NUM_BUCKETS = LINEAR_LIMIT + (62 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[NUM_BUCKETS];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT)
+            return (int) Math.max(value, 0);
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int mantissa = (int) (value >>> shift);
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+
+    /**
+     * @return The largest value that falls into the bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < LINEAR_LIMIT)
+            return bucket;
+
+        final int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        final long mantissa = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public void record(long value) {
+        ++counts[bucketOf(value)];
+        ++totalCount;
+        sum += value;
+        if (value > max)
+            max = value;
+    }
+
+    public void add(Histogram other) {
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            counts[i] += other.counts[i];
+
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes the contents of a histogram previously added to this one.
+     *
+     * The maximum cannot be un-merged so it is recomputed from the remaining buckets.
+     */
+    public void subtract(Histogram other) {
+        int highest = -1;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] -= other.counts[i];
+            if (counts[i] > 0)
+                highest = i;
+        }
+
+        totalCount -= other.totalCount;
+        sum -= other.sum;
+        max = highest < 0 ? 0 : Math.min(max, highestValueOf(highest));
+    }
+
+    /**
+     * Replaces the contents with raw bucket counts, e.g. copied from a {@link ConcurrentHistogram}.
+     */
+    void load(long[] counts, long totalCount, long sum, long max) {
+        System.arraycopy(counts, 0, this.counts, 0, NUM_BUCKETS);
+        this.totalCount = totalCount;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    /**
+     * @param percentile In the range [0, 100]
+     * @return Upper bound of the bucket containing the requested percentile or 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target)
+                return Math.min(highestValueOf(i), max);
+        }
+
+        return max;
+    }
+}
@@ -0,0 +1,185 @@
+package elevator.metrics;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.model.Passenger;
+import elevator.util.LongLongMap;
+
+import java.util.Locale;
+
+/**
+ * Incrementally aggregates passenger and elevator KPIs over a sliding window of clock ticks.
+ *
+ * Works the same whether it is attached to the simulation bus or fed from the journal by a tailer.
+ * All state is preallocated; handling an event does not allocate outside of occasional growth of the
+ * in-flight passenger tables.
+ *
+ * Tracked over the window:
+ * <ul>
+ *     <li>wait time: ticks from the first schedule request to boarding</li>
+ *     <li>ride time: ticks from boarding to drop off</li>
+ *     <li>rejection rate: rejected over accepted plus rejected assignments</li>
+ *     <li>missed connections</li>
+ *     <li>per-elevator utilization: fraction of ticks spent with an accepted task</li>
+ * </ul>
+ */
+public class MetricsReactor implements EventReactor {
+    private static final int ACCEPTED = 0;
+    private static final int REJECTED = 1;
+    private static final int MISSED = 2;
+    private static final int REQUESTED = 3;
+    private static final int SERVED = 4;
+    private static final int NUM_COUNTERS = 5;
+
+    private final int numElevators;
+    private final SlidingWindow waits;
+    private final SlidingWindow rides;
+    private final SlidingWindow busy;   // one counter per elevator
+
+    private final LongLongMap waitingSince = new LongLongMap(1024);
+    private final LongLongMap ridingSince = new LongLongMap(1024);
+    private final boolean[] elevatorBusy;
+
+    private long clock = 0;
+    private long firstTick = -1;
+
+    public MetricsReactor(int numElevators, int windowTicks, int numSlots) {
+        this.numElevators = numElevators;
+        this.waits = new SlidingWindow(windowTicks, numSlots, NUM_COUNTERS);
+        this.rides = new SlidingWindow(windowTicks, numSlots, 0);
+        this.busy = new SlidingWindow(windowTicks, numSlots, numElevators);
+        this.elevatorBusy = new boolean[numElevators];
+    }
+
+    private static long key(Passenger passenger) {
+        return passenger.getId();
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.ClockTick) {
+            handleClockTick(((Event.ClockTick) event).getValue());
+        } else if (event instanceof Event.ScheduleRequest) {
+            // Retries keep the original request time
+            if (waitingSince.putIfAbsent(key(((Event.ScheduleRequest) event).getPassenger()), clock))
+                waits.increment(REQUESTED);
+        } else if (event instanceof Event.LoadPassenger) {
+            final long key = key(((Event.LoadPassenger) event).getPassenger());
+            final long since = waitingSince.remove(key, clock);
+            waits.record(clock - since);
+            ridingSince.put(key, clock);
+        } else if (event instanceof Event.DropPassenger) {
+            final long since = ridingSince.remove(key(((Event.DropPassenger) event).getPassenger()), clock);
+            rides.record(clock - since);
+            waits.increment(SERVED);
+        } else if (event instanceof Event.RequestAccepted) {
+            waits.increment(ACCEPTED);
+            setBusy(((Event.RequestAccepted) event).getRequest().getElevator(), true);
+        } else if (event instanceof Event.RequestRejected) {
+            waits.increment(REJECTED);
+        } else if (event instanceof Event.MissedConnection) {
+            waits.increment(MISSED);
+        } else if (event instanceof Event.ElevatorIdle) {
+            setBusy(((Event.ElevatorIdle) event).getElevator(), false);
+        }
+    }
+
+    private void setBusy(int elevator, boolean value) {
+        if (elevator >= 0 && elevator < numElevators)
+            elevatorBusy[elevator] = value;
+    }
+
+    private void handleClockTick(long now) {
+        if (now <= clock)
+            return;
+
+        if (firstTick < 0)
+            firstTick = now;
+
+        // Attribute the elapsed ticks to the slot they belong to before rotating
+        final long elapsed = now - clock;
+        for (int i = 0; i < numElevators; i++) {
+            if (elevatorBusy[i])
+                busy.add(i, elapsed);
+        }
+
+        clock = now;
+        waits.advance(now);
+        rides.advance(now);
+        busy.advance(now);
+    }
+
+    public synchronized long getClock() {
+        return clock;
+    }
+
+    public synchronized long getServed() {
+        return waits.getCount(SERVED);
+    }
+
+    public synchronized long getRejected() {
+        return waits.getCount(REJECTED);
+    }
+
+    public synchronized long getMissedConnections() {
+        return waits.getCount(MISSED);
+    }
+
+    public synchronized double getRejectionRate() {
+        final long decided = waits.getCount(ACCEPTED) + waits.getCount(REJECTED);
+        return decided == 0 ? 0.0 : (double) waits.getCount(REJECTED) / decided;
+    }
+
+    public synchronized double getMeanWait() {
+        return waits.getHistogram().getMean();
+    }
+
+    public synchronized long getWaitPercentile(double percentile) {
+        return waits.getHistogram().getValueAtPercentile(percentile);
+    }
+
+    public synchronized double getMeanRide() {
+        return rides.getHistogram().getMean();
+    }
+
+    public synchronized double getUtilization(int elevator) {
+        final long span = Math.min(busy.getWindowTicks(), firstTick < 0 ? 0 : clock - firstTick);
+        return span <= 0 ? 0.0 : Math.min(1.0, (double) busy.getCount(elevator) / span);
+    }
+
+    /**
+     * Renders the current window as a JSON object.
+     */
+    public synchronized String toJson() {
+        final Histogram w = waits.getHistogram();
+        final Histogram r = rides.getHistogram();
+
+        StringBuilder sb = new StringBuilder(256 + numElevators * 8);
+        sb.append("{\"clock\":").append(clock)
+                .append(",\"windowTicks\":").append(waits.getWindowTicks())
+                .append(",\"requested\":").append(waits.getCount(REQUESTED))
+                .append(",\"served\":").append(waits.getCount(SERVED))
+                .append(",\"accepted\":").append(waits.getCount(ACCEPTED))
+                .append(",\"rejected\":").append(waits.getCount(REJECTED))
+                .append(",\"rejectionRate\":").append(String.format(Locale.ROOT, "%.4f", getRejectionRate()))
+                .append(",\"missedConnections\":").append(waits.getCount(MISSED))
+                .append(",\"wait\":{\"mean\":").append(String.format(Locale.ROOT, "%.2f", w.getMean()))
+                .append(",\"p50\":").append(w.getValueAtPercentile(50))
+                .append(",\"p99\":").append(w.getValueAtPercentile(99))
+                .append(",\"max\":").append(w.getMax())
+                .append("},\"ride\":{\"mean\":").append(String.format(Locale.ROOT, "%.2f", r.getMean()))
+                .append(",\"p50\":").append(r.getValueAtPercentile(50))
+                .append(",\"p99\":").append(r.getValueAtPercentile(99))
+                .append(",\"max\":").append(r.getMax())
+                .append("},\"utilization\":[");
+
+        for (int i = 0; i < numElevators; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(String.format(Locale.ROOT, "%.3f", getUtilization(i)));
+        }
+
+        return sb.append("]}").toString();
+    }
+}
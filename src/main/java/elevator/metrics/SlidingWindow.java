@@ -0,0 +1,86 @@
+package elevator.metrics;
+
+/**
+ * Ring of time slots covering the most recent window of clock ticks.
+ *
+ * Each slot holds a histogram and a set of counters for the ticks it covers. A running aggregate
+ * is kept alongside so that reading the window is independent of the number of slots. When the
+ * clock moves past a slot it is subtracted from the aggregate and reused.
+ */
+public class SlidingWindow {
+    private final int slotTicks;
+    private final int numCounters;
+    private final Histogram[] slots;
+    private final long[] counters;  // slot-major: [slot * numCounters + counter]
+    private final Histogram aggregate = new Histogram();
+    private final long[] totals;
+
+    private long currentSlot = 0;
+
+    public SlidingWindow(int windowTicks, int numSlots, int numCounters) {
+        if (numSlots <= 0 || windowTicks < numSlots)
+            throw new IllegalArgumentException("Window must cover at least one tick per slot");
+
+        this.slotTicks = windowTicks / numSlots;
+        this.numCounters = numCounters;
+        this.slots = new Histogram[numSlots];
+        for (int i = 0; i < numSlots; i++)
+            slots[i] = new Histogram();
+
+        this.counters = new long[numSlots * numCounters];
+        this.totals = new long[numCounters];
+    }
+
+    public long getWindowTicks() {
+        return (long) slotTicks * slots.length;
+    }
+
+    /**
+     * Expires slots that have fallen out of the window as of the given clock tick.
+     */
+    public void advance(long clock) {
+        final long slot = clock / slotTicks;
+        if (slot <= currentSlot)
+            return;
+
+        // No need to expire more than a full revolution
+        final long from = Math.max(currentSlot + 1, slot - slots.length + 1);
+        for (long s = from; s <= slot; s++)
+            expire((int) (s % slots.length));
+
+        currentSlot = slot;
+    }
+
+    private void expire(int index) {
+        aggregate.subtract(slots[index]);
+        slots[index].reset();
+
+        final int base = index * numCounters;
+        for (int c = 0; c < numCounters; c++) {
+            totals[c] -= counters[base + c];
+            counters[base + c] = 0;
+        }
+    }
+
+    public void record(long value) {
+        slots[(int) (currentSlot % slots.length)].record(value);
+        aggregate.record(value);
+    }
+
+    public void increment(int counter) {
+        add(counter, 1);
+    }
+
+    public void add(int counter, long delta) {
+        counters[(int) (currentSlot % slots.length) * numCounters + counter] += delta;
+        totals[counter] += delta;
+    }
+
+    public long getCount(int counter) {
+        return totals[counter];
+    }
+
+    public Histogram getHistogram() {
+        return aggregate;
+    }
+}
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.EnumSet;
+import java.util.concurrent.ForkJoinPool;
 
 import static java.util.stream.IntStream.range;
 
@@ -64,6 +65,7 @@ public class Building implements Cloneable {
         private EventReactor rejectionHandler = new RejectionReactor();
         private EventReactor reschedReactor = new ReschedulingReactor();
         private List<EventReactor> reactors = List.empty();
+        private ForkJoinPool tickPhasePool;
 
         public Builder setElevatorFactory(ElevatorFactory factory) {
             this.elevatorFactory = factory;
@@ -96,6 +98,20 @@ public class Building implements Cloneable {
             return this;
         }
 
+        /**
+         * Step all elevators on each clock tick with a {@link TickPhaseEngine} instead of individual dispatches.
+         *
+         * @param pool Fork-join pool to partition the elevators across
+         */
+        public Builder tickPhase(ForkJoinPool pool) {
+            this.tickPhasePool = pool;
+            return this;
+        }
+
+        public Builder tickPhase() {
+            return tickPhase(ForkJoinPool.commonPool());
+        }
+
         public Building build() {
             if (this.numFloors <= 0)
                 throw new IllegalStateException("Floors not set");
@@ -132,12 +148,20 @@ public class Building implements Cloneable {
                     bus.attachTopic(EnumSet.of(EventTopic.DEFAULT, EventTopic.ELEVATOR), clone.floors[i]);
                 });
 
+                // Clock ticks are the only DEFAULT events elevators care about
+                final EnumSet<EventTopic> elevatorTopics = tickPhasePool == null
+                        ? EnumSet.allOf(EventTopic.class)
+                        : EnumSet.complementOf(EnumSet.of(EventTopic.DEFAULT));
+
                 clone.elevators = new Elevator[numElevators];
                 range(0, numElevators).forEach(i -> {
                     clone.elevators[i] = elevatorFactory.create(i);
-                    bus.attach(clone.elevators[i]);
+                    bus.attachTopic(elevatorTopics, clone.elevators[i]);
                 });
 
+                if (tickPhasePool != null)
+                    bus.attachTopic(EnumSet.of(EventTopic.DEFAULT), new TickPhaseEngine(clone.elevators, tickPhasePool));
+
                 clone.scheduler.setElevators(clone.elevators);
 
 
@@ -4,30 +4,27 @@ import elevator.event.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class Elevator implements EventReactor {
     private static final Logger log = LoggerFactory.getLogger(Elevator.class);
+
+    // Outcome flags of advancing the trajectory to a new tick
+    static final int ARRIVED = 1;
+    static final int IDLED = 2;
+
     private final int id;
 
     private final AtomicReference<Trajectory> trajectory = new AtomicReference<>();
-    private final ArrayList<Set<Passenger>> floors; // mutable - needs to be synchronized
+    private final PassengerSlots passengers; // slot is the destination floor; mutable - needs to be synchronized
+    private int peakLoad = 0; // guarded by passengers
 
     public Elevator(int id, int numFloors, Trajectory trajectory) {
         this.id = id;
-        this.floors = new ArrayList<>(numFloors);
-
-        IntStream.range(0, numFloors).forEach(i-> {
-            floors.add(i, new HashSet<>());
-        });
-
+        this.passengers = new PassengerSlots(numFloors);
         this.trajectory.set(trajectory);
     }
 
@@ -65,8 +62,38 @@ public class Elevator implements EventReactor {
         return trajectory.get();
     }
 
-    public synchronized Set<Passenger> getPassengers() {
-        return floors.stream().flatMap(Collection::stream).collect(Collectors.toSet());
+    public Set<Passenger> getPassengers() {
+        synchronized (passengers) {
+            return passengers.toSet();
+        }
+    }
+
+    public int getPassengerCount() {
+        synchronized (passengers) {
+            return passengers.size();
+        }
+    }
+
+    public int getCapacity() {
+        return getTrajectory().getCapacity();
+    }
+
+    /**
+     * @return Most passengers that were aboard at once
+     */
+    public int getPeakLoad() {
+        synchronized (passengers) {
+            return peakLoad;
+        }
+    }
+
+    /**
+     * @return Passengers that can board at the floor once those getting off there did
+     */
+    int getRoom(int floor) {
+        synchronized (passengers) {
+            return Math.max(0, getCapacity() - (passengers.size() - passengers.count(floor)));
+        }
     }
 
     @Override
@@ -100,7 +127,7 @@ public class Elevator implements EventReactor {
 
         final int floor = event.getFloor();
         if (floor == getCurrentFloor())
-            bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorArrived(this.id, getCurrentFloor(), getTrajectory().getCurrentTime()));
+            bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorArrived(this.id, floor, getTrajectory().getCurrentTime(), getRoom(floor)));
 
     }
 
@@ -130,7 +157,7 @@ public class Elevator implements EventReactor {
             if (trajectory.compareAndSet(oldTraj, newTraj)) {
                 log.debug("elevator={} at floor {} accepting request for {} to {}. ", id, getCurrentFloor(), orig, dest);
                 log.debug("Trajectory={} changed from {} to {}", getId(), oldTraj, newTraj);
-                bus.fireTopic(EventTopic.ELEVATOR, new Event.RequestAccepted(event));
+                bus.fireTopic(EventTopic.ELEVATOR, new Event.RequestAccepted(event, newTraj.getPickupTrip()));
                 Thread.yield();
 
                 return;
@@ -143,34 +170,53 @@ public class Elevator implements EventReactor {
 
     private void handleClockTick(EventBus bus, Event.ClockTick event) {
         final long now = event.getValue();
+        fireTickEvents(bus, advanceTo(now), now);
+    }
 
+    /**
+     * Moves the trajectory up to the given tick without firing any events.
+     *
+     * @return Combination of the ARRIVED and IDLED flags describing what happened
+     */
+    int advanceTo(long now) {
         while (true) {
             Trajectory oldTraj = getTrajectory();
             if (oldTraj.getCurrentTime()>= now) {
-                log.warn("Spurious clock tick {}", event);
-                return;
+                log.warn("Spurious clock tick {}", now);
+                return 0;
             }
 
-            Trajectory newTraj = getTrajectory().step();
+            // Discrete-event simulators may skip ticks in which nothing happens
+            Trajectory newTraj = oldTraj.advance(now - oldTraj.getCurrentTime());
 
             assert(newTraj.getCurrentTime() == now);
             if (trajectory.compareAndSet(oldTraj, newTraj)) {
-                if (getTrajectory().shouldStop())
-                    bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorArrived(this.id, getCurrentFloor(), now));
+                int outcome = 0;
+                if (newTraj.shouldStop())
+                    outcome |= ARRIVED;
 
-                if (oldTraj.isMoving() && getTrajectory().isIdle()) {
-                    bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorIdle(this.id, getCurrentFloor()));
+                if (oldTraj.isMoving() && newTraj.isIdle())
+                    outcome |= IDLED;
 
-                    final Set<Passenger> passengers = getPassengers();
-                    if (passengers.size() > 0)
-                        log.warn("elevator={} idling with stranded passengers {}", id, passengers);
-                }
-
-                return;
+                return outcome;
             }
         }
     }
 
+    void fireTickEvents(EventBus bus, int outcome, long now) {
+        if ((outcome & ARRIVED) != 0) {
+            final int floor = getCurrentFloor();
+            bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorArrived(this.id, floor, now, getRoom(floor)));
+        }
+
+        if ((outcome & IDLED) != 0) {
+            bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorIdle(this.id, getCurrentFloor()));
+
+            if (getPassengerCount() > 0)
+                log.warn("elevator={} idling with stranded passengers {}", id, getPassengers());
+        }
+    }
+
     private void handleElevatorArrived(EventBus bus, Event.ElevatorArrived event) {
         final int elevatorId = event.getElevator();
         final int floor = event.getFloor();
@@ -181,17 +227,15 @@ public class Elevator implements EventReactor {
     }
 
     private void unloadPassengers(EventBus bus, int floor) {
-        synchronized (floors) {
-            assert (floor < floors.size());
-            Set<Passenger> toDrop = floors.get(floor);
-            if (toDrop.size() <= 0)
+        synchronized (passengers) {
+            final List<Passenger> toDrop = passengers.drain(floor);
+            if (toDrop.isEmpty())
                 return;
 
             toDrop.forEach(passenger -> {
                 bus.fireTopic(EventTopic.PASSENGER, new Event.DropPassenger(floor, this.getId(), passenger));
             });
-            toDrop.clear();
-            log.debug("Unloading elevator={} at floor {} with {} remaining", id, floor, getPassengers().size());
+            log.debug("Unloading elevator={} at floor {} with {} remaining", id, floor, passengers.size());
         }
     }
 
@@ -199,13 +243,19 @@ public class Elevator implements EventReactor {
         if (this.id != event.getElevator())
             return;
 
-        synchronized(floors) {
+        synchronized(passengers) {
             Passenger passenger = event.getPassenger();
             int dest = passenger.getDestination();
 
-            assert (dest < floors.size());
-            floors.get(dest).add(passenger);
-            log.debug("Loaded passenger {} total is {}", passenger, getPassengers().size());
+            passengers.add(dest, passenger);
+            log.debug("Loaded passenger {} total is {}", passenger, passengers.size());
+
+            // Floors board no more than getRoom. Riders for this floor may not have been unloaded yet when the
+            // reactors for the arrival run in parallel, so they do not count either
+            final int aboard = passengers.size() - passengers.count(event.getFloor());
+            peakLoad = Math.max(peakLoad, aboard);
+            if (aboard > getCapacity())
+                log.warn("elevator={} at floor={} is over capacity with {} passengers", getId(), event.getFloor(), aboard);
             if (!getTrajectory().getTurnpoints().contains(dest))
                 log.warn("elevator={} at floor={} is not planning to stop at floor {}... {}!", getId(), getCurrentFloor(), dest, getTrajectory().getTurnpoints());
         }
@@ -2,6 +2,7 @@ package elevator.model;
 
 public class ElevatorFactory {
     private int numFloors;
+    private int capacity = Integer.MAX_VALUE;
 
     public ElevatorFactory(int numFloors) {
         this.numFloors = numFloors;
@@ -11,7 +12,19 @@ public class ElevatorFactory {
         return numFloors;
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity Most passengers aboard one elevator at once, or 0 for no limit
+     */
+    public ElevatorFactory setCapacity(int capacity) {
+        this.capacity = capacity > 0 ? capacity : Integer.MAX_VALUE;
+        return this;
+    }
+
     public Elevator create(int id) {
-        return new Elevator(id, numFloors, Trajectory.create(0,0));
+        return new Elevator(id, numFloors, Trajectory.create(0,0).withCapacity(capacity));
     }
 }
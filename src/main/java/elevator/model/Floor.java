@@ -4,22 +4,27 @@ import elevator.event.Event;
 import elevator.event.EventBus;
 import elevator.event.EventReactor;
 import elevator.event.EventTopic;
+import elevator.util.LongLongMap;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 public class Floor implements EventReactor {
     private final int id;
-    private final ArrayList<Set<Passenger>> elevators;
+    private final PassengerSlots passengers; // slot is the assigned elevator
+    private final LongLongMap pickups = new LongLongMap(4); // passenger id to the arrival planned for boarding; guarded by passengers
+    private final long[] arrivals; // arrivals of each elevator so far; guarded by passengers
+    private final long[] arrivedAt; // clock of the last arrival of each elevator; guarded by passengers
+    private final int[] seats; // seats left at the last arrival of each elevator; guarded by passengers
     private AtomicLong clock = new AtomicLong(0);
 
     public Floor(int id, int numElevators) {
         this.id = id;
-        this.elevators = new ArrayList<>(numElevators);
-        for (int i = 0; i < numElevators; i++) {
-            elevators.add(i, new HashSet<>());
-        }
+        this.passengers = new PassengerSlots(numElevators);
+        this.arrivals = new long[numElevators];
+        this.arrivedAt = new long[numElevators];
+        Arrays.fill(arrivedAt, -1);
+        this.seats = new int[numElevators];
     }
 
     @Override
@@ -45,7 +50,15 @@ public class Floor implements EventReactor {
     }
 
     public Set<Passenger> getPassengers() {
-        return elevators.stream().flatMap(Collection::stream).collect(Collectors.toSet());
+        synchronized (passengers) {
+            return passengers.toSet();
+        }
+    }
+
+    public int getPassengerCount() {
+        synchronized (passengers) {
+            return passengers.size();
+        }
     }
 
     @Override
@@ -64,7 +77,7 @@ public class Floor implements EventReactor {
     }
 
     private void handleRequestAccepted(EventBus bus, Event.RequestAccepted event) {
-        handleRequestAssignment(bus, event.getRequest());
+        handleRequestAssignment(bus, event.getRequest(), event.getTrip());
     }
 
     private void handleElevatorArrived(EventBus bus, Event.ElevatorArrived event) {
@@ -75,32 +88,56 @@ public class Floor implements EventReactor {
 
 
         int elevatorId = event.getElevator();
-        synchronized (elevators) {
-            Set<Passenger> toLoad = elevators.get(elevatorId);
+        synchronized (passengers) {
+            // Passengers assigned during a stop repeat its arrival, which is still the same trip. Its room may
+            // have been reported before the elevator saw the passengers boarded so far, so keep counting down
+            if (arrivedAt[elevatorId] != arrivalTime) {
+                arrivedAt[elevatorId] = arrivalTime;
+                arrivals[elevatorId]++;
+                seats[elevatorId] = event.getRoom();
+            } else {
+                seats[elevatorId] = Math.min(seats[elevatorId], event.getRoom());
+            }
 
-            if (arrivalTime < clock.get()) {
-                toLoad.forEach(passenger -> {
-                    bus.fireTopic(EventTopic.PASSENGER, new Event.MissedConnection(this.getId(), elevatorId, passenger));
-                });
+            final long arrival = arrivals[elevatorId];
+            final List<Passenger> toLoad = new ArrayList<>(passengers.count(elevatorId));
+            for (Passenger passenger : passengers.drain(elevatorId)) {
+                if (pickups.get(passenger.getId(), 0) <= arrival)
+                    toLoad.add(passenger);
+                else
+                    passengers.add(elevatorId, passenger); // planned for a later trip of this elevator
             }
-            else {
-                toLoad.forEach(passenger -> {
+
+            toLoad.sort(Comparator.<Passenger>comparingLong(passenger -> pickups.get(passenger.getId(), 0))
+                    .thenComparingLong(Passenger::getId));
+            toLoad.forEach(passenger -> pickups.remove(passenger.getId(), 0));
+
+            // Passengers due on a stale arrival, or that do not fit, are no longer covered by the plan. Only the floor
+            // decides, so every reactor sees either a boarding or a missed connection, never both
+            final boolean stale = arrivalTime < clock.get();
+            for (Passenger passenger : toLoad) {
+                if (!stale && seats[elevatorId] > 0) {
+                    seats[elevatorId]--;
                     bus.fireTopic(EventTopic.PASSENGER, new Event.LoadPassenger(this.getId(), elevatorId, passenger));
-                });
+                } else {
+                    bus.fireTopic(EventTopic.PASSENGER, new Event.MissedConnection(this.getId(), elevatorId, passenger));
+                }
             }
-            toLoad.clear();
         }
     }
 
-    private void handleRequestAssignment(EventBus bus, Event.AssignRequest event) {
+    /**
+     * @param trip Stops of the elevator at this floor before the one planned for the pickup, -1 for the stop it is on
+     */
+    private void handleRequestAssignment(EventBus bus, Event.AssignRequest event, int trip) {
         if (this.getId() != event.getFloor())
             return;
 
-        synchronized (elevators) {
+        synchronized (passengers) {
             int elevatorId = event.getElevator();
             Passenger passenger = event.getPassenger();
-            assert (elevatorId < elevators.size());
-            elevators.get(elevatorId).add(passenger);
+            passengers.add(elevatorId, passenger);
+            pickups.put(passenger.getId(), arrivals[elevatorId] + 1 + trip);
 
             bus.fireTopic(EventTopic.PASSENGER, new Event.PassengerWaiting(passenger, this.id, elevatorId));
         }
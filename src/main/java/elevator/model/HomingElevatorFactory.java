@@ -11,6 +11,6 @@ public class HomingElevatorFactory extends ElevatorFactory {
     @Override
     public Elevator create(int id) {
         assert(id < homeFloors.length);
-        return new Elevator(id, getNumFloors(),  Trajectory.createHoming(homeFloors[id], 0, homeFloors[id]));
+        return new Elevator(id, getNumFloors(),  Trajectory.createHoming(homeFloors[id], 0, homeFloors[id]).withCapacity(getCapacity()));
     }
 }
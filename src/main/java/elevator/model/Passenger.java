@@ -1,19 +1,32 @@
 package elevator.model;
 
-import java.util.Objects;
+import elevator.util.StripedSequence;
+
 import java.util.UUID;
 
 public class Passenger {
-    public final UUID uuid;
+    // Fixed upper half for UUIDs exposed through external APIs ("elevator" in ASCII)
+    private static final long UUID_NAMESPACE = 0x656c657661746f72L;
+    // Ids outlive the process in journals and cluster queues, so the upper bits tell processes apart and only the
+    // lower ones count within a process
+    static final int SEQUENCE_BITS = 32;
+    static final long PROCESS_PREFIX = processPrefix();
+    private static final StripedSequence ids = new StripedSequence((PROCESS_PREFIX << SEQUENCE_BITS) + 1);
+
+    private final long id;
     private final int destination;
 
     // TODO generate a random name for some personality
 
-    public Passenger(int origin, int destination) {
-        this.uuid = UUID.randomUUID();
+    private Passenger(long id, int destination) {
+        this.id = id;
         this.destination = destination;
     }
 
+    public Passenger(int origin, int destination) {
+        this(ids.next(), destination);
+    }
+
     public Passenger(int destination) {
         this(0, destination);
     }
@@ -22,17 +35,58 @@ public class Passenger {
         this(origin.getId(), destination.getId());
     }
 
+    /**
+     * Recreates a passenger with a known id, e.g. one received from another process.
+     */
+    public static Passenger withId(long id, int destination) {
+        return new Passenger(id, destination);
+    }
+
+    /**
+     * 31 bits mixed from the pid and the start time, so ids stay positive and differ between processes and runs.
+     */
+    private static long processPrefix() {
+        long h = ProcessHandle.current().pid() * 0x9e3779b97f4a7c15L ^ System.currentTimeMillis();
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        return (h ^ (h >>> 33)) & 0x7fffffffL;
+    }
+
+    /**
+     * Inverse of {@link #toUuid()}. The id is only as unique as the process prefix it carries, see {@link #toUuid()}.
+     */
+    public static long idOf(UUID uuid) {
+        if (uuid.getMostSignificantBits() != UUID_NAMESPACE)
+            throw new IllegalArgumentException("Not a passenger UUID: " + uuid);
+
+        return uuid.getLeastSignificantBits();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Stable UUID form of the id for external APIs. Reversible with {@link #idOf(UUID)}.
+     *
+     * Ids are unique within a process and, through a prefix drawn from the pid and start time, very likely across
+     * processes and restarts too. They are not coordinated though, so two processes may still collide, with odds
+     * that grow with the number of processes sharing a journal or queue.
+     */
+    public UUID toUuid() {
+        return new UUID(UUID_NAMESPACE, id);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Passenger passenger = (Passenger) o;
-        return uuid.equals(passenger.uuid);
+        return id == passenger.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(uuid);
+        return Long.hashCode(id);
     }
 
     public int getDestination() {
@@ -41,6 +95,6 @@ public class Passenger {
 
     @Override
     public String toString() {
-        return "Passenger " + uuid;
+        return "Passenger " + id;
     }
 }
@@ -0,0 +1,76 @@
+package elevator.model;
+
+import elevator.util.LongLongMap;
+import elevator.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Passengers held by a single floor or elevator, each tagged with a slot.
+ *
+ * For an elevator the slot is the destination floor, for a floor it is the assigned elevator.
+ * Storage is keyed by passenger id so it grows with the number of passengers present rather than
+ * with the number of slots. Per-slot counters let empty slots be skipped without a scan.
+ *
+ * Not thread-safe. Owners synchronize access.
+ */
+class PassengerSlots {
+    private final LongObjectMap<Passenger> passengers = new LongObjectMap<>(4);
+    private final LongLongMap slots = new LongLongMap(4);
+    private final int[] counts;
+
+    PassengerSlots(int numSlots) {
+        this.counts = new int[numSlots];
+    }
+
+    void add(int slot, Passenger passenger) {
+        final long id = passenger.getId();
+        final long previous = slots.get(id, -1);
+        if (previous >= 0)
+            counts[(int) previous]--;
+
+        passengers.put(id, passenger);
+        slots.put(id, slot);
+        counts[slot]++;
+    }
+
+    int size() {
+        return passengers.size();
+    }
+
+    int count(int slot) {
+        return counts[slot];
+    }
+
+    /**
+     * Removes and returns every passenger in the slot.
+     */
+    List<Passenger> drain(int slot) {
+        if (counts[slot] == 0)
+            return Collections.emptyList();
+
+        final List<Passenger> drained = new ArrayList<>(counts[slot]);
+        passengers.forEachValue(passenger -> {
+            if (slots.get(passenger.getId(), -1) == slot)
+                drained.add(passenger);
+        });
+
+        for (Passenger passenger : drained) {
+            passengers.remove(passenger.getId());
+            slots.remove(passenger.getId(), -1);
+        }
+
+        counts[slot] = 0;
+        return drained;
+    }
+
+    Set<Passenger> toSet() {
+        final Set<Passenger> result = new HashSet<>(passengers.size() * 2);
+        passengers.forEachValue(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package elevator.model;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances every elevator on a clock tick in one data-parallel pass.
+ *
+ * Instead of each elevator reacting to the tick through its own bus dispatch, the elevator array is split
+ * across a fork-join pool and all trajectories are stepped in place. Resulting arrivals and idle transitions
+ * are then fired in elevator order once the whole pass has finished.
+ *
+ * Elevators driven by this engine must not also receive clock ticks from the bus.
+ */
+public class TickPhaseEngine implements EventReactor {
+    private static final int LEAF_SIZE = 16;
+
+    private final Elevator[] elevators;
+    private final int[] outcomes;
+    private final ForkJoinPool pool;
+
+    public TickPhaseEngine(Elevator[] elevators, ForkJoinPool pool) {
+        this.elevators = elevators;
+        this.outcomes = new int[elevators.length];
+        this.pool = pool;
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.ClockTick) {
+            final long now = ((Event.ClockTick) event).getValue();
+
+            pool.invoke(new Phase(now, 0, elevators.length));
+
+            for (int i = 0; i < elevators.length; i++) {
+                if (outcomes[i] != 0)
+                    elevators[i].fireTickEvents(bus, outcomes[i], now);
+            }
+        }
+    }
+
+    private class Phase extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long now;
+        private final int from;
+        private final int to;
+
+        Phase(long now, int from, int to) {
+            this.now = now;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++)
+                    outcomes[i] = elevators[i].advanceTo(now);
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new Phase(now, from, mid), new Phase(now, mid, to));
+            }
+        }
+    }
+}
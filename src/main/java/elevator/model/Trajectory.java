@@ -1,15 +1,18 @@
 package elevator.model;
 
 import elevator.util.Splice;
+import io.vavr.collection.Iterator;
 import io.vavr.collection.Queue;
 import io.vavr.control.Option;
-import io.vavr.control.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 // TODO track home floor and move towards it when idle. Add query for time-to-home
 public class Trajectory implements Cloneable {
     private static final Logger log = LoggerFactory.getLogger(Trajectory.class);
+    private static final int[] NO_BOARDINGS = new int[0];
     private IdleBehavior idleBehavior;
     private long currentTime = 0;
     private int currentFloor = 0;
@@ -17,6 +20,13 @@ public class Trajectory implements Cloneable {
 
     private Queue<Integer> turnpoints = Queue.empty();
 
+    // Planned occupancy: passengers aboard now and net boardings at each turnpoint. Never mutated once shared
+    private int capacity = Integer.MAX_VALUE;
+    private int load = 0;
+    private int[] boardings = NO_BOARDINGS;
+    // Turnpoint where the passenger added by the last augment boards, -1 once turnpoints were completed
+    private int pickup = -1;
+
     protected Trajectory(IdleBehavior idleBehavior, long currentTime, int currentFloor) {
         this.idleBehavior = idleBehavior;
         this.currentTime = currentTime;
@@ -41,6 +51,7 @@ public class Trajectory implements Cloneable {
                 "t=" + currentTime +
                 ", floor=" + currentFloor +
                 ", turnpoints=" + turnpoints +
+                ", load=" + load +
                 '}';
     }
 
@@ -70,6 +81,71 @@ public class Trajectory implements Cloneable {
         return turnpoints.toJavaList();
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Passengers aboard according to the requests added to this trajectory
+     */
+    public int getLoad() {
+        return load;
+    }
+
+    /**
+     * Most passengers aboard at once over the rest of the trajectory.
+     */
+    public int getPeakLoad() {
+        return peakLoad(load, boardings);
+    }
+
+    private static int peakLoad(int load, int[] boardings) {
+        int peak = load;
+        for (int boarded : boardings) {
+            load += boarded;
+            peak = Math.max(peak, load);
+        }
+        return peak;
+    }
+
+    /**
+     * Trip on which the passenger added by the last {@link #augment(int, int)} boards, counted in stops at their floor.
+     *
+     * @return -1 when they board at the stop the elevator is on, 0 at its next stop on that floor and so on
+     */
+    public int getPickupTrip() {
+        if (pickup < 0)
+            return 0;
+
+        // Equal turnpoints in a row are a single stop, and a stop on the current floor has already been arrived at
+        final int floor = turnpoints.get(pickup);
+        int stops = 0;
+        int previous = currentFloor;
+        for (int point : turnpoints.take(pickup + 1)) {
+            if (point == floor && previous != floor)
+                stops++;
+            previous = point;
+        }
+        return stops - 1;
+    }
+
+    /**
+     * Limits the passengers aboard at once. Requests that would exceed it are not inserted into the current
+     * trajectory, but extended onto its end.
+     *
+     * @return A new trajectory with the given capacity
+     */
+    public Trajectory withCapacity(int capacity) {
+        try {
+            Trajectory result = (Trajectory) this.clone();
+            result.capacity = capacity;
+            return result;
+        } catch (CloneNotSupportedException e) {
+            log.warn("Please implement Cloneable on your Trajectory subclass", e);
+            return this;
+        }
+    }
+
     public boolean isBusy() {
         return timeLeftOnTask > 0;
     }
@@ -103,6 +179,21 @@ public class Trajectory implements Cloneable {
         return nextpoints;
     }
 
+    // Only on fresh clones: drops the turnpoints reached and boards or drops their passengers
+    private void completeTurnpoints() {
+        final Queue<Integer> nextpoints = removeCompleted();
+        final int completed = boardings.length - nextpoints.size();
+        if (completed == 0)
+            return;
+
+        for (int i = 0; i < completed; i++)
+            load += boardings[i];
+
+        turnpoints = nextpoints;
+        boardings = Arrays.copyOfRange(boardings, completed, boardings.length);
+        pickup = -1;
+    }
+
     /**
      * Advance the trajectory by one clock cycle and return the result without mutating the current instance.
      *
@@ -111,7 +202,7 @@ public class Trajectory implements Cloneable {
     public Trajectory step() {
         try {
             Trajectory result = (Trajectory) this.clone();
-            result.turnpoints = result.removeCompleted();
+            result.completeTurnpoints();
             result.currentFloor = result.nextFloor();
             result.currentTime++;
 
@@ -125,6 +216,64 @@ public class Trajectory implements Cloneable {
         }
     }
 
+    /**
+     * Advance the trajectory by several clock cycles at once.
+     *
+     * Equivalent to calling {@link #step()} {@code ticks} times, but only allocates a single successor.
+     *
+     * @param ticks Number of clock cycles to advance
+     * @return A new trajectory instance or [this] when ticks is 0
+     */
+    public Trajectory advance(long ticks) {
+        if (ticks <= 0)
+            return this;
+
+        try {
+            Trajectory result = (Trajectory) this.clone();
+            long remaining = ticks;
+
+            while (remaining > 0) {
+                result.completeTurnpoints();
+
+                final long moved;
+                if (result.turnpoints.nonEmpty()) {
+                    // Travel straight towards the next turnpoint, stopping on it if reached
+                    final int target = result.turnpoints.head();
+                    moved = Math.min(remaining, Math.abs(target - result.currentFloor));
+                    result.currentFloor += Integer.compare(target, result.currentFloor) * (int) moved;
+                } else {
+                    final int direction = result.getIdleBehavior().nextFloor(result);
+                    moved = direction == 0 ? remaining : 1;
+                    result.currentFloor += direction;
+                }
+
+                result.currentTime += moved;
+                result.timeLeftOnTask = Math.max(0, result.timeLeftOnTask - moved);
+                remaining -= moved;
+            }
+
+            return result;
+        } catch (CloneNotSupportedException e) {
+            log.warn("Please implement Cloneable on your Trajectory subclass", e);
+            return this;
+        }
+    }
+
+    /**
+     * Number of clock cycles until the elevator either stops at a turnpoint or becomes idle.
+     *
+     * No events are produced by the trajectory before then, so simulators may skip the ticks in between.
+     *
+     * @return Ticks until the next event or Long.MAX_VALUE when idle with nowhere to go
+     */
+    public long ticksUntilNextEvent() {
+        final long untilIdle = timeUntilIdle();
+        final Queue<Integer> nextPoints = removeCompleted();
+        final long untilStop = nextPoints.nonEmpty() ? Math.abs(nextPoints.head() - currentFloor) : Long.MAX_VALUE;
+
+        return Math.min(untilStop, untilIdle > 0 ? untilIdle : Long.MAX_VALUE);
+    }
+
     /**
      * Blindly appends new segment to current turnpoints.
      *
@@ -138,6 +287,10 @@ public class Trajectory implements Cloneable {
             int oldEndFloor = this.getEndFloor();
             long deltaT = Math.abs(start - oldEndFloor) + Math.abs(end - start);
             result.turnpoints = turnpoints.append(start).append(end);
+            result.boardings = Arrays.copyOf(boardings, boardings.length + 2);
+            result.boardings[boardings.length] = 1;
+            result.boardings[boardings.length + 1] = -1;
+            result.pickup = boardings.length;
             result.timeLeftOnTask += deltaT;
 
 //            assert(result.timeLeftOnTask == result.calculateTimeOnTask());
@@ -154,16 +307,27 @@ public class Trajectory implements Cloneable {
      *
      * @param start
      * @param end
-     * @return None if there is no overlap with current trajectory, otherwise a new trajectory.
+     * @return None if there is no overlap with current trajectory or the passenger would not fit, otherwise a new trajectory.
      */
     Option<Trajectory> insertSegment(int start, int end) {
         if (turnpoints.isEmpty())
             return Option.none();
 
-        Option<Queue<Integer>> spliced = Splice.splice(currentFloor, turnpoints, start, end);
-        return spliced.flatMap(newpoints -> Try.of(() -> {
+        final int[] stops = new int[2];
+        final Option<Queue<Integer>> spliced = Splice.splice(currentFloor, turnpoints, start, end, false, stops);
+        if (spliced.isEmpty())
+            return Option.none();
+
+        final Queue<Integer> newpoints = spliced.get();
+        final int[] newBoardings = spliceBoardings(newpoints, stops);
+        if (peakLoad(load, newBoardings) > capacity)
+            return Option.none();
+
+        try {
             Trajectory result = (Trajectory) this.clone();
             result.turnpoints = newpoints;
+            result.boardings = newBoardings;
+            result.pickup = stops[0];
 
             // Non-strict splice allows trajectory extension if there is an overlap with the end
             if (!newpoints.last().equals(turnpoints.last())) {
@@ -171,8 +335,36 @@ public class Trajectory implements Cloneable {
 //                assert(result.timeLeftOnTask == result.calculateTimeOnTask());
             }
 
-            return result;
-        }).toOption());
+            return Option.some(result);
+        } catch (CloneNotSupportedException e) {
+            log.warn("Please implement Cloneable on your Trajectory subclass", e);
+            return Option.none();
+        }
+    }
+
+    /**
+     * Carries the boardings over to the spliced turnpoints and adds the new passenger's.
+     *
+     * The old turnpoints are a subsequence of the new ones and splicing never inserts a floor next to an equal one,
+     * so a turnpoint differing from the next old one must have been inserted.
+     */
+    private int[] spliceBoardings(Queue<Integer> newpoints, int[] stops) {
+        final int[] result = new int[newpoints.size()];
+        final Iterator<Integer> old = turnpoints.iterator();
+        int i = 0;
+        int k = 0;
+        Integer next = old.next();
+        for (Integer point : newpoints) {
+            if (next != null && next.equals(point)) {
+                result[k] = boardings[i++];
+                next = old.hasNext() ? old.next() : null;
+            }
+            k++;
+        }
+
+        result[stops[0]]++;
+        result[stops[1]]--;
+        return result;
     }
 
     private long calculateTimeOnTask() {
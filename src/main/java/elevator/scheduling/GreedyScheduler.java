@@ -59,6 +59,13 @@ public class GreedyScheduler implements Scheduler {
                 .map(p -> Tuple.of(p._1.get(), p._2))
                 .minBy(p -> p._1.timeUntilIdle());  // Minimize by timeToHome
 
+        // Every elevator is on the start floor, e.g. at a sky lobby. Elevators still accept a plain augment
+        if (bestTrajectory.isEmpty())
+            bestTrajectory = oldTrajectories
+                    .map(t -> t.augment(start, dest))
+                    .zipWithIndex()
+                    .minBy(p -> p._1.timeUntilIdle());
+
         Integer assignee = bestTrajectory.get()._2;
         long timeLeftOnTask = bestTrajectory.get()._1.getTimeLeftOnTask();
         long endTime = bestTrajectory.get()._1.getEndTime();
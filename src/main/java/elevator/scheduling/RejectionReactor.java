@@ -35,9 +35,9 @@ public class RejectionReactor implements EventReactor {
 
         Event.AssignRequest request = ((Event.RequestRejected) event).getRequest();
 
-        executor.schedule(() -> {
-            bus.fireTopic(EventTopic.SCHEDULING, new Event.ScheduleRequest(request.getPassenger(), request.getFloor()));
-        }, ThreadLocalRandom.current().nextLong(jitter), TimeUnit.MILLISECONDS);
+        // Still pending while it waits, so a barrier does not start the next tick without the retry
+        bus.fireTopicLater(EventTopic.SCHEDULING, new Event.ScheduleRequest(request.getPassenger(), request.getFloor()),
+                executor, ThreadLocalRandom.current().nextLong(jitter), TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -0,0 +1,47 @@
+package elevator.scheduling;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Scheduler implementations by name, as used in the {@code scheduler} setting and to swap schedulers at runtime.
+ */
+public final class SchedulerRegistry {
+    private static final Map<String, Supplier<? extends Scheduler>> factories = new ConcurrentHashMap<>();
+
+    static {
+        register("greedy", GreedyScheduler::new);
+        register("rrfifo", RRFIFOScheduler::new);
+        register("round-robin", RRFIFOScheduler::new);
+    }
+
+    private SchedulerRegistry() {
+    }
+
+    public static void register(String name, Supplier<? extends Scheduler> factory) {
+        factories.put(name, factory);
+    }
+
+    /**
+     * @return A new scheduler, without elevators yet
+     * @throws IllegalArgumentException if no scheduler is registered under the name
+     */
+    public static Scheduler create(String name) {
+        final Supplier<? extends Scheduler> factory = factories.get(name);
+        if (factory == null)
+            throw new IllegalArgumentException("Unknown scheduler " + name + ". Use one of " + names());
+
+        return factory.get();
+    }
+
+    public static boolean contains(String name) {
+        return factories.containsKey(name);
+    }
+
+    public static Set<String> names() {
+        return new TreeSet<>(factories.keySet());
+    }
+}
@@ -0,0 +1,224 @@
+package elevator.scheduling;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.metrics.ConcurrentHistogram;
+import elevator.metrics.Histogram;
+import elevator.model.Elevator;
+import elevator.model.Trajectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Delegates to a scheduler that can be replaced while the simulation runs, optionally next to a shadow candidate.
+ *
+ * The building attaches this scheduler once. Swapping only changes which scheduler handles the next request: requests
+ * being scheduled finish with the old one, assignments already fired are applied by the elevators as usual and
+ * rejections come back as new requests, so nothing in flight is lost.
+ *
+ * A shadow scheduler receives the same events, but its assignments are recorded and dropped. For every request both
+ * the active and the shadow scheduler are timed, and the projected cost of their choice, the ticks the assignment adds
+ * to the chosen elevator's time until idle, is recorded per scheduler name, along with how often the shadow agrees.
+ */
+public class SwitchableScheduler implements Scheduler {
+    private static final Logger log = LoggerFactory.getLogger(SwitchableScheduler.class);
+
+    private volatile Candidate active;
+    private volatile Candidate shadow;
+    private volatile Elevator[] elevators;
+    private final Map<String, DecisionStats> stats = new ConcurrentSkipListMap<>();
+
+    private static class Candidate {
+        final String name;
+        final Scheduler scheduler;
+        final DecisionStats stats;
+
+        Candidate(String name, Scheduler scheduler, DecisionStats stats) {
+            this.name = name;
+            this.scheduler = scheduler;
+            this.stats = stats;
+        }
+    }
+
+    static class DecisionStats {
+        final ConcurrentHistogram latency = new ConcurrentHistogram();
+        final ConcurrentHistogram cost = new ConcurrentHistogram();
+        final LongAdder compared = new LongAdder();
+        final LongAdder agreed = new LongAdder();
+    }
+
+    public SwitchableScheduler(String name, Scheduler initial) {
+        this.active = candidate(name, initial);
+    }
+
+    /**
+     * Starts with a scheduler from the {@link SchedulerRegistry}.
+     */
+    public SwitchableScheduler(String name) {
+        this(name, SchedulerRegistry.create(name));
+    }
+
+    private Candidate candidate(String name, Scheduler scheduler) {
+        if (elevators != null)
+            scheduler.setElevators(elevators);
+
+        return new Candidate(name, scheduler, stats.computeIfAbsent(name, n -> new DecisionStats()));
+    }
+
+    @Override
+    public synchronized SwitchableScheduler setElevators(Elevator[] elevators) {
+        this.elevators = elevators;
+        active.scheduler.setElevators(elevators);
+        if (shadow != null)
+            shadow.scheduler.setElevators(elevators);
+        return this;
+    }
+
+    public synchronized void swap(String name, Scheduler next) {
+        final String previous = active.name;
+        active = candidate(name, next);
+        log.info("Swapped scheduler {} for {}", previous, name);
+    }
+
+    public void swap(String name) {
+        swap(name, SchedulerRegistry.create(name));
+    }
+
+    /**
+     * @param candidate Scheduler to evaluate on live requests, or null to stop shadowing
+     */
+    public synchronized void shadow(String name, Scheduler candidate) {
+        shadow = candidate == null ? null : candidate(name, candidate);
+        log.info("Shadow scheduler set to {}", candidate == null ? "none" : name);
+    }
+
+    public void shadow(String name) {
+        shadow(name, name == null ? null : SchedulerRegistry.create(name));
+    }
+
+    public String getActiveName() {
+        return active.name;
+    }
+
+    public Scheduler getActive() {
+        return active.scheduler;
+    }
+
+    /**
+     * @return Name of the shadow scheduler or null
+     */
+    public String getShadowName() {
+        final Candidate shadow = this.shadow;
+        return shadow == null ? null : shadow.name;
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        syncEvent(bus, event);
+    }
+
+    // Each delegate keeps its own locking
+    @Override
+    public void syncEvent(EventBus bus, Event event) {
+        final Candidate active = this.active;
+        final Candidate shadow = this.shadow;
+
+        if (!(event instanceof Event.ScheduleRequest)) {
+            active.scheduler.syncEvent(bus, event);
+            if (shadow != null)
+                shadow.scheduler.syncEvent(new Recorder(null), event);
+            return;
+        }
+
+        final Event.ScheduleRequest request = (Event.ScheduleRequest) event;
+        final Recorder chosen = decide(active, new Recorder(bus), request);
+        if (shadow == null)
+            return;
+
+        final Recorder proposed = decide(shadow, new Recorder(null), request);
+        if (chosen.assignment != null && proposed.assignment != null) {
+            shadow.stats.compared.increment();
+            if (chosen.assignment.getElevator() == proposed.assignment.getElevator())
+                shadow.stats.agreed.increment();
+        }
+    }
+
+    private Recorder decide(Candidate candidate, Recorder recorder, Event.ScheduleRequest request) {
+        final long start = System.nanoTime();
+        candidate.scheduler.syncEvent(recorder, request);
+        candidate.stats.latency.record(System.nanoTime() - start);
+
+        if (recorder.assignment != null)
+            candidate.stats.cost.record(cost(recorder.assignment, request.getDest()));
+        return recorder;
+    }
+
+    /**
+     * Ticks an assignment adds to the elevator's time until idle, against its trajectory before the assignment is applied.
+     */
+    private long cost(Event.AssignRequest assignment, int destination) {
+        final Trajectory trajectory = elevators[assignment.getElevator()].getTrajectory();
+        final long before = trajectory.timeUntilIdle();
+        return Math.max(0, trajectory.augment(assignment.getFloor(), destination).timeUntilIdle() - before);
+    }
+
+    /**
+     * Remembers the assignment a scheduler makes and forwards everything to the real bus, if any.
+     */
+    private static class Recorder implements EventBus {
+        private final EventBus target;
+        Event.AssignRequest assignment;
+
+        Recorder(EventBus target) {
+            this.target = target;
+        }
+
+        @Override
+        public void attachTopic(EnumSet<EventTopic> topics, EventReactor reactor) {
+            throw new UnsupportedOperationException("Schedulers do not subscribe while scheduling");
+        }
+
+        @Override
+        public void fireTopic(EventTopic topic, Event event) {
+            if (event instanceof Event.AssignRequest)
+                assignment = (Event.AssignRequest) event;
+
+            if (target != null)
+                target.fireTopic(topic, event);
+        }
+    }
+
+    public String toJson() {
+        final Candidate shadow = this.shadow;
+        final String schedulers = stats.entrySet().stream().map(entry -> {
+            final DecisionStats s = entry.getValue();
+            final Histogram latency = s.latency.snapshot();
+            final Histogram cost = s.cost.snapshot();
+            final long compared = s.compared.sum();
+            return String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"decisions\":%d,\"latencyMeanMicros\":%.1f,\"latencyP99Micros\":%.1f," +
+                            "\"meanCost\":%.2f,\"p99Cost\":%d,\"compared\":%d,\"agreement\":%.4f}",
+                    entry.getKey(), latency.getTotalCount(),
+                    latency.getMean() / TimeUnit.MICROSECONDS.toNanos(1),
+                    latency.getValueAtPercentile(99) / (double) TimeUnit.MICROSECONDS.toNanos(1),
+                    cost.getMean(), cost.getValueAtPercentile(99),
+                    compared, compared == 0 ? 0.0 : s.agreed.sum() / (double) compared);
+        }).collect(Collectors.joining(",", "[", "]"));
+
+        return String.format(Locale.ROOT, "{\"active\":\"%s\",\"shadow\":%s,\"available\":%s,\"schedulers\":%s}",
+                active.name,
+                shadow == null ? "null" : "\"" + shadow.name + "\"",
+                SchedulerRegistry.names().stream().map(n -> "\"" + n + "\"").collect(Collectors.joining(",", "[", "]")),
+                schedulers);
+    }
+}
@@ -0,0 +1,112 @@
+package elevator.simulation;
+
+import elevator.event.Event;
+import elevator.event.PartitionedEventBus;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the partitioned bus as fast as possible while keeping tick semantics.
+ *
+ * Each clock tick is fired only once every event caused by the previous tick has been dispatched on all
+ * topics, so reactors observe the same tick boundaries as in {@link OfflineSimulator}, while the topic
+ * workers still process each tick's events concurrently. As in {@link OfflineSimulator}, the bus only
+ * dispatches what a tick causes once every reactor has seen the tick.
+ */
+public class BarrierSimulator extends AbstractSimulator {
+    private static final Logger log = LoggerFactory.getLogger(BarrierSimulator.class);
+    private static final long STALL_WARNING_MS = 1000;
+
+    private final PartitionedEventBus partitionedBus;
+    private final AtomicBoolean shutdownFlag = new AtomicBoolean(false);
+    private long limit = Long.MAX_VALUE;
+    private volatile long ticks = 0;
+    private volatile long startNanos = 0;
+    private volatile long elapsedNanos = 0;
+
+    public BarrierSimulator(PartitionedEventBus bus) {
+        super(bus);
+        this.partitionedBus = bus;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Simulated clock ticks per second of wall-clock time so far.
+     */
+    public double getTicksPerSecond() {
+        final long nanos = elapsedNanos > 0 ? elapsedNanos : System.nanoTime() - startNanos;
+        return nanos > 0 ? ticks * 1e9 / nanos : 0;
+    }
+
+    public void shutdown() {
+        log.info("Shutdown signal sent");
+        shutdownFlag.set(true);
+    }
+
+    public void runTo(long limit) throws InterruptedException {
+        setLimit(limit);
+        start();
+    }
+
+    public CompletableFuture<Try<Void>> startAsync() {
+        return CompletableFuture.supplyAsync(() -> Try.run(this::start));
+    }
+
+    @Override
+    public void start() throws InterruptedException {
+        final AtomicBoolean workersDone = new AtomicBoolean(false);
+        final Thread workers = new Thread(() ->
+                Try.run(() -> partitionedBus.run(workersDone))
+                        .onFailure(ex -> {
+                            log.error("Event bus died. Shutting down", ex);
+                            shutdownFlag.set(true);
+                        }));
+        workers.setName("Barrier");
+        workers.start();
+
+        startNanos = System.nanoTime();
+        elapsedNanos = 0;
+        try {
+            getClockStream()
+                    .takeWhile(tick -> tick.getValue() <= limit && !shutdownFlag.get())
+                    .forEach(tick -> Try.run(() -> fireAndWait(tick)).onFailure(ex -> shutdownFlag.set(true)));
+        } finally {
+            elapsedNanos = System.nanoTime() - startNanos;
+            workersDone.set(true);
+            workers.join();
+        }
+
+        log.info("Simulated {} ticks in {} ms ({} ticks/s)",
+                ticks, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), String.format("%.1f", getTicksPerSecond()));
+    }
+
+    private void fireAndWait(Event.ClockTick tick) throws InterruptedException {
+        bus.fire(tick);
+
+        while (!partitionedBus.getPending().awaitQuiescence(STALL_WARNING_MS, TimeUnit.MILLISECONDS)) {
+            log.warn("Tick {} still has {} pending events", tick.getValue(), partitionedBus.getPending().get());
+            if (shutdownFlag.get())
+                return;
+        }
+
+        ticks++;
+        if (ticks % 10_000 == 0)
+            log.debug("Tick {}: {} ticks/s", tick.getValue(), String.format("%.1f", getTicksPerSecond()));
+    }
+}
@@ -4,23 +4,25 @@ import elevator.event.Event;
 import elevator.event.EventBus;
 import elevator.event.EventReactor;
 import elevator.event.EventTopic;
+import elevator.util.TimingWheel;
+import io.vavr.control.Option;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Defer events to fire at predetermined clock ticks.
  *
- * Can be used for offline simulations.
+ * Can be used for offline simulations. Events are kept in a {@link TimingWheel}, so scheduling is safe
+ * from any thread and events due on the same tick fire in the order they were scheduled.
  */
 public class DeferredEventQueue implements EventReactor {
     private static final Logger log = LoggerFactory.getLogger(DeferredEventQueue.class);
     private AtomicLong clock = new AtomicLong(0);
-    private PriorityQueue<DeferredEvent> events = new PriorityQueue<>(
-            Comparator.comparing(DeferredEvent::getTime)
-                    .thenComparing(DeferredEvent::getId));
+    private final TimingWheel<DeferredEvent> events = new TimingWheel<>(0);
 
     public long getClock() {
         return this.clock.get();
@@ -30,11 +32,19 @@ public class DeferredEventQueue implements EventReactor {
         scheduleAt(time, EventTopic.DEFAULT, event);
     }
 
+    /**
+     * @throws IllegalArgumentException if the time has already passed
+     */
     public void scheduleAt(long time, EventTopic topic, Event event) {
-        if (time < getClock())
-            throw new IllegalArgumentException("Cannot schedule an event in the past");
+        events.schedule(time, new DeferredEvent(time, topic, event));
+    }
 
-        events.add(new DeferredEvent(time, topic, event));
+    /**
+     * @return Time of the earliest deferred event, if any
+     */
+    public Option<Long> peekTime() {
+        final long next = events.nextDeadline();
+        return next == Long.MAX_VALUE ? Option.none() : Option.some(next);
     }
 
     public boolean isActive() {
@@ -47,31 +57,24 @@ public class DeferredEventQueue implements EventReactor {
             Event.ClockTick tick = (Event.ClockTick) event;
             clock.set(tick.getValue());
 
-            while (!events.isEmpty() && (events.peek().getTime() <= tick.getValue())) {
-                final DeferredEvent deferred = events.remove();
-                bus.fireTopic(deferred.getTopic(), deferred.getEvent());
-            }
+            // Fire outside of the wheel's lock since the bus may block or schedule more events
+            final List<DeferredEvent> due = new ArrayList<>();
+            events.advance(tick.getValue(), due::add);
+            due.forEach(deferred -> bus.fireTopic(deferred.getTopic(), deferred.getEvent()));
         }
     }
 
     protected static class DeferredEvent {
-        private static AtomicLong ctr = new AtomicLong(0);
-        private long id;
         private long time;
         private EventTopic topic;
         private Event event;
 
         DeferredEvent(long time, EventTopic topic, Event event) {
-            this.id = ctr.getAndIncrement();
             this.time = time;
             this.topic = topic;
             this.event = event;
         }
 
-        long getId() {
-            return id;
-        }
-
         long getTime() {
             return time;
         }
@@ -0,0 +1,99 @@
+package elevator.simulation;
+
+import elevator.event.Event;
+import elevator.event.SynchronizedEventBus;
+import elevator.model.Building;
+import elevator.model.Trajectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline simulation that only fires clock ticks at which something happens.
+ *
+ * The next tick is the earliest of the next deferred event and, for each elevator, the next stop
+ * or idle transition of its trajectory. Elevators advance their trajectories in bulk over the skipped
+ * ticks, so a long stretch of travel or a quiet period costs a single tick.
+ *
+ * Reactors that must observe every tick (e.g. sampling per tick) will see gaps in the clock.
+ */
+public class DiscreteEventSimulator extends AbstractSimulator {
+    private static final Logger log = LoggerFactory.getLogger(DiscreteEventSimulator.class);
+
+    private final Building building;
+    private final DeferredEventQueue queue;
+    private long clock = 1;
+    private long limit = 0;
+    private long ticksFired = 0;
+
+    public DiscreteEventSimulator(SynchronizedEventBus bus, Building building) {
+        super(bus);
+        this.building = building;
+        this.queue = building.getEventQueue();
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return Number of clock ticks actually fired so far
+     */
+    public long getTicksFired() {
+        return ticksFired;
+    }
+
+    public void runTo(long limit) {
+        setLimit(limit);
+        start();
+    }
+
+    /**
+     * Earliest tick after the current one at which an event will occur.
+     */
+    long nextEventTime() {
+        long next = queue != null ? queue.peekTime().map(t -> Math.max(t, clock + 1)).getOrElse(Long.MAX_VALUE) : Long.MAX_VALUE;
+
+        for (int i = 0; i < building.getNumElevators(); i++) {
+            final Trajectory trajectory = building.getElevator(i).getTrajectory();
+            final long ticks = trajectory.ticksUntilNextEvent();
+            if (ticks != Long.MAX_VALUE)
+                next = Math.min(next, clock + Math.max(ticks, 1));
+        }
+
+        return next;
+    }
+
+    @Override
+    void start() {
+        bus.processAll();
+
+        while (true) {
+            final long next = nextEventTime();
+            if (next > limit)
+                break;
+
+            fireTick(next);
+        }
+
+        // Bring everything up to the limit even if nothing happens at the end
+        if (clock < limit)
+            fireTick(limit);
+
+        log.debug("Simulated up to {} firing {} ticks", clock, ticksFired);
+    }
+
+    private void fireTick(long time) {
+        clock = time;
+        ticksFired++;
+        bus.fire(new Event.ClockTick(time));
+        bus.processAll();
+    }
+}
@@ -0,0 +1,140 @@
+package elevator.site;
+
+import com.typesafe.config.Config;
+import elevator.event.PartitionedEventBus;
+import elevator.metrics.BuildingStats;
+import elevator.metrics.MetricsReactor;
+import elevator.model.Building;
+import elevator.model.HomingElevatorFactory;
+import elevator.scheduling.Scheduler;
+import elevator.scheduling.SchedulerRegistry;
+import elevator.simulation.DeferredEventQueue;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One building of a multi-tenant simulator, with its own bus partitions, clock and statistics.
+ *
+ * Sites do not own any threads. A {@link SitePool} fires their clock ticks and processes their buses.
+ */
+public class Site {
+    private final String id;
+    private final Building building;
+    private final PartitionedEventBus bus;
+    private final BuildingStats stats;
+    private final MetricsReactor metrics;
+
+    // Maintained by the pool
+    final AtomicLong clock = new AtomicLong(1);
+    final AtomicLong due = new AtomicLong(0);
+    final AtomicBoolean claimed = new AtomicBoolean(false);
+    final AtomicLong processed = new AtomicLong();
+
+    /**
+     * @param metrics Optional sliding-window metrics, may be null
+     */
+    public Site(String id, Building building, PartitionedEventBus bus, BuildingStats stats, MetricsReactor metrics) {
+        this.id = id;
+        this.building = building;
+        this.bus = bus;
+        this.stats = stats;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Builds a homing building from a site configuration block, see {@code sites} in application.conf.
+     */
+    public static Site create(String id, Config conf) {
+        final int numFloors = conf.getInt("num-floors");
+        final int numElevators = conf.getInt("num-elevators");
+        final int[] homeFloors = new int[numElevators];
+        for (int i = 0; i < numElevators; i++)
+            homeFloors[i] = i * numFloors / numElevators;
+
+        final Scheduler scheduler = SchedulerRegistry.create(conf.getString("scheduler"));
+
+        // Pool workers handle the events they fire, so a blocking queue could wait on itself
+        final PartitionedEventBus bus = PartitionedEventBus.nonBlocking(conf.getInt("queue-depth"));
+        final Building building = Building.builder()
+                .floors(numFloors)
+                .elevators(numElevators)
+                .setElevatorFactory(new HomingElevatorFactory(numFloors, homeFloors)
+                        .setCapacity(conf.hasPath("capacity") ? conf.getInt("capacity") : 0))
+                .setEventBus(bus)
+                .eventQueue(new DeferredEventQueue())
+                .scheduler(scheduler)
+                .build();
+
+        final BuildingStats stats = new BuildingStats(numElevators);
+        bus.attachTopic(BuildingStats.TOPICS, stats);
+
+        MetricsReactor metrics = null;
+        if (conf.getBoolean("metrics.in-process")) {
+            metrics = new MetricsReactor(numElevators, conf.getInt("metrics.window-ticks"), conf.getInt("metrics.slots"));
+            bus.attach(metrics);
+        }
+
+        return new Site(id, building, bus, stats, metrics);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Building getBuilding() {
+        return building;
+    }
+
+    public PartitionedEventBus getBus() {
+        return bus;
+    }
+
+    public BuildingStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return Sliding-window metrics or null if the site was created without
+     */
+    public MetricsReactor getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The next clock tick the pool will fire
+     */
+    public long getClock() {
+        return clock.get();
+    }
+
+    /**
+     * @return Ticks that are due but have not been fired because the site is still busy with earlier ones
+     */
+    public long getLag() {
+        return Math.max(0, due.get() - clock.get() + 1);
+    }
+
+    boolean hasWork() {
+        return bus.getPending().get() > 0 || clock.get() <= due.get();
+    }
+
+    /**
+     * @return Most passengers aboard any one elevator at once
+     */
+    public int getPeakLoad() {
+        int peak = 0;
+        for (int i = 0; i < building.getNumElevators(); i++)
+            peak = Math.max(peak, building.getElevator(i).getPeakLoad());
+        return peak;
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"id\":\"%s\",\"floors\":%d,\"elevators\":%d,\"clock\":%d,\"health\":\"%s\",\"backlog\":%d," +
+                        "\"processed\":%d,\"lag\":%d,\"waiting\":%d,\"inTransit\":%d,\"served\":%d,\"peakLoad\":%d}",
+                id, building.getNumFloors(), building.getNumElevators(), clock.get(), bus.health(), bus.getBacklog(),
+                processed.get(), getLag(), stats.getWaiting(), stats.getInTransit(), stats.getServed(), getPeakLoad());
+    }
+}
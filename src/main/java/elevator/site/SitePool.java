@@ -0,0 +1,164 @@
+package elevator.site;
+
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import io.vavr.control.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs many sites on a fixed number of worker threads.
+ *
+ * Workers take turns over the sites round-robin. A worker claims a site exclusively, processes at most a
+ * quantum of events on each of its topics and moves on, so a flooded building gets at most one worker at a time
+ * and cannot hold up the others for longer than one quantum. Since a site is only processed by one worker at a
+ * time, each building sees its events in the same order as with a single worker per topic.
+ *
+ * A single timer thread only marks ticks as due. The worker that holds a site fires its next due tick once every
+ * event of the previous tick has been dispatched, as in {@link elevator.simulation.BarrierSimulator}, so the clock
+ * of a building never runs ahead of its own scheduling. An overloaded site falls behind on its clock while the
+ * others keep their rate.
+ */
+public class SitePool {
+    private static final Logger log = LoggerFactory.getLogger(SitePool.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    // Replaced on every change so workers can index into it without locking
+    private volatile Site[] sites = new Site[0];
+    private final int numWorkers;
+    private final int quantum;
+    private final long tickRate;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicBoolean shutdownFlag = new AtomicBoolean(false);
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "site-ticker"));
+    private final List<Thread> workers = new ArrayList<>();
+    private CountDownLatch stopped;
+
+    /**
+     * @param numWorkers Threads shared by all sites
+     * @param quantum    Most events processed per topic of a site in one turn
+     * @param tickRate   Milliseconds between clock ticks
+     */
+    public SitePool(int numWorkers, int quantum, long tickRate) {
+        this.numWorkers = numWorkers;
+        this.quantum = quantum;
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Sites can be added while the pool is running.
+     */
+    public synchronized SitePool add(Site site) {
+        if (get(site.getId()).isDefined())
+            throw new IllegalArgumentException("Duplicate site id " + site.getId());
+
+        final Site[] grown = Arrays.copyOf(sites, sites.length + 1);
+        grown[sites.length] = site;
+        sites = grown;
+        return this;
+    }
+
+    /**
+     * A worker may still be finishing a turn on the site when this returns.
+     */
+    public synchronized SitePool remove(Site site) {
+        sites = Arrays.stream(sites).filter(s -> s != site).toArray(Site[]::new);
+        return this;
+    }
+
+    public Option<Site> get(String id) {
+        for (Site site : sites) {
+            if (site.getId().equals(id))
+                return Option.of(site);
+        }
+        return Option.none();
+    }
+
+    public List<Site> getSites() {
+        return Arrays.asList(sites);
+    }
+
+    void tick() {
+        for (Site site : sites)
+            site.due.incrementAndGet();
+    }
+
+    /**
+     * Gives one turn to the next site that is not claimed by another worker.
+     *
+     * @return Number of events processed, zero if no site had work
+     */
+    int turn() {
+        final Site[] current = sites;
+        final int n = current.length;
+        for (int attempt = 0; attempt < n; attempt++) {
+            final Site site = current[Math.floorMod(cursor.getAndIncrement(), n)];
+            if (!site.hasWork() || !site.claimed.compareAndSet(false, true))
+                continue;
+
+            try {
+                if (site.getBus().getPending().get() == 0 && site.clock.get() <= site.due.get())
+                    site.getBus().fireTopic(EventTopic.DEFAULT, new Event.ClockTick(site.clock.getAndIncrement()));
+
+                final int processed = site.getBus().process(quantum);
+                site.processed.addAndGet(processed);
+                return processed;
+            } finally {
+                site.claimed.set(false);
+            }
+        }
+        return 0;
+    }
+
+    private void work() {
+        try {
+            while (!shutdownFlag.get()) {
+                if (turn() == 0)
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        } catch (RuntimeException e) {
+            log.error("Site worker died. Shutting down", e);
+            shutdownFlag.set(true);
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    public SitePool start() {
+        stopped = new CountDownLatch(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            Thread worker = new Thread(this::work, String.format("site-%02d", i));
+            worker.start();
+            workers.add(worker);
+        }
+
+        ticker.scheduleAtFixedRate(this::tick, tickRate, tickRate, TimeUnit.MILLISECONDS);
+        log.info("Running {} sites on {} workers", sites.length, numWorkers);
+        return this;
+    }
+
+    public void shutdown() {
+        shutdownFlag.set(true);
+        ticker.shutdown();
+    }
+
+    /**
+     * Blocks until every worker has exited, after {@link #shutdown()} or a worker failure.
+     */
+    public void await() throws InterruptedException {
+        stopped.await();
+        ticker.shutdown();
+    }
+}
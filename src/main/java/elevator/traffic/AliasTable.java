@@ -0,0 +1,71 @@
+package elevator.traffic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples from a discrete distribution in O(1) using Walker's alias method.
+ */
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        final int n = weights.length;
+        if (n == 0)
+            throw new IllegalArgumentException("No weights");
+
+        double total = 0;
+        for (double w : weights) {
+            if (w < 0)
+                throw new IllegalArgumentException("Negative weight");
+            total += w;
+        }
+        if (total <= 0)
+            throw new IllegalArgumentException("Weights sum to zero");
+
+        probability = new double[n];
+        alias = new int[n];
+
+        // Partition scaled weights into those below and above the mean, then pair them up
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1)
+                small[numSmall++] = i;
+            else
+                large[numLarge++] = i;
+        }
+
+        while (numSmall > 0 && numLarge > 0) {
+            final int less = small[--numSmall];
+            final int more = large[--numLarge];
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1)
+                small[numSmall++] = more;
+            else
+                large[numLarge++] = more;
+        }
+
+        // Leftovers are 1 up to rounding error
+        while (numLarge > 0)
+            probability[large[--numLarge]] = 1;
+        while (numSmall > 0)
+            probability[small[--numSmall]] = 1;
+    }
+
+    public int size() {
+        return probability.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        final int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,87 @@
+package elevator.traffic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Continuous-time arrival process measured in clock ticks.
+ */
+public interface ArrivalProcess {
+    /**
+     * @return Time of the next arrival after [now]
+     */
+    double nextArrival(double now, SplittableRandom random);
+
+    static double exponential(double rate, SplittableRandom random) {
+        return -Math.log(1.0 - random.nextDouble()) / rate;
+    }
+
+    /**
+     * Homogeneous Poisson arrivals.
+     *
+     * @param rate Mean arrivals per tick
+     */
+    static ArrivalProcess poisson(double rate) {
+        if (rate <= 0)
+            throw new IllegalArgumentException("Rate must be positive");
+
+        return (now, random) -> now + exponential(rate, random);
+    }
+
+    /**
+     * Markov-modulated Poisson arrivals that cycle through states, e.g. quiet periods and bursts.
+     *
+     * The process keeps its current state, so each consumer needs an instance of its own.
+     *
+     * @param rates Mean arrivals per tick in each state, at least one of them positive
+     * @param meanDurations Mean ticks spent in each state before moving to the next one
+     */
+    static ArrivalProcess markovModulated(double[] rates, double[] meanDurations) {
+        return new MarkovModulatedPoisson(rates, meanDurations);
+    }
+
+    class MarkovModulatedPoisson implements ArrivalProcess {
+        private final double[] rates;
+        private final double[] leaveRates;
+        private int state = 0;
+        private double stateEnd = Double.NaN;
+
+        MarkovModulatedPoisson(double[] rates, double[] meanDurations) {
+            if (rates.length == 0 || rates.length != meanDurations.length)
+                throw new IllegalArgumentException("Need a rate and a duration for each state");
+
+            boolean arrives = false;
+            for (int i = 0; i < rates.length; i++) {
+                if (!(rates[i] >= 0) || Double.isInfinite(rates[i]))
+                    throw new IllegalArgumentException("Rates must be finite and not negative");
+                if (!(meanDurations[i] > 0) || Double.isInfinite(meanDurations[i]))
+                    throw new IllegalArgumentException("Durations must be finite and positive");
+                arrives |= rates[i] > 0;
+            }
+            if (!arrives)
+                throw new IllegalArgumentException("At least one rate must be positive");
+
+            this.rates = rates.clone();
+            this.leaveRates = new double[meanDurations.length];
+            for (int i = 0; i < meanDurations.length; i++)
+                leaveRates[i] = 1.0 / meanDurations[i];
+        }
+
+        @Override
+        public double nextArrival(double now, SplittableRandom random) {
+            if (Double.isNaN(stateEnd))
+                stateEnd = now + exponential(leaveRates[state], random);
+
+            // Both clocks are memoryless, so the arrival clock can be resampled at each state change
+            double t = now;
+            while (true) {
+                final double candidate = rates[state] > 0 ? t + exponential(rates[state], random) : Double.POSITIVE_INFINITY;
+                if (candidate < stateEnd)
+                    return candidate;
+
+                t = stateEnd;
+                state = (state + 1) % rates.length;
+                stateEnd = t + exponential(leaveRates[state], random);
+            }
+        }
+    }
+}
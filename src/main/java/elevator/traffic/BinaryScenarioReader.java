@@ -0,0 +1,100 @@
+package elevator.traffic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads arrivals from a memory-mapped file of fixed 16 byte little-endian records:
+ * {@code | time:int64 | origin:int32 | destination:int32 |}.
+ *
+ * The file is mapped one window at a time, so traces larger than the address space of a single
+ * buffer can be replayed and only the pages around the cursor need to be resident.
+ */
+public class BinaryScenarioReader implements ScenarioReader {
+    public static final int RECORD_SIZE = 16;
+    private static final long WINDOW_SIZE = RECORD_SIZE * (4L << 20);  // 64MB
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+    private long time = Long.MIN_VALUE;
+    private int origin;
+    private int destination;
+
+    public BinaryScenarioReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = sizeOf(channel, path);
+    }
+
+    // Nobody gets to close the channel when the constructor fails, so close it here
+    private static long sizeOf(FileChannel channel, Path path) throws IOException {
+        try {
+            final long size = channel.size();
+            if (size % RECORD_SIZE != 0)
+                throw new IllegalStateException("Truncated scenario file " + path);
+            return size;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean next() {
+        if (window == null || !window.hasRemaining()) {
+            final long nextStart = window == null ? 0 : windowStart + window.capacity();
+            if (nextStart >= fileSize)
+                return false;
+
+            map(nextStart);
+        }
+
+        final long previous = time;
+        time = window.getLong();
+        origin = window.getInt();
+        destination = window.getInt();
+
+        if (time < previous)
+            throw new IllegalStateException("Scenario is not ordered by time at record " +
+                    ((windowStart + window.position()) / RECORD_SIZE - 1));
+
+        return true;
+    }
+
+    private void map(long start) {
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = start;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long time() {
+        return time;
+    }
+
+    @Override
+    public int origin() {
+        return origin;
+    }
+
+    @Override
+    public int destination() {
+        return destination;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,53 @@
+package elevator.traffic;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes arrivals in the format read by {@link BinaryScenarioReader}.
+ */
+public class BinaryScenarioWriter implements Closeable {
+    private final OutputStream out;
+    private final ByteBuffer record = ByteBuffer.allocate(BinaryScenarioReader.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long lastTime = Long.MIN_VALUE;
+
+    public BinaryScenarioWriter(Path path) throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16);
+    }
+
+    public void append(long time, int origin, int destination) throws IOException {
+        if (time < lastTime)
+            throw new IllegalArgumentException("Arrivals must be appended in time order");
+
+        lastTime = time;
+        record.clear();
+        record.putLong(time).putInt(origin).putInt(destination);
+        out.write(record.array());
+    }
+
+    /**
+     * Copies every remaining arrival of a scenario, e.g. to convert CSV to binary.
+     *
+     * @return Number of arrivals copied
+     */
+    public long appendAll(ScenarioReader reader) throws IOException {
+        long count = 0;
+        while (reader.next()) {
+            append(reader.time(), reader.origin(), reader.destination());
+            count++;
+        }
+
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,91 @@
+package elevator.traffic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams arrivals from a text file with one {@code time,origin,destination} record per line.
+ *
+ * Blank lines, lines starting with '#' and a non-numeric header line are skipped.
+ */
+public class CsvScenarioReader implements ScenarioReader {
+    private final BufferedReader reader;
+    private long lineNumber = 0;
+    private long time = Long.MIN_VALUE;
+    private int origin;
+    private int destination;
+
+    public CsvScenarioReader(Path path) throws IOException {
+        this(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    public CsvScenarioReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#')
+                    continue;
+
+                if (lineNumber == 1 && !Character.isDigit(line.charAt(0)))
+                    continue;   // header
+
+                parse(line);
+                return true;
+            }
+
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void parse(String line) {
+        final int first = line.indexOf(',');
+        final int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+        if (second < 0)
+            throw new IllegalStateException("Expected time,origin,destination on line " + lineNumber + ": " + line);
+
+        final long previous = time;
+        try {
+            time = Long.parseLong(line.substring(0, first).trim());
+            origin = Integer.parseInt(line.substring(first + 1, second).trim());
+            destination = Integer.parseInt(line.substring(second + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Malformed record on line " + lineNumber + ": " + line, e);
+        }
+
+        if (time < previous)
+            throw new IllegalStateException("Scenario is not ordered by time at line " + lineNumber);
+    }
+
+    @Override
+    public long time() {
+        return time;
+    }
+
+    @Override
+    public int origin() {
+        return origin;
+    }
+
+    @Override
+    public int destination() {
+        return destination;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
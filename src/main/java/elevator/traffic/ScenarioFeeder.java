@@ -0,0 +1,121 @@
+package elevator.traffic;
+
+import elevator.api.Trips;
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+import elevator.simulation.DeferredEventQueue;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumSet;
+
+/**
+ * Replays a traffic scenario by scheduling its arrivals on a {@link DeferredEventQueue}.
+ *
+ * Arrivals are read lazily: on each clock tick only those due within the lookahead window are scheduled,
+ * so heap usage is bounded by the arrival rate rather than the length of the trace. The next arrival beyond
+ * the window is always scheduled as well, so simulators that jump to the next queued event still see it.
+ *
+ * Scenario times are relative to the start time given at construction. Records with a floor outside the building,
+ * or that start and end on the same floor, are logged and skipped.
+ */
+public class ScenarioFeeder implements EventReactor {
+    private static final Logger log = LoggerFactory.getLogger(ScenarioFeeder.class);
+    public static final EnumSet<EventTopic> TOPICS = EnumSet.of(EventTopic.DEFAULT);
+
+    private final ScenarioReader reader;
+    private final DeferredEventQueue queue;
+    private final int numFloors;
+    private final long startTime;
+    private final long lookahead;
+
+    private boolean buffered = false;   // reader holds a record that has not been scheduled yet
+    private boolean exhausted = false;
+    private long read = 0;
+    private long scheduled = 0;
+    private long skipped = 0;
+    private long lastScheduled = Long.MIN_VALUE;
+
+    public ScenarioFeeder(ScenarioReader reader, DeferredEventQueue queue, int numFloors, long startTime,
+                          long lookahead) {
+        if (lookahead < 1)
+            throw new IllegalArgumentException("Lookahead must be at least one tick");
+
+        this.reader = reader;
+        this.queue = queue;
+        this.numFloors = numFloors;
+        this.startTime = startTime;
+        this.lookahead = lookahead;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.ClockTick) {
+            fill(((Event.ClockTick) event).getValue());
+        }
+    }
+
+    /**
+     * Schedules every arrival due up to {@code now + lookahead} plus the first one after it.
+     *
+     * Can be called before the simulation starts to prime the queue.
+     */
+    public void fill(long now) {
+        final long horizon = now + lookahead;
+        boolean beyondHorizon = false;
+
+        while (!exhausted && !beyondHorizon) {
+            if (!buffered) {
+                if (!reader.next()) {
+                    exhausted = true;
+                    log.info("Scenario exhausted after {} arrivals, {} skipped", scheduled, skipped);
+                    Try.run(reader::close).onFailure(ex -> log.warn("Failed to close scenario", ex));
+                    return;
+                }
+                buffered = true;
+                read++;
+            }
+
+            final int origin = reader.origin();
+            final int destination = reader.destination();
+            if (!Trips.isValid(numFloors, origin, destination, true)) {
+                log.warn("Skipping scenario record {}: trip from {} to {} in a building of {} floors",
+                        read - 1, origin, destination, numFloors);
+                buffered = false;
+                skipped++;
+                continue;
+            }
+
+            final long time = startTime + reader.time();
+            if (time > horizon) {
+                // Keep one arrival beyond the window in the queue, then stop reading
+                if (lastScheduled > horizon)
+                    return;
+                beyondHorizon = true;
+            }
+
+            // Arrivals that are already late fire on the next tick
+            queue.scheduleAt(Math.max(time, queue.getClock()), EventTopic.SCHEDULING,
+                    new Event.ScheduleRequest(new Passenger(origin, destination), origin));
+            buffered = false;
+            lastScheduled = time;
+            scheduled++;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package elevator.traffic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Cursor over passenger arrivals of a traffic scenario, ordered by time.
+ *
+ * Records are exposed through the cursor rather than as objects so that replaying millions of arrivals
+ * does not allocate per record. The accessors describe the record of the last successful {@link #next()}.
+ */
+public interface ScenarioReader extends Closeable {
+    /**
+     * Moves to the next arrival.
+     *
+     * @return False once the scenario is exhausted
+     * @throws java.io.UncheckedIOException on read errors
+     * @throws IllegalStateException if the scenario is malformed or not ordered by time
+     */
+    boolean next();
+
+    long time();
+
+    int origin();
+
+    int destination();
+
+    /**
+     * Opens a scenario file, choosing the format by extension: ".csv" for text, anything else for binary.
+     */
+    static ScenarioReader open(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(".csv"))
+            return new CsvScenarioReader(path);
+        else
+            return new BinaryScenarioReader(path);
+    }
+}
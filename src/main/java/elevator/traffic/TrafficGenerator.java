@@ -0,0 +1,251 @@
+package elevator.traffic;
+
+import com.typesafe.config.Config;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Seeded synthetic passenger traffic.
+ *
+ * Arrival times come from an {@link ArrivalProcess} and trips from a {@link TrafficPattern}, with upper floors
+ * weighted by population through an {@link AliasTable}. The same seed always yields the same sequence.
+ * Generating a trip is O(1) and does not allocate.
+ *
+ * As a {@link ScenarioReader} it can be replayed by a {@link ScenarioFeeder} like a recorded trace.
+ * Not thread-safe.
+ */
+public class TrafficGenerator implements ScenarioReader {
+    private final SplittableRandom random;
+    private final ArrivalProcess arrivals;
+    private final TrafficPattern pattern;
+    private final int numFloors;
+    private final int lobby;
+    private final int[] upperFloors;
+    private final AliasTable upperWeights;
+    private final long limit;
+    private final long endTime;
+
+    private double clock = 0;
+    private long generated = 0;
+    private long time;
+    private int origin;
+    private int destination;
+
+    private TrafficGenerator(Builder builder) {
+        this.random = new SplittableRandom(builder.seed);
+        this.arrivals = builder.arrivals.get();
+        this.pattern = builder.pattern;
+        this.numFloors = builder.numFloors;
+        this.lobby = builder.lobby;
+        this.limit = builder.limit;
+        this.endTime = builder.endTime;
+
+        this.upperFloors = new int[numFloors - 1];
+        final double[] weights = new double[numFloors - 1];
+        for (int floor = 0, i = 0; floor < numFloors; floor++) {
+            if (floor == lobby)
+                continue;
+
+            upperFloors[i] = floor;
+            weights[i] = builder.floorWeights == null ? 1 : builder.floorWeights[floor];
+            i++;
+        }
+        this.upperWeights = new AliasTable(weights);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds a generator from a {@code traffic.synthetic} style config block.
+     */
+    public static TrafficGenerator fromConfig(int numFloors, Config conf) {
+        final Builder builder = builder()
+                .floors(numFloors)
+                .seed(conf.getLong("seed"))
+                .pattern(TrafficPattern.valueOf(conf.getString("pattern")));
+
+        final List<Double> rates = conf.getDoubleList("rates");
+        if (rates.size() == 1) {
+            builder.poisson(rates.get(0));
+        } else {
+            final List<Double> durations = conf.getDoubleList("durations");
+            builder.markovModulated(
+                    rates.stream().mapToDouble(Double::doubleValue).toArray(),
+                    durations.stream().mapToDouble(Double::doubleValue).toArray());
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public boolean next() {
+        if (generated >= limit)
+            return false;
+
+        clock = arrivals.nextArrival(clock, random);
+        if (clock > endTime)
+            return false;
+
+        time = (long) clock;
+        sampleTrip();
+        generated++;
+        return true;
+    }
+
+    private void sampleTrip() {
+        if (pattern == TrafficPattern.UNIFORM) {
+            origin = random.nextInt(numFloors);
+            destination = random.nextInt(numFloors - 1);
+            if (destination >= origin)
+                destination++;
+            return;
+        }
+
+        final double u = random.nextDouble();
+        if (u < pattern.getIncoming()) {
+            origin = lobby;
+            destination = upperFloor();
+        } else if (u < pattern.getIncoming() + pattern.getOutgoing()) {
+            origin = upperFloor();
+            destination = lobby;
+        } else {
+            origin = upperFloor();
+            do {
+                destination = upperFloor();
+            } while (destination == origin);
+        }
+    }
+
+    private int upperFloor() {
+        return upperFloors[upperWeights.sample(random)];
+    }
+
+    public long getGenerated() {
+        return generated;
+    }
+
+    @Override
+    public long time() {
+        return time;
+    }
+
+    @Override
+    public int origin() {
+        return origin;
+    }
+
+    @Override
+    public int destination() {
+        return destination;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public static class Builder {
+        private long seed = 0;
+        private int numFloors;
+        private int lobby = 0;
+        private double[] floorWeights;
+        private TrafficPattern pattern = TrafficPattern.UNIFORM;
+        private Supplier<ArrivalProcess> arrivals = () -> ArrivalProcess.poisson(1.0);
+        private long limit = Long.MAX_VALUE;
+        private long endTime = Long.MAX_VALUE;
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder floors(int n) {
+            this.numFloors = n;
+            return this;
+        }
+
+        public Builder lobby(int floor) {
+            this.lobby = floor;
+            return this;
+        }
+
+        /**
+         * Relative population of each floor. The lobby's weight is ignored.
+         */
+        public Builder floorWeights(double[] weights) {
+            this.floorWeights = weights.clone();
+            return this;
+        }
+
+        public Builder pattern(TrafficPattern pattern) {
+            this.pattern = pattern;
+            return this;
+        }
+
+        /**
+         * Called once for each generator built, since arrival processes may keep state.
+         */
+        public Builder arrivals(Supplier<ArrivalProcess> arrivals) {
+            this.arrivals = arrivals;
+            return this;
+        }
+
+        public Builder poisson(double rate) {
+            final ArrivalProcess process = ArrivalProcess.poisson(rate);
+            return arrivals(() -> process);
+        }
+
+        public Builder markovModulated(double[] rates, double[] meanDurations) {
+            final double[] r = rates.clone();
+            final double[] d = meanDurations.clone();
+            // Rejects a bad spec here rather than in build()
+            ArrivalProcess.markovModulated(r, d);
+            return arrivals(() -> ArrivalProcess.markovModulated(r, d));
+        }
+
+        /**
+         * Stop after this many arrivals.
+         */
+        public Builder limit(long count) {
+            this.limit = count;
+            return this;
+        }
+
+        /**
+         * Stop once arrivals would come after this tick.
+         */
+        public Builder until(long time) {
+            this.endTime = time;
+            return this;
+        }
+
+        public TrafficGenerator build() {
+            if (numFloors < 3)
+                throw new IllegalStateException("Need at least three floors");
+
+            if (lobby < 0 || lobby >= numFloors)
+                throw new IllegalStateException("Lobby is not in the building");
+
+            if (floorWeights != null && floorWeights.length != numFloors)
+                throw new IllegalStateException("Expected " + numFloors + " floor weights but got " + floorWeights.length);
+
+            // Every pattern but UNIFORM has some trips between two different upper floors
+            if (pattern != TrafficPattern.UNIFORM && floorWeights != null && weightedUpperFloors() < 2)
+                throw new IllegalStateException("Trips between upper floors need at least two upper floors with a positive weight");
+
+            return new TrafficGenerator(this);
+        }
+
+        private int weightedUpperFloors() {
+            int count = 0;
+            for (int floor = 0; floor < numFloors; floor++) {
+                if (floor != lobby && floorWeights[floor] > 0)
+                    count++;
+            }
+            return count;
+        }
+    }
+}
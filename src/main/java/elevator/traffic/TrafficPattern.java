@@ -0,0 +1,37 @@
+package elevator.traffic;
+
+/**
+ * Mix of trips to, from and between floors other than the lobby.
+ *
+ * Fractions follow the usual traffic analysis classification of office buildings.
+ */
+public enum TrafficPattern {
+    /** Every origin and destination pair is equally likely, lobby included */
+    UNIFORM(-1, -1),
+    /** Morning arrivals: mostly lobby to upper floors */
+    UP_PEAK(0.85, 0.05),
+    /** Evening departures: mostly upper floors to lobby */
+    DOWN_PEAK(0.05, 0.85),
+    /** Lunch: heavy two-way lobby traffic */
+    LUNCH(0.40, 0.40),
+    /** Meetings and deliveries: only between upper floors */
+    INTERFLOOR(0, 0);
+
+    private final double incoming;
+    private final double outgoing;
+
+    TrafficPattern(double incoming, double outgoing) {
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+    }
+
+    /** Fraction of trips from the lobby, negative for {@link #UNIFORM} */
+    public double getIncoming() {
+        return incoming;
+    }
+
+    /** Fraction of trips to the lobby, negative for {@link #UNIFORM} */
+    public double getOutgoing() {
+        return outgoing;
+    }
+}
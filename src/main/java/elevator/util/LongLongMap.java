@@ -0,0 +1,155 @@
+package elevator.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to long values.
+ *
+ * Uses linear probing with backward-shift deletion so there are no tombstones to clean up.
+ * Storage only grows when the load factor is exceeded, so steady-state use does not allocate.
+ *
+ * Not thread-safe.
+ */
+public class LongLongMap {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size = 0;
+    private int threshold;
+
+    public LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public LongLongMap() {
+        this(16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int i = mix(key) & mask;
+        while (true) {
+            final long k = keys[i];
+            if (k == key)
+                return i;
+            if (k == EMPTY)
+                return -(i + 1);
+
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        checkKey(key);
+        return indexOf(key) >= 0;
+    }
+
+    public long get(long key, long defaultValue) {
+        checkKey(key);
+        final int i = indexOf(key);
+        return i >= 0 ? values[i] : defaultValue;
+    }
+
+    public void put(long key, long value) {
+        checkKey(key);
+        int i = indexOf(key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+
+        i = -i - 1;
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold)
+            rehash();
+    }
+
+    /**
+     * @return True if the key was absent and the value was inserted
+     */
+    public boolean putIfAbsent(long key, long value) {
+        checkKey(key);
+        if (indexOf(key) >= 0)
+            return false;
+
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * @return The removed value or defaultValue if the key was absent
+     */
+    public long remove(long key, long defaultValue) {
+        checkKey(key);
+        int i = indexOf(key);
+        if (i < 0)
+            return defaultValue;
+
+        final long removed = values[i];
+        --size;
+
+        // Backward-shift the rest of the probe chain into the hole
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != EMPTY) {
+            final int home = mix(keys[j]) & mask;
+            // Move the entry unless its home lies cyclically within (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+
+        keys[hole] = EMPTY;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY)
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("Key is reserved");
+    }
+}
@@ -0,0 +1,188 @@
+package elevator.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Open-addressing hash map from long keys to object values.
+ *
+ * Same probing scheme as {@link LongLongMap}: linear probing with backward-shift deletion.
+ * Keys are stored unboxed so lookups do not allocate.
+ *
+ * Not thread-safe.
+ */
+public class LongObjectMap<V> {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size = 0;
+    private int threshold;
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int i = mix(key) & mask;
+        while (true) {
+            final long k = keys[i];
+            if (k == key)
+                return i;
+            if (k == EMPTY)
+                return -(i + 1);
+
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        checkKey(key);
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        checkKey(key);
+        final int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    /**
+     * @return The previous value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkKey(key);
+        int i = indexOf(key);
+        if (i >= 0) {
+            final V old = (V) values[i];
+            values[i] = value;
+            return old;
+        }
+
+        i = -i - 1;
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold)
+            rehash();
+
+        return null;
+    }
+
+    /**
+     * @return The removed value or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        checkKey(key);
+        int i = indexOf(key);
+        if (i < 0)
+            return null;
+
+        final V removed = (V) values[i];
+        --size;
+
+        // Backward-shift the rest of the probe chain into the hole
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != EMPTY) {
+            final int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        return removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY)
+                action.accept((V) values[i]);
+        }
+    }
+
+    /**
+     * Removes all entries whose value matches the filter.
+     *
+     * @return Number of entries removed
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(Predicate<? super V> filter) {
+        long[] matches = new long[8];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && filter.test((V) values[i])) {
+                if (n == matches.length)
+                    matches = Arrays.copyOf(matches, n * 2);
+                matches[n++] = keys[i];
+            }
+        }
+
+        // Deleting shifts entries backwards, so remove by key after the scan
+        for (int i = 0; i < n; i++)
+            remove(matches[i]);
+
+        return n;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY)
+                put(oldKeys[i], (V) oldValues[i]);
+        }
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("Key is reserved");
+    }
+}
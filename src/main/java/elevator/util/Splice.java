@@ -6,7 +6,7 @@ import io.vavr.collection.Queue;
 import io.vavr.control.Option;
 
 public class Splice {
-    private static Option<Queue<Integer>> splice(int current, Queue<Integer> points, int start, int end, boolean strict, Function3<Integer, Integer, Integer, Boolean> isMonotonic) {
+    private static Option<Queue<Integer>> splice(int current, Queue<Integer> points, int start, int end, boolean strict, Function3<Integer, Integer, Integer, Boolean> isMonotonic, int[] stops) {
         // Too many concurrency issues with accepting a request from the current floor
         if (current == start)
             return Option.none();
@@ -24,6 +24,8 @@ public class Splice {
             if (isMonotonic.apply(left, start, right) && result.nonEmpty()) {
                 if (start != left && start != right)
                     result = result.append(start);
+                if (stops != null)
+                    stops[0] = start == right ? result.size() : result.size() - 1;
                 break;
             }
 
@@ -42,6 +44,8 @@ public class Splice {
             if (isMonotonic.apply(left, end, right)) {
                 if (end != left && end != right)
                     result = result.append(end);
+                if (stops != null)
+                    stops[1] = end == right ? result.size() : result.size() - 1;
                 break;
             }
 
@@ -51,6 +55,8 @@ public class Splice {
 
                 // Turnpoints do not include end, but appending it will result in a shorter path than appending both start and end
                 result = result.append(right).append(end);
+                if (stops != null)
+                    stops[1] = result.size() - 1;
 
                 return Option.some(result);
             }
@@ -83,10 +89,21 @@ public class Splice {
      * @return Either None or a new Queue representing the result
      */
     public static Option<Queue<Integer>> splice(int current, Queue<Integer> points, int start, int end, boolean strict) {
+        return splice(current, points, start, end, strict, null);
+    }
+
+    /**
+     * Same as {@link #splice(int, Queue, int, int, boolean)}, also reporting where the span was placed.
+     *
+     * A bound equal to an existing turnpoint reuses that turnpoint instead of being inserted.
+     *
+     * @param stops Receives the indices in the result of the turnpoints for [start] and [end], in that order
+     */
+    public static Option<Queue<Integer>> splice(int current, Queue<Integer> points, int start, int end, boolean strict, int[] stops) {
         if (start < end)
-            return splice(current, points, start, end, strict, (x,y,z) -> x <= y && y <= z);
+            return splice(current, points, start, end, strict, (x,y,z) -> x <= y && y <= z, stops);
         else
-            return splice(current, points, start, end, strict, (x,y,z) -> x >= y && y >= z);
+            return splice(current, points, start, end, strict, (x,y,z) -> x >= y && y >= z, stops);
     }
 
     public static Option<Queue<Integer>> splice(int current, Queue<Integer> points, int start, int end) {
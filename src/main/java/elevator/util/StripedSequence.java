@@ -0,0 +1,34 @@
+package elevator.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unique id generator that avoids contention between threads.
+ *
+ * Each thread reserves a block of ids from a shared counter and hands them out locally, so the shared
+ * counter is only touched once per block. Ids are unique but only increase monotonically per thread.
+ */
+public class StripedSequence {
+    private static final int BLOCK_SIZE = 1024;
+
+    private final AtomicLong reserved;
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[]{0, 0});
+
+    public StripedSequence(long origin) {
+        this.reserved = new AtomicLong(origin);
+    }
+
+    public StripedSequence() {
+        this(1);
+    }
+
+    public long next() {
+        final long[] range = block.get();   // [next, limit)
+        if (range[0] == range[1]) {
+            range[0] = reserved.getAndAdd(BLOCK_SIZE);
+            range[1] = range[0] + BLOCK_SIZE;
+        }
+
+        return range[0]++;
+    }
+}
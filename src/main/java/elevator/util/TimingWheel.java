@@ -0,0 +1,231 @@
+package elevator.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of values keyed by clock tick.
+ *
+ * Four levels of 256 slots cover deadlines up to 2^32 ticks ahead; anything further waits in an overflow list.
+ * A value is filed at the level of the highest 8-bit block in which its deadline differs from the current time,
+ * so scheduling is O(1). As time advances, a slot is cascaded into lower levels once the clock enters its range.
+ * Each value moves down at most once per level, making expiry amortized O(1).
+ *
+ * Values for the same tick expire in the order they were scheduled: cascading keeps slot order and a slot is
+ * always cascaded before anything can be filed directly into the levels below it.
+ *
+ * Occupancy bitmaps let the clock jump over empty stretches, so advancing by a large gap costs
+ * only the slots that actually hold values.
+ *
+ * All methods are synchronized.
+ */
+public class TimingWheel<T> {
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int WORDS = SLOTS / 64;
+
+    private static final class Node<T> {
+        final long deadline;
+        final T value;
+        Node<T> next;
+
+        Node(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+    }
+
+    private final Node<T>[] heads;
+    private final Node<T>[] tails;
+    private final long[] occupied = new long[LEVELS * WORDS];
+    private Node<T> overflowHead;
+    private Node<T> overflowTail;
+
+    private long now;
+    private long size = 0;
+
+    public TimingWheel(long now) {
+        this.now = now;
+        this.heads = newSlots();
+        this.tails = newSlots();
+    }
+
+    // Generic arrays cannot be created directly. The slots only ever hold nodes of this wheel's T
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newSlots() {
+        return (Node<T>[]) new Node<?>[LEVELS * SLOTS];
+    }
+
+    public synchronized long getTime() {
+        return now;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the deadline has already passed
+     */
+    public synchronized void schedule(long deadline, T value) {
+        if (deadline < now)
+            throw new IllegalArgumentException("Cannot schedule an event in the past");
+
+        file(new Node<>(deadline, value));
+        size++;
+    }
+
+    /**
+     * Advances the clock to the given time, handing every value due by then to the consumer
+     * in deadline order.
+     *
+     * The consumer runs while the wheel is locked and must not call back into it.
+     */
+    public synchronized void advance(long time, Consumer<? super T> expired) {
+        while (size > 0) {
+            final int level = lowestOccupiedLevel();
+            final long start;
+            if (level < 0) {
+                start = Math.max(now, minOverflowDeadline() & ~0xFFFF_FFFFL);
+            } else {
+                final int slot = lowestOccupiedSlot(level);
+                final int shift = level * BITS;
+                final long blockMask = ((long) MASK << shift) | ((1L << shift) - 1);
+                start = (now & ~blockMask) | ((long) slot << shift);
+            }
+
+            // Nothing is due before [start], so jumping there is safe
+            if (start > time)
+                break;
+
+            jump(start);
+            if (level == 0)
+                expire((int) (start & MASK), expired);
+        }
+
+        if (time > now)
+            jump(time);
+    }
+
+    /**
+     * @return The earliest pending deadline or Long.MAX_VALUE when empty
+     */
+    public synchronized long nextDeadline() {
+        if (size == 0)
+            return Long.MAX_VALUE;
+
+        final int level = lowestOccupiedLevel();
+        if (level < 0)
+            return minOverflowDeadline();
+
+        final int slot = lowestOccupiedSlot(level);
+        if (level == 0)
+            return (now & ~(long) MASK) | slot;
+
+        long min = Long.MAX_VALUE;
+        for (Node<T> node = heads[level * SLOTS + slot]; node != null; node = node.next)
+            min = Math.min(min, node.deadline);
+
+        return min;
+    }
+
+    private void file(Node<T> node) {
+        final long diff = node.deadline ^ now;
+        final int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / BITS;
+
+        node.next = null;
+        if (level >= LEVELS) {
+            if (overflowTail == null)
+                overflowHead = node;
+            else
+                overflowTail.next = node;
+            overflowTail = node;
+            return;
+        }
+
+        final int slot = (int) (node.deadline >>> (level * BITS)) & MASK;
+        final int index = level * SLOTS + slot;
+        if (tails[index] == null)
+            heads[index] = node;
+        else
+            tails[index].next = node;
+        tails[index] = node;
+        occupied[level * WORDS + (slot >>> 6)] |= 1L << slot;
+    }
+
+    /**
+     * Moves the clock forward to a time that is no later than any pending deadline and re-files the
+     * values whose range the clock has entered.
+     */
+    private void jump(long time) {
+        final long diff = time ^ now;
+        now = time;
+        if (diff == 0)
+            return;
+
+        final int level = (63 - Long.numberOfLeadingZeros(diff)) / BITS;
+        Node<T> node;
+        if (level >= LEVELS) {
+            node = overflowHead;
+            overflowHead = overflowTail = null;
+        } else {
+            // Levels below are necessarily empty since their deadlines would precede [time]
+            node = take(level, (int) (time >>> (level * BITS)) & MASK);
+        }
+
+        while (node != null) {
+            final Node<T> next = node.next;
+            file(node);
+            node = next;
+        }
+    }
+
+    private void expire(int slot, Consumer<? super T> expired) {
+        for (Node<T> node = take(0, slot); node != null; node = node.next) {
+            size--;
+            expired.accept(node.value);
+        }
+    }
+
+    private Node<T> take(int level, int slot) {
+        final int index = level * SLOTS + slot;
+        final Node<T> head = heads[index];
+        heads[index] = tails[index] = null;
+        occupied[level * WORDS + (slot >>> 6)] &= ~(1L << slot);
+        return head;
+    }
+
+    private int lowestOccupiedLevel() {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int w = 0; w < WORDS; w++) {
+                if (occupied[level * WORDS + w] != 0)
+                    return level;
+            }
+        }
+
+        return -1;
+    }
+
+    private int lowestOccupiedSlot(int level) {
+        for (int w = 0; w < WORDS; w++) {
+            final long bits = occupied[level * WORDS + w];
+            if (bits != 0)
+                return w * 64 + Long.numberOfTrailingZeros(bits);
+        }
+
+        return -1;
+    }
+
+    private long minOverflowDeadline() {
+        long min = Long.MAX_VALUE;
+        for (Node<T> node = overflowHead; node != null; node = node.next)
+            min = Math.min(min, node.deadline);
+
+        return min;
+    }
+}
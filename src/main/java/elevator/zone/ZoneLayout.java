@@ -0,0 +1,103 @@
+package elevator.zone;
+
+import java.util.Arrays;
+
+/**
+ * Splits the floors of a tall building into stacked zones that meet at sky lobbies.
+ *
+ * Zone {@code z} serves the global floors from {@code bounds[z]} to {@code bounds[z + 1]} inclusive, so the top floor
+ * of one zone is the bottom floor, and sky lobby, of the next. Each zone numbers its own floors from zero at its
+ * bottom floor.
+ */
+public class ZoneLayout {
+    private final int[] bounds;
+
+    /**
+     * @param bounds Bottom floor of each zone followed by the top floor of the building, strictly increasing
+     */
+    public ZoneLayout(int... bounds) {
+        if (bounds.length < 2 || bounds[0] != 0)
+            throw new IllegalArgumentException("Zones must start at the ground floor: " + Arrays.toString(bounds));
+
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1])
+                throw new IllegalArgumentException("Zone bounds must increase: " + Arrays.toString(bounds));
+        }
+
+        this.bounds = bounds.clone();
+    }
+
+    /**
+     * Zones of about the same height over floors 0 to numFloors - 1.
+     */
+    public static ZoneLayout even(int numFloors, int numZones) {
+        if (numZones < 1 || numZones > (numFloors - 1) / 2)
+            throw new IllegalArgumentException("Cannot split " + numFloors + " floors into " + numZones + " zones");
+
+        final int[] bounds = new int[numZones + 1];
+        for (int z = 0; z <= numZones; z++)
+            bounds[z] = (int) ((long) z * (numFloors - 1) / numZones);
+
+        return new ZoneLayout(bounds);
+    }
+
+    public int getNumZones() {
+        return bounds.length - 1;
+    }
+
+    /**
+     * @return Number of floors in the whole building
+     */
+    public int getNumFloors() {
+        return bounds[bounds.length - 1] + 1;
+    }
+
+    /**
+     * @return Number of floors served by a zone, sky lobbies included
+     */
+    public int getNumFloors(int zone) {
+        return bounds[zone + 1] - bounds[zone] + 1;
+    }
+
+    public int getBottom(int zone) {
+        return bounds[zone];
+    }
+
+    public int getTop(int zone) {
+        return bounds[zone + 1];
+    }
+
+    /**
+     * Zone a passenger boards in at a floor. Sky lobbies belong to two zones, so it depends on the direction of travel.
+     */
+    public int zoneOf(int floor, int destination) {
+        if (floor < 0 || floor > bounds[bounds.length - 1])
+            throw new IllegalArgumentException("No floor " + floor);
+
+        int zone = Arrays.binarySearch(bounds, floor);
+        if (zone < 0)
+            return -zone - 2;
+
+        // On a zone boundary: the upper zone when going up, the lower one going down
+        if (zone == getNumZones() || (destination < floor && zone > 0))
+            return zone - 1;
+
+        return zone;
+    }
+
+    public int toLocal(int zone, int floor) {
+        return floor - bounds[zone];
+    }
+
+    public int toGlobal(int zone, int localFloor) {
+        return localFloor + bounds[zone];
+    }
+
+    /**
+     * @return The global floor a passenger heading for destination leaves a zone at: the destination itself if it is
+     * in the zone, otherwise the sky lobby in its direction
+     */
+    public int exitFloor(int zone, int destination) {
+        return Math.max(getBottom(zone), Math.min(getTop(zone), destination));
+    }
+}
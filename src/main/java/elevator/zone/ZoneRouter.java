@@ -0,0 +1,111 @@
+package elevator.zone;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventReactor;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+import elevator.util.LongLongMap;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves passengers of one zone between their final destinations and the zone's sky lobbies.
+ *
+ * A passenger entering the zone (a {@link Event.TransferPassenger} for it) is scheduled as a local request to the
+ * floor where they leave the zone. The zone's own scheduler and elevators only ever see local floors. When a
+ * passenger bound for another zone is dropped at a sky lobby, the router fires a transfer on its own bus, which is
+ * handed over to the next zone after the walk across the lobby.
+ */
+public class ZoneRouter implements EventReactor {
+    public static final EnumSet<EventTopic> TOPICS = EnumSet.of(EventTopic.PASSENGER);
+    private static final long ARRIVED = -1;
+
+    private final ZonedBuilding building;
+    private final int zone;
+    private final ZoneLayout layout;
+
+    // Final destination of each passenger whose ride in this zone ends at a sky lobby
+    private final LongLongMap transferring = new LongLongMap();
+    private final LongAdder entered = new LongAdder();
+    private final LongAdder arrived = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+
+    ZoneRouter(ZonedBuilding building, int zone) {
+        this.building = building;
+        this.zone = zone;
+        this.layout = building.getLayout();
+    }
+
+    @Override
+    public void onEvent(EventBus bus, Event event) {
+        if (event instanceof Event.TransferPassenger) {
+            handleTransfer(bus, (Event.TransferPassenger) event);
+        } else if (event instanceof Event.DropPassenger) {
+            handleDropPassenger(bus, (Event.DropPassenger) event);
+        }
+    }
+
+    private void handleTransfer(EventBus bus, Event.TransferPassenger event) {
+        if (event.getFromZone() == zone) {
+            // Fired by this router, the next zone picks it up
+            building.handOver(event);
+            return;
+        }
+
+        if (event.getToZone() != zone)
+            return;
+
+        entered.increment();
+        final Passenger passenger = event.getPassenger();
+        final int destination = passenger.getDestination();
+        final int exit = layout.exitFloor(zone, destination);
+        if (exit != destination)
+            transferring.put(passenger.getId(), destination);
+
+        final int origin = layout.toLocal(zone, event.getFloor());
+        bus.fireTopic(EventTopic.SCHEDULING, new Event.ScheduleRequest(
+                Passenger.withId(passenger.getId(), layout.toLocal(zone, exit)), origin));
+    }
+
+    private void handleDropPassenger(EventBus bus, Event.DropPassenger event) {
+        final long id = event.getPassenger().getId();
+        final long destination = transferring.remove(id, ARRIVED);
+        if (destination == ARRIVED) {
+            arrived.increment();
+            return;
+        }
+
+        transfers.increment();
+        final int lobby = layout.toGlobal(zone, event.getFloor());
+        final int next = layout.zoneOf(lobby, (int) destination);
+        bus.fireTopic(EventTopic.PASSENGER, new Event.TransferPassenger(
+                Passenger.withId(id, (int) destination), zone, next, lobby));
+    }
+
+    public int getZone() {
+        return zone;
+    }
+
+    /**
+     * @return Passengers that entered the zone, new or transferred
+     */
+    public long getEntered() {
+        return entered.sum();
+    }
+
+    /**
+     * @return Passengers dropped at their final destination in this zone
+     */
+    public long getArrived() {
+        return arrived.sum();
+    }
+
+    /**
+     * @return Passengers dropped at a sky lobby on their way to another zone
+     */
+    public long getTransfers() {
+        return transfers.sum();
+    }
+}
@@ -0,0 +1,143 @@
+package elevator.zone;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
+import elevator.api.Trips;
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+import elevator.simulation.DeferredEventQueue;
+import elevator.site.Site;
+import elevator.site.SitePool;
+
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A tall building run as a stack of independent zones.
+ *
+ * Every zone is a {@link Site} of its own: a building of only the zone's floors with its own elevator group,
+ * scheduler and bus partitions. Per-elevator and per-floor structures are sized by the zone, and an event only
+ * reaches the reactors of its zone. Passengers crossing zones change elevators at the sky lobbies through explicit
+ * {@link Event.TransferPassenger} events, so zones can run on different workers of a {@link SitePool}.
+ */
+public class ZonedBuilding {
+    private final String id;
+    private final ZoneLayout layout;
+    private final long transferTicks;
+    private final Site[] zones;
+    private final ZoneRouter[] routers;
+
+    /**
+     * @param zoneConf Site configuration shared by the zones, see {@link Site#create}. The floor count is set per zone.
+     * @param transferTicks Ticks a passenger takes to walk across a sky lobby to the next zone's elevators
+     */
+    public ZonedBuilding(String id, ZoneLayout layout, Config zoneConf, long transferTicks) {
+        this.id = id;
+        this.layout = layout;
+        this.transferTicks = transferTicks;
+        this.zones = new Site[layout.getNumZones()];
+        this.routers = new ZoneRouter[layout.getNumZones()];
+
+        for (int z = 0; z < zones.length; z++) {
+            zones[z] = Site.create(zoneId(id, z),
+                    zoneConf.withValue("num-floors", ConfigValueFactory.fromAnyRef(layout.getNumFloors(z))));
+            routers[z] = new ZoneRouter(this, z);
+            zones[z].getBus().attachTopic(ZoneRouter.TOPICS, routers[z]);
+        }
+    }
+
+    /**
+     * Reads the {@code zoned} config block.
+     */
+    public static ZonedBuilding fromConfig(String id, Config conf) {
+        final ZoneLayout layout = ZoneLayout.even(conf.getInt("num-floors"), conf.getInt("zones"));
+        return new ZonedBuilding(id, layout, conf, conf.getLong("transfer-ticks"));
+    }
+
+    public static String zoneId(String building, int zone) {
+        return building + "-z" + zone;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ZoneLayout getLayout() {
+        return layout;
+    }
+
+    public Site getZone(int zone) {
+        return zones[zone];
+    }
+
+    public ZoneRouter getRouter(int zone) {
+        return routers[zone];
+    }
+
+    public ZonedBuilding addTo(SitePool pool) {
+        for (Site zone : zones)
+            pool.add(zone);
+        return this;
+    }
+
+    /**
+     * Queues a new passenger at the zone of their origin. Safe to call from any thread.
+     *
+     * @return The passenger
+     */
+    public Passenger submit(int origin, int destination) {
+        if (!Trips.isValid(layout.getNumFloors(), origin, destination, true))
+            throw new IllegalArgumentException("Invalid trip from " + origin + " to " + destination);
+
+        final Passenger passenger = new Passenger(origin, destination);
+        final int zone = layout.zoneOf(origin, destination);
+        enter(zone, new Event.TransferPassenger(passenger, Event.TransferPassenger.OUTSIDE, zone, origin), 0);
+        return passenger;
+    }
+
+    /**
+     * Delivers a transfer fired in one zone to the zone it leads to.
+     */
+    void handOver(Event.TransferPassenger transfer) {
+        enter(transfer.getToZone(), transfer, transferTicks);
+    }
+
+    // Deferred queues can be scheduled from any thread, unlike the zone's reactors. The zone's clock may move on
+    // while this runs, so stay a tick clear of the current one and retry if it got past anyway.
+    private void enter(int zone, Event.TransferPassenger event, long delay) {
+        final DeferredEventQueue queue = zones[zone].getBuilding().getEventQueue();
+        while (true) {
+            try {
+                queue.scheduleAt(queue.getClock() + Math.max(2, delay), EventTopic.PASSENGER, event);
+                return;
+            } catch (IllegalArgumentException e) {
+                // Clock advanced past the deadline, try again from the new time
+            }
+        }
+    }
+
+    /**
+     * @return Passengers dropped at their final destination in any zone
+     */
+    public long getArrived() {
+        return IntStream.range(0, routers.length).mapToLong(z -> routers[z].getArrived()).sum();
+    }
+
+    public long getTransfers() {
+        return IntStream.range(0, routers.length).mapToLong(z -> routers[z].getTransfers()).sum();
+    }
+
+    public String toJson() {
+        final String zoneJson = IntStream.range(0, zones.length)
+                .mapToObj(z -> String.format(Locale.ROOT,
+                        "{\"zone\":%d,\"bottom\":%d,\"top\":%d,\"entered\":%d,\"arrived\":%d,\"transfers\":%d,\"site\":%s}",
+                        z, layout.getBottom(z), layout.getTop(z),
+                        routers[z].getEntered(), routers[z].getArrived(), routers[z].getTransfers(), zones[z].toJson()))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        return String.format(Locale.ROOT, "{\"id\":\"%s\",\"floors\":%d,\"arrived\":%d,\"transfers\":%d,\"zones\":%s}",
+                id, layout.getNumFloors(), getArrived(), getTransfers(), zoneJson);
+    }
+}
@@ -1,6 +1,6 @@
 const { h, Component, createRef, render } = preact;
 const { range, interval, defer, fromEvent, Subject, merge } = rxjs;
-const { map, filter, catchError, of, switchMap, tap, share, pluck, withLatestFrom, retry } = rxjs.operators;
+const { map, filter, catchError, of, switchMap, tap, share, pluck, withLatestFrom, retry, scan } = rxjs.operators;
 const { webSocket } = rxjs.webSocket;
 const { ajax } = rxjs.ajax;
 
@@ -10,29 +10,171 @@ const vegaOpts = {
     actions: false
 };
 
-// TODO websocket based display and control panel
+const KEYFRAME = 0;
+const DELTA = 1;
+
+// Decodes the frames written by LiveFrames on the server
+class FrameReader {
+    constructor(buffer) {
+        this.bytes = new Uint8Array(buffer);
+        this.pos = 0;
+    }
+
+    byte() {
+        return this.bytes[this.pos++];
+    }
+
+    signedByte() {
+        const b = this.byte();
+        return b > 127 ? b - 256 : b;
+    }
+
+    varint() {
+        let result = 0;
+        let scale = 1;
+        while (true) {
+            const b = this.byte();
+            result += (b & 0x7f) * scale;
+            if ((b & 0x80) === 0)
+                return result;
+            scale *= 128;
+        }
+    }
+}
+
+function applyFrame(state, buffer) {
+    const reader = new FrameReader(buffer);
+    const kind = reader.byte();
+    const clock = reader.varint();
+
+    if (kind === KEYFRAME) {
+        const numElevators = reader.varint();
+        const numFloors = reader.varint();
+        const elevators = [];
+        for (let i = 0; i < numElevators; i++)
+            elevators.push({ floor: reader.varint(), direction: reader.signedByte() });
+        const waiting = [];
+        for (let i = 0; i < numFloors; i++)
+            waiting.push(reader.varint());
+        return { clock, elevators, waiting };
+    }
+
+    // Deltas before the first keyframe cannot be applied
+    if (kind !== DELTA || state === null)
+        return state;
+
+    const elevators = state.elevators.slice();
+    const waiting = state.waiting.slice();
+    let index = -1;
+    for (let n = reader.varint(); n > 0; n--) {
+        index += reader.varint();
+        elevators[index] = { floor: reader.varint(), direction: reader.signedByte() };
+    }
+    index = -1;
+    for (let n = reader.varint(); n > 0; n--) {
+        index += reader.varint();
+        waiting[index] = reader.varint();
+    }
+    return { clock, elevators, waiting };
+}
+
+const arrows = { [-1]: '↓', 0: '·', 1: '↑' };
+
 class App extends Component {
-    render() {
+    constructor(props) {
+        super(props);
+        this.state = { live: null, connected: false };
+    }
+
+    componentDidMount() {
+        const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+        const socket = webSocket({
+            url: `${protocol}//${window.location.host}/live`,
+            binaryType: 'arraybuffer',
+            deserializer: e => e.data,
+            openObserver: { next: () => this.setState({ connected: true }) },
+            closeObserver: { next: () => this.setState({ connected: false }) },
+        });
+
+        this.subscription = socket.pipe(
+            scan(applyFrame, null),
+            filter(state => state !== null),
+            retry(),
+        ).subscribe(live => this.setState({ live }));
+    }
+
+    componentWillUnmount() {
+        this.subscription.unsubscribe();
+    }
+
+    renderElevators(elevators) {
+        return html`
+            <table class="table is-narrow is-striped">
+                <thead><tr><th>Elevator</th><th>Floor</th><th>Direction</th></tr></thead>
+                <tbody>
+                    ${elevators.map((e, i) => html`
+                        <tr key=${i}><td>${i}</td><td>${e.floor}</td><td>${arrows[e.direction]}</td></tr>
+                    `)}
+                </tbody>
+            </table>
+        `;
+    }
+
+    renderWaiting(waiting) {
+        const busiest = waiting
+            .map((count, floor) => ({ floor, count }))
+            .filter(f => f.count > 0)
+            .sort((a, b) => b.count - a.count)
+            .slice(0, 20);
+
+        return html`
+            <table class="table is-narrow is-striped">
+                <thead><tr><th>Floor</th><th>Waiting</th></tr></thead>
+                <tbody>
+                    ${busiest.map(f => html`<tr key=${f.floor}><td>${f.floor}</td><td>${f.count}</td></tr>`)}
+                </tbody>
+            </table>
+        `;
+    }
+
+    render(props, { live, connected }) {
+        const totalWaiting = live ? live.waiting.reduce((a, b) => a + b, 0) : 0;
+        const moving = live ? live.elevators.filter(e => e.direction !== 0).length : 0;
+
         return html`
             <div>
                 <div class="hero">
                     <div class="hero-body">
                         <div class="container">
                         <h1 class="title">
-                            Nothing here yet
+                            Elevator Simulator
                         </h1>
                         <h2 class="subtitle">
+                            ${connected ? `Clock ${live ? live.clock : '-'}` : 'Disconnected'}
                         </h2>
                         </div>
                     </div>
                 </div>
-                <div class="container">
-                    TODO
-                </div>
+                ${live && html`
+                    <div class="container">
+                        <nav class="level">
+                            <div class="level-item has-text-centered">
+                                <div><p class="heading">Moving elevators</p><p class="title">${moving}/${live.elevators.length}</p></div>
+                            </div>
+                            <div class="level-item has-text-centered">
+                                <div><p class="heading">Passengers waiting</p><p class="title">${totalWaiting}</p></div>
+                            </div>
+                        </nav>
+                        <div class="columns">
+                            <div class="column">${this.renderElevators(live.elevators)}</div>
+                            <div class="column">${this.renderWaiting(live.waiting)}</div>
+                        </div>
+                    </div>
+                `}
             </div>
         `;
     }
 }
 
 const app = html`<${App} />`
-render(app, document.getElementById('app'));
\ No newline at end of file
+render(app, document.getElementById('app'));
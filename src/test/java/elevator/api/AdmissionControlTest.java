@@ -0,0 +1,123 @@
+package elevator.api;
+
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import elevator.event.PartitionedEventBus;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class AdmissionControlTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        assertThat(bucket.tryAcquire(1, 0), is(0L));
+        assertThat(bucket.tryAcquire(1, 0), is(0L));
+        // Empty: the next token arrives after 100ms
+        assertThat(bucket.tryAcquire(1, 0), is(100 * MS));
+        assertThat(bucket.tryAcquire(1, 100 * MS), is(0L));
+
+        // Refills up to the burst only
+        assertThat(bucket.tryAcquire(5, 10_000 * MS), is(0L));
+        assertThat(bucket.tryAcquire(1, 10_000 * MS), is(greaterThan(0L)));
+        assertThat(bucket.isIdle(10_000 * MS, 1000 * MS), is(false));
+        assertThat(bucket.isIdle(20_000 * MS, 1000 * MS), is(true));
+    }
+
+    @Test
+    public void testClientRateLimit() {
+        AdmissionControl admission = new AdmissionControl(1, 2, 100 * MS, 100, 10, 1000, 0.5);
+
+        assertThat(admission.tryAcquire("a", 1, 0).isAdmitted(), is(true));
+        assertThat(admission.tryAcquire("a", 1, 0).isAdmitted(), is(true));
+
+        final AdmissionControl.Decision refused = admission.tryAcquire("a", 1, 0);
+        assertThat(refused.getOutcome(), is(AdmissionControl.Outcome.RATE_LIMITED));
+        assertThat(refused.getRetryAfterSeconds(), is(1L));
+
+        // Other clients have their own bucket
+        assertThat(admission.tryAcquire("b", 1, 0).isAdmitted(), is(true));
+        assertThat(admission.getInFlight(), is(3L));
+    }
+
+    @Test
+    public void testConcurrencyLimit() {
+        AdmissionControl admission = new AdmissionControl(1000, 1000, 100 * MS, 4, 2, 8, 0.5);
+
+        // A batch only gets the permits left under the limit
+        assertThat(admission.tryAcquire("a", 3, 0).getGranted(), is(3));
+        final AdmissionControl.Decision partial = admission.tryAcquire("a", 3, 0);
+        assertThat(partial.isAdmitted(), is(true));
+        assertThat(partial.getGranted(), is(1));
+        assertThat(admission.tryAcquire("a", 1, 0).getOutcome(), is(AdmissionControl.Outcome.OVERLOADED));
+        assertThat(admission.getInFlight(), is(4L));
+
+        for (long id = 1; id <= 4; id++)
+            admission.submitted(id, 0);
+
+        // Slow scheduling cuts the limit once per target latency
+        admission.accepted(1, 200 * MS);
+        assertThat(admission.getLimit(), is(closeTo(2.0, 1e-9)));
+        admission.accepted(2, 250 * MS);
+        assertThat(admission.getLimit(), is(closeTo(2.0, 1e-9)));
+        assertThat(admission.getInFlight(), is(2L));
+
+        // Fast scheduling while the limit is in use grows it additively
+        admission.submitted(3, 1000 * MS);
+        admission.accepted(3, 1010 * MS);
+        assertThat(admission.getLimit(), is(closeTo(2.5, 1e-9)));
+
+        // Passengers that could not be fired give their permit back, unknown ones are ignored
+        admission.abandon(4);
+        admission.abandon(4);
+        admission.accepted(42, 1010 * MS);
+        assertThat(admission.getInFlight(), is(0L));
+
+        // A batch larger than the limit is admitted in part rather than not at all
+        assertThat(admission.tryAcquire("a", 10_000, 1010 * MS).getGranted(), is(3));
+    }
+
+    @Test
+    public void testTryFireDoesNotBlock() {
+        PartitionedEventBus bus = new PartitionedEventBus(2);
+
+        assertThat(bus.tryFireTopic(EventTopic.SCHEDULING, new Event.ClockTick(1)), is(true));
+        assertThat(bus.tryFireTopic(EventTopic.SCHEDULING, new Event.ClockTick(2)), is(true));
+        assertThat(bus.tryFireTopic(EventTopic.SCHEDULING, new Event.ClockTick(3)), is(false));
+        assertThat(bus.getPending().get(), is(2L));
+    }
+
+    @Test
+    public void testNonBlockingBus() {
+        PartitionedEventBus bus = PartitionedEventBus.nonBlocking(2);
+
+        // Only events from outside are limited by the depth
+        for (int i = 1; i <= 4; i++)
+            bus.fireTopic(EventTopic.SCHEDULING, new Event.ClockTick(i));
+        assertThat(bus.tryFireTopic(EventTopic.SCHEDULING, new Event.ClockTick(5)), is(false));
+        assertThat(bus.getBacklog(), is(4L));
+
+        assertThat(bus.process(4), is(4));
+        assertThat(bus.tryFireTopic(EventTopic.SCHEDULING, new Event.ClockTick(5)), is(true));
+    }
+
+    @Test
+    public void testTryFireAllStopsWhenFull() {
+        PartitionedEventBus bus = new PartitionedEventBus(3);
+        List<Event> events = List.of(
+                new Event.ClockTick(1), new Event.ClockTick(2), new Event.ClockTick(3), new Event.ClockTick(4));
+
+        assertThat(bus.tryFireTopicAll(EventTopic.SCHEDULING, events), is(3));
+        assertThat(bus.getPending().get(), is(3L));
+        assertThat(bus.tryFireTopicAll(EventTopic.SCHEDULING, events), is(0));
+    }
+}
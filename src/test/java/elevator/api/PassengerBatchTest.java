@@ -0,0 +1,158 @@
+package elevator.api;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventTopic;
+import elevator.event.PartitionedEventBus;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+
+public class PassengerBatchTest {
+    @Test
+    public void testIntField() {
+        assertThat(PassengerBatch.intField("{\"origin\": 12, \"dest\":-3}", "origin"), is(12));
+        assertThat(PassengerBatch.intField("{\"origin\": 12, \"dest\":-3}", "dest"), is(-3));
+        assertThat(PassengerBatch.intField("{\"origin\": \"12\"}", "origin"), is(nullValue()));
+        assertThat(PassengerBatch.intField("{\"dest\": 4}", "origin"), is(nullValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJsonLines() throws IOException {
+        final String body = "{\"origin\":1,\"dest\":5}\n" +
+                "\n" +
+                "{\"origin\":3,\"dest\":3}\n" +
+                "not json\n" +
+                "{\"dest\":1,\"origin\":9}\n";
+        PassengerBatch batch = PassengerBatch.readJsonLines(new BufferedReader(new StringReader(body)), 10, 100);
+
+        assertThat(batch.size(), is(4));
+        assertThat(batch.count(PassengerBatch.ACCEPTED), is(2));
+        assertThat(batch.count(PassengerBatch.INVALID), is(2));
+
+        EventBus bus = Mockito.mock(EventBus.class);
+        assertThat(batch.submit(bus), is(2));
+
+        ArgumentCaptor<Collection<Event>> fired = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(bus).fireTopicAll(Mockito.eq(EventTopic.SCHEDULING), fired.capture());
+        Event.ScheduleRequest last = (Event.ScheduleRequest) fired.getValue().toArray()[1];
+        assertThat(last.getStart(), is(9));
+        assertThat(last.getPassenger().getId(), is(batch.getId(3)));
+
+        StringWriter out = new StringWriter();
+        batch.writeJsonLines(out);
+        final String[] lines = out.toString().split("\n");
+        assertThat(lines.length, is(4));
+        assertThat(lines[0], startsWith("{\"status\":\"accepted\",\"id\":"));
+        assertThat(lines[1], is("{\"status\":\"invalid\"}"));
+    }
+
+    @Test
+    public void testSameRulesAsSinglePassenger() throws IOException {
+        final String body = "{\"origin\":0,\"dest\":5}\n" +
+                "{\"origin\":5,\"dest\":0}\n" +
+                "{\"origin\":9,\"dest\":1}\n";
+        PassengerBatch batch = PassengerBatch.readJsonLines(new BufferedReader(new StringReader(body)), 10, 100);
+
+        for (int i = 0; i < batch.size(); i++)
+            assertThat(batch.getStatus(i) == PassengerBatch.ACCEPTED, is(i == 2));
+        assertThat(Trips.isValid(10, 0, 5), is(false));
+        assertThat(Trips.isValid(10, 9, 1), is(true));
+    }
+
+    @Test
+    public void testInvalidPassengerTakesNoPermit() {
+        AdmissionControl admission = new AdmissionControl(1000, 1000, TimeUnit.SECONDS.toNanos(1), 2, 1, 10, 0.5);
+        EventBus bus = Mockito.mock(EventBus.class);
+        Mockito.when(bus.tryFireTopicAll(Mockito.any(), Mockito.any()))
+                .thenAnswer(call -> call.<Collection<?>>getArgument(1).size());
+
+        for (int i = 0; i < 10; i++) {
+            PassengerBatch invalid = PassengerBatch.of(10, 0, 5);
+            assertThat(invalid.admit(admission, "a", bus).isAdmitted(), is(true));
+            assertThat(invalid.getStatus(0), is(PassengerBatch.INVALID));
+        }
+        assertThat(admission.getInFlight(), is(0L));
+        Mockito.verifyNoInteractions(bus);
+
+        PassengerBatch valid = PassengerBatch.of(10, 3, 5);
+        assertThat(valid.admit(admission, "a", bus).isAdmitted(), is(true));
+        assertThat(valid.getStatus(0), is(PassengerBatch.ACCEPTED));
+        assertThat(admission.getInFlight(), is(1L));
+    }
+
+    @Test
+    public void testFullQueueReturnsPermit() {
+        AdmissionControl admission = new AdmissionControl(1000, 1000, TimeUnit.SECONDS.toNanos(1), 2, 1, 10, 0.5);
+        EventBus bus = Mockito.mock(EventBus.class);
+
+        PassengerBatch passenger = PassengerBatch.of(10, 3, 5);
+        assertThat(passenger.admit(admission, "a", bus).isAdmitted(), is(true));
+        assertThat(passenger.getStatus(0), is(PassengerBatch.OVERLOADED));
+        assertThat(passenger.getId(0), is(-1L));
+        assertThat(admission.getInFlight(), is(0L));
+    }
+
+    @Test
+    public void testBatchOverLimit() throws IOException {
+        AdmissionControl admission = new AdmissionControl(1000, 1000, TimeUnit.SECONDS.toNanos(1), 4, 1, 10, 0.5);
+        PartitionedEventBus bus = new PartitionedEventBus(3);
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 6; i++)
+            body.append("{\"origin\":1,\"dest\":2}\n");
+        PassengerBatch batch = PassengerBatch.readJsonLines(new BufferedReader(new StringReader(body.toString())), 10, 100);
+
+        // Four permits, of which only three fit in the queue
+        final AdmissionControl.Decision decision = batch.admit(admission, "a", bus);
+        assertThat(decision.getGranted(), is(4));
+        assertThat(batch.count(PassengerBatch.ACCEPTED), is(3));
+        assertThat(batch.count(PassengerBatch.OVERLOADED), is(3));
+        assertThat(batch.getId(3), is(-1L));
+        assertThat(admission.getInFlight(), is(3L));
+        assertThat(bus.getBacklog(), is(3L));
+    }
+
+    @Test
+    public void testBinary() throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(PassengerBatch.RECORD_SIZE * 3 + 2);
+        body.putInt(1).putInt(2);
+        body.putInt(4).putInt(40);
+        body.putInt(7).putInt(1);
+        body.put((byte) 1).put((byte) 2);
+
+        PassengerBatch batch = PassengerBatch.readBinary(new ByteArrayInputStream(body.array()), 10, 100);
+        assertThat(batch.size(), is(4));
+
+        batch.rejectAll(PassengerBatch.OVERLOADED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batch.writeBinary(out);
+        assertThat(out.toByteArray(), is(new byte[]{
+                PassengerBatch.OVERLOADED, PassengerBatch.INVALID, PassengerBatch.OVERLOADED, PassengerBatch.INVALID}));
+    }
+
+    @Test(expected = PassengerBatch.BatchTooLargeException.class)
+    public void testTooLarge() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 101; i++)
+            body.append("{\"origin\":1,\"dest\":2}\n");
+
+        PassengerBatch.readJsonLines(new BufferedReader(new StringReader(body.toString())), 10, 100);
+    }
+}
@@ -0,0 +1,106 @@
+package elevator.api;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+import elevator.traffic.TrafficGenerator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StressJobsTest {
+    /**
+     * Collects scheduled passengers instead of running a simulation.
+     */
+    private static class CollectingBus implements EventBus {
+        final List<Passenger> scheduled = new ArrayList<>();
+
+        @Override
+        public void attachTopic(EnumSet<EventTopic> topics, elevator.event.EventReactor reactor) {
+        }
+
+        @Override
+        public synchronized void fireTopic(EventTopic topic, Event event) {
+            scheduled.add(((Event.ScheduleRequest) event).getPassenger());
+        }
+
+        @Override
+        public synchronized void fireTopicAll(EventTopic topic, Collection<? extends Event> events) {
+            events.forEach(e -> fireTopic(topic, e));
+        }
+
+        synchronized List<Passenger> snapshot() {
+            return new ArrayList<>(scheduled);
+        }
+    }
+
+    private static void awaitSubmitted(StressJob job, long count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (job.getSubmitted() < count && System.currentTimeMillis() < deadline)
+            Thread.sleep(StressJob.PERIOD_MILLIS);
+    }
+
+    private static TrafficGenerator traffic() {
+        return TrafficGenerator.builder().floors(20).seed(7).build();
+    }
+
+    @Test
+    public void testClosedLoop() throws InterruptedException {
+        CollectingBus bus = new CollectingBus();
+        StressJobs jobs = new StressJobs(bus, 1);
+        StressJob job = jobs.startClosedLoop(10, 4, traffic());
+
+        awaitSubmitted(job, 4);
+        Thread.sleep(5 * StressJob.PERIOD_MILLIS);
+        assertThat(job.getSubmitted(), is(4L));
+
+        // Dropping off two passengers makes room for two more
+        final List<Passenger> first = bus.snapshot();
+        for (Passenger p : first.subList(0, 2)) {
+            jobs.onEvent(bus, new Event.RequestAccepted(new Event.AssignRequest(p, 0, 1)));
+            jobs.onEvent(bus, new Event.DropPassenger(5, 1, p));
+        }
+        awaitSubmitted(job, 6);
+        Thread.sleep(5 * StressJob.PERIOD_MILLIS);
+        assertThat(job.getSubmitted(), is(6L));
+        assertThat(job.getServed(), is(2L));
+        assertThat(job.toJson(), containsString("\"accepted\":2"));
+
+        assertThat(jobs.cancel(job.getId()), is(true));
+        assertThat(job.getState(), is(StressJob.State.CANCELLED));
+        assertThat(jobs.cancel(job.getId()), is(false));
+
+        // Events of a cancelled job's passengers are no longer counted
+        jobs.onEvent(bus, new Event.DropPassenger(5, 1, first.get(2)));
+        assertThat(job.getServed(), is(2L));
+    }
+
+    @Test
+    public void testOpenLoop() throws InterruptedException {
+        CollectingBus bus = new CollectingBus();
+        StressJobs jobs = new StressJobs(bus, 1);
+        StressJob job = jobs.startOpenLoop(20, 1000.0, traffic());
+
+        // Submissions do not wait for passengers to be served
+        awaitSubmitted(job, 20);
+        assertThat(job.getSubmitted(), is(20L));
+        assertThat(job.getState(), is(StressJob.State.DRAINING));
+
+        for (Passenger p : bus.snapshot())
+            jobs.onEvent(bus, new Event.DropPassenger(5, 1, p));
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (job.getState() != StressJob.State.DONE && System.currentTimeMillis() < deadline)
+            Thread.sleep(StressJob.PERIOD_MILLIS);
+        assertThat(job.getState(), is(StressJob.State.DONE));
+        assertThat(job.toJson(), containsString("\"served\":20"));
+    }
+}
@@ -0,0 +1,68 @@
+package elevator.event;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class BusInstrumentationTest {
+    private static class Counter implements EventReactor {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void onEvent(EventBus bus, Event event) {
+            count.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testPartitionedBus() {
+        BusInstrumentation instrumentation = new BusInstrumentation();
+        PartitionedEventBus bus = new PartitionedEventBus(16).instrument(instrumentation);
+        Counter counter = new Counter();
+        bus.attachTopic(EnumSet.of(EventTopic.DEFAULT, EventTopic.ELEVATOR), counter);
+
+        bus.fire(new Event.ClockTick(1));
+        bus.fire(new Event.ClockTick(2));
+        bus.fireTopic(EventTopic.ELEVATOR, new Event.ElevatorIdle(1, 3));
+        bus.processAll();
+
+        assertThat(counter.count.get(), is(3));
+        assertThat(instrumentation.getFired().get("DEFAULT"), is(2L));
+        assertThat(instrumentation.getDispatched().get("DEFAULT"), is(2L));
+        assertThat(instrumentation.getDispatched().get("ELEVATOR"), is(1L));
+        assertThat(instrumentation.getDispatched().get("SCHEDULING"), is(0L));
+        assertThat(instrumentation.getHandlerCalls().get("Counter"), is(3L));
+        assertThat(instrumentation.getQueueWaitMean().get("DEFAULT"), is(greaterThan(0.0)));
+        assertThat(instrumentation.toJson(), containsString("\"Counter\":{\"calls\":3"));
+    }
+
+    @Test
+    public void testSynchronizedBus() {
+        BusInstrumentation instrumentation = new BusInstrumentation();
+        SynchronizedEventBus bus = new SynchronizedEventBus();
+        Counter counter = new Counter();
+        bus.attach(counter);
+
+        bus.fire(new Event.ClockTick(1));
+        bus.instrument(instrumentation);
+        bus.fire(new Event.ClockTick(2));
+        bus.processAll();
+
+        // Only events fired after instrumenting are recorded, but all are dispatched
+        assertThat(counter.count.get(), is(2));
+        assertThat(instrumentation.getDispatched().get("DEFAULT"), is(1L));
+        assertThat(instrumentation.getHandlerCalls().get("Counter"), is(1L));
+
+        bus.instrument(null);
+        bus.fire(new Event.ClockTick(3));
+        bus.processAll();
+        assertThat(counter.count.get(), is(3));
+        assertThat(instrumentation.getDispatched().get("DEFAULT"), is(1L));
+    }
+}
@@ -0,0 +1,51 @@
+package elevator.journal;
+
+import elevator.event.Event;
+import elevator.event.EventTopic;
+import elevator.model.Passenger;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventHeaderTest {
+    @Test
+    public void testRoundTrip() {
+        final long header = EventHeader.of(EventTopic.PASSENGER, new Event.LoadPassenger(999, 42, new Passenger(3)));
+
+        assertThat(EventHeader.kind(header), is(EventKind.LOAD_PASSENGER));
+        assertThat(EventHeader.topic(header), is(EventTopic.PASSENGER));
+        assertThat(EventHeader.elevator(header), is(42));
+        assertThat(EventHeader.floor(header), is(999));
+    }
+
+    @Test
+    public void testMissingIds() {
+        final long header = EventHeader.of(EventTopic.DEFAULT, new Event.ClockTick(12));
+
+        assertThat(EventHeader.kind(header), is(EventKind.CLOCK_TICK));
+        assertThat(EventHeader.elevator(header), is(EventHeader.NONE));
+        assertThat(EventHeader.floor(header), is(EventHeader.NONE));
+
+        // Excerpts written without a header read back as zero
+        assertThat(EventHeader.kind(0), is(EventKind.UNKNOWN));
+        assertThat(EventHeader.elevator(0), is(EventHeader.NONE));
+    }
+
+    @Test
+    public void testFilters() {
+        final long arrived = EventHeader.of(EventTopic.ELEVATOR, new Event.ElevatorArrived(7, 30, 100));
+        final long tick = EventHeader.of(EventTopic.DEFAULT, new Event.ClockTick(100));
+
+        final EventFilter kinds = EventFilter.kinds(EventKind.ELEVATOR_ARRIVED, EventKind.ELEVATOR_IDLE);
+        assertTrue(kinds.test(arrived));
+        assertFalse(kinds.test(tick));
+
+        assertTrue(kinds.and(EventFilter.elevator(7)).test(arrived));
+        assertFalse(kinds.and(EventFilter.elevator(8)).test(arrived));
+        assertTrue(EventFilter.floor(30).or(EventFilter.kinds(EventKind.CLOCK_TICK)).test(tick));
+        assertFalse(EventFilter.all().negate().test(tick));
+    }
+}
@@ -0,0 +1,68 @@
+package elevator.live;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+public class LiveFramesTest {
+    private static BuildingSnapshot snapshot(long clock, int numElevators, int numFloors) {
+        BuildingSnapshot state = new BuildingSnapshot(numElevators, numFloors);
+        state.clock = clock;
+        for (int i = 0; i < numElevators; i++)
+            state.elevatorFloors[i] = i * 7 % numFloors;
+        for (int i = 0; i < numFloors; i++)
+            state.waiting[i] = i % 5;
+        return state;
+    }
+
+    @Test
+    public void testVarints() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, 127, 128, 300, 1L << 35, Long.MAX_VALUE};
+        for (long v : values)
+            LiveFrames.putVarint(buffer, v);
+
+        buffer.flip();
+        for (long v : values)
+            assertThat(LiveFrames.getVarint(buffer), is(v));
+    }
+
+    @Test
+    public void testKeyframeAndDelta() {
+        BuildingSnapshot first = snapshot(10, 100, 1000);
+        BuildingSnapshot second = snapshot(11, 100, 1000);
+        second.elevatorFloors[3] = 999;
+        second.directions[3] = 1;
+        second.directions[4] = -1;
+        second.waiting[0] = 42;
+        second.waiting[998] = 300;
+
+        final ByteBuffer keyframe = LiveFrames.keyframe(first);
+        final BuildingSnapshot decoded = LiveFrames.apply(keyframe, null);
+        assertThat(decoded, is(first));
+
+        final ByteBuffer delta = LiveFrames.delta(first, second);
+        assertThat(delta.remaining(), is(lessThan(20)));
+        assertThat(LiveFrames.apply(delta, decoded), is(second));
+    }
+
+    @Test
+    public void testEmptyDelta() {
+        BuildingSnapshot state = snapshot(5, 10, 50);
+        BuildingSnapshot next = snapshot(6, 10, 50);
+
+        final ByteBuffer delta = LiveFrames.delta(state, next);
+        assertThat(delta.remaining(), is(4));
+        assertThat(LiveFrames.apply(delta, state).getClock(), is(6L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDeltaWithoutKeyframe() {
+        BuildingSnapshot state = snapshot(5, 10, 50);
+        LiveFrames.apply(LiveFrames.delta(state, state), null);
+    }
+}
@@ -0,0 +1,84 @@
+package elevator.live;
+
+import elevator.event.EventBus;
+import elevator.model.Building;
+import elevator.scheduling.GreedyScheduler;
+import elevator.simulation.DeferredEventQueue;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LiveStateBroadcasterTest {
+    private static class RecordingSink implements LiveStateBroadcaster.Sink {
+        final List<ByteBuffer> frames = new ArrayList<>();
+        CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+        boolean stalled = false;
+
+        @Override
+        public CompletableFuture<Void> send(ByteBuffer frame) {
+            frames.add(frame);
+            pending = stalled ? new CompletableFuture<>() : CompletableFuture.completedFuture(null);
+            return pending;
+        }
+    }
+
+    @Test
+    public void testSlowViewerIsCoalesced() {
+        Building building = Building.builder()
+                .floors(10)
+                .elevators(2)
+                .setEventBus(Mockito.mock(EventBus.class))
+                .scheduler(new GreedyScheduler())
+                .eventQueue(new DeferredEventQueue())
+                .build();
+        AtomicLong clock = new AtomicLong(0);
+        LiveStateBroadcaster broadcaster = new LiveStateBroadcaster(building, clock::get);
+
+        RecordingSink fast = new RecordingSink();
+        RecordingSink slow = new RecordingSink();
+        broadcaster.connect("fast", fast);
+        broadcaster.connect("slow", slow);
+
+        clock.set(1);
+        broadcaster.broadcast();
+        assertThat(fast.frames.get(0).get(0), is(LiveFrames.KEYFRAME));
+        assertThat(slow.frames.get(0).get(0), is(LiveFrames.KEYFRAME));
+
+        // The slow viewer stalls on its next frame and misses two more
+        slow.stalled = true;
+        for (int t = 2; t <= 4; t++) {
+            clock.set(t);
+            broadcaster.broadcast();
+        }
+        assertThat(fast.frames.size(), is(4));
+        assertThat(fast.frames.get(3).get(0), is(LiveFrames.DELTA));
+        assertThat(slow.frames.size(), is(2));
+        assertThat(broadcaster.getFramesSkipped(), is(2L));
+
+        // Once caught up it resumes from a keyframe of the latest state
+        slow.stalled = false;
+        slow.pending.complete(null);
+        clock.set(5);
+        broadcaster.broadcast();
+        assertThat(slow.frames.size(), is(3));
+        final BuildingSnapshot state = LiveFrames.apply(slow.frames.get(2), null);
+        assertThat(state.getClock(), is(5L));
+
+        // Fast viewer followed every delta to the same state
+        BuildingSnapshot replayed = null;
+        for (ByteBuffer frame : fast.frames)
+            replayed = LiveFrames.apply(frame, replayed);
+        assertThat(replayed, is(state));
+
+        broadcaster.disconnect("slow");
+        assertThat(broadcaster.getNumViewers(), is(1));
+    }
+}
@@ -0,0 +1,53 @@
+package elevator.metrics;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.model.Passenger;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BuildingStatsTest {
+    @Test
+    public void testPassengerLifecycle() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        BuildingStats stats = new BuildingStats(2);
+        Passenger passenger = new Passenger(9);
+        Event.AssignRequest assignment = new Event.AssignRequest(passenger, 3, 1, 10, 20);
+
+        assertThat(stats.getIdleElevators(), is(2L));
+
+        stats.onEvent(bus, new Event.RequestAccepted(assignment));
+        stats.onEvent(bus, new Event.RequestAccepted(assignment));  // already busy
+        stats.onEvent(bus, new Event.PassengerWaiting(passenger, 3, 1));
+        assertThat(stats.getIdleElevators(), is(1L));
+        assertThat(stats.getWaiting(), is(1L));
+
+        stats.onEvent(bus, new Event.LoadPassenger(3, 1, passenger));
+        assertThat(stats.getWaiting(), is(0L));
+        assertThat(stats.getInTransit(), is(1L));
+
+        stats.onEvent(bus, new Event.DropPassenger(9, 1, passenger));
+        stats.onEvent(bus, new Event.ElevatorIdle(1, 9));
+        stats.onEvent(bus, new Event.ElevatorIdle(1, 9));  // already idle
+
+        assertThat(stats.getInTransit(), is(0L));
+        assertThat(stats.getServed(), is(1L));
+        assertThat(stats.getIdleElevators(), is(2L));
+    }
+
+    @Test
+    public void testMissedConnection() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        BuildingStats stats = new BuildingStats(1);
+        Passenger passenger = new Passenger(9);
+
+        stats.onEvent(bus, new Event.PassengerWaiting(passenger, 3, 0));
+        stats.onEvent(bus, new Event.MissedConnection(3, 0, passenger));
+
+        assertThat(stats.getWaiting(), is(0L));
+        assertThat(stats.getMissed(), is(1L));
+    }
+}
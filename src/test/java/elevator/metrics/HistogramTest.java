@@ -0,0 +1,104 @@
+package elevator.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class HistogramTest {
+    @Test
+    public void testBucketBounds() {
+        for (long v : new long[]{0, 1, 63, 64, 65, 127, 128, 1000, 123456789L, Long.MAX_VALUE / 2}) {
+            final int bucket = Histogram.bucketOf(v);
+            assertThat(bucket, is(lessThan(Histogram.NUM_BUCKETS)));
+            assertThat(Histogram.highestValueOf(bucket), is(greaterThanOrEqualTo(v)));
+
+            // Relative error stays within one sub-bucket
+            assertThat((double) Histogram.highestValueOf(bucket) - v, is(lessThanOrEqualTo(v / 32.0 + 1)));
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++)
+            histogram.record(i);
+
+        assertThat(histogram.getTotalCount(), is(100L));
+        assertThat(histogram.getMean(), is(closeTo(50.5, 0.001)));
+        assertThat(histogram.getMax(), is(100L));
+        assertThat(histogram.getValueAtPercentile(50), is(50L));
+        assertThat(histogram.getValueAtPercentile(99), is(both(greaterThanOrEqualTo(99L)).and(lessThanOrEqualTo(100L))));
+    }
+
+    @Test
+    public void testSubtract() {
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+        a.record(5);
+        b.record(500);
+
+        Histogram sum = new Histogram();
+        sum.add(a);
+        sum.add(b);
+        assertThat(sum.getMax(), is(500L));
+
+        sum.subtract(b);
+        assertThat(sum.getTotalCount(), is(1L));
+        assertThat(sum.getMax(), is(5L));
+        assertThat(sum.getValueAtPercentile(100), is(5L));
+    }
+
+    @Test
+    public void testSlidingWindowExpiry() {
+        SlidingWindow window = new SlidingWindow(10, 5, 1);
+
+        window.advance(1);
+        window.record(3);
+        window.increment(0);
+
+        window.advance(5);
+        window.record(7);
+        window.increment(0);
+
+        assertThat(window.getHistogram().getTotalCount(), is(2L));
+        assertThat(window.getCount(0), is(2L));
+
+        // Slot holding tick 1 falls out of the window
+        window.advance(11);
+        assertThat(window.getHistogram().getTotalCount(), is(1L));
+        assertThat(window.getHistogram().getMax(), is(7L));
+        assertThat(window.getCount(0), is(1L));
+
+        // Skipping far ahead clears everything
+        window.advance(1000);
+        assertThat(window.getHistogram().getTotalCount(), is(0L));
+        assertThat(window.getCount(0), is(0L));
+    }
+
+    @Test
+    public void testConcurrentSnapshot() throws InterruptedException {
+        ConcurrentHistogram concurrent = new ConcurrentHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= 1000; i++)
+                    concurrent.record(i);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        Histogram reference = new Histogram();
+        for (int i = 1; i <= 1000; i++)
+            reference.record(i);
+
+        final Histogram snapshot = concurrent.snapshot();
+        assertThat(snapshot.getTotalCount(), is(4000L));
+        assertThat(snapshot.getMax(), is(1000L));
+        assertThat(snapshot.getMean(), is(closeTo(reference.getMean(), 0.001)));
+        assertThat(snapshot.getValueAtPercentile(99), is(reference.getValueAtPercentile(99)));
+    }
+}
@@ -0,0 +1,49 @@
+package elevator.metrics;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.model.Passenger;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class MetricsReactorTest {
+    @Test
+    public void testPassengerLifecycle() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        MetricsReactor metrics = new MetricsReactor(2, 100, 10);
+        Passenger passenger = new Passenger(9);
+        Event.AssignRequest assignment = new Event.AssignRequest(passenger, 3, 1, 10, 20);
+
+        metrics.onEvent(bus, new Event.ClockTick(10));
+        metrics.onEvent(bus, new Event.ScheduleRequest(passenger, 3));
+        metrics.onEvent(bus, new Event.RequestRejected(assignment));
+        metrics.onEvent(bus, new Event.ScheduleRequest(passenger, 3));  // retry keeps original request time
+        metrics.onEvent(bus, new Event.RequestAccepted(assignment));
+
+        metrics.onEvent(bus, new Event.ClockTick(14));
+        metrics.onEvent(bus, new Event.LoadPassenger(3, 1, passenger));
+
+        metrics.onEvent(bus, new Event.ClockTick(20));
+        metrics.onEvent(bus, new Event.DropPassenger(9, 1, passenger));
+        metrics.onEvent(bus, new Event.ElevatorIdle(1, 9));
+        metrics.onEvent(bus, new Event.ClockTick(30));
+
+        assertThat(metrics.getServed(), is(1L));
+        assertThat(metrics.getRejected(), is(1L));
+        assertThat(metrics.getRejectionRate(), is(closeTo(0.5, 0.001)));
+        assertThat(metrics.getMeanWait(), is(closeTo(4.0, 0.001)));
+        assertThat(metrics.getWaitPercentile(99), is(4L));
+        assertThat(metrics.getMeanRide(), is(closeTo(6.0, 0.001)));
+
+        // Elevator 1 was busy from tick 10 to 20 of the 20 ticks observed
+        assertThat(metrics.getUtilization(0), is(closeTo(0.0, 0.001)));
+        assertThat(metrics.getUtilization(1), is(closeTo(0.5, 0.001)));
+
+        assertThat(metrics.toJson(), containsString("\"served\":1"));
+    }
+}
@@ -9,6 +9,7 @@ import org.mockito.Mockito;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
@@ -42,6 +43,47 @@ public class ElevatorTest {
         assertThat(dropped.getPassenger(), is(passenger));
     }
 
+    @Test
+    public void testPeakLoad() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        Floor orig = new Floor(5,1);
+        Elevator elevator = new ElevatorFactory(10).setCapacity(4).create(0);
+
+        elevator.onEvent(bus, new Event.LoadPassenger(orig, elevator, new Passenger(orig, new Floor(7, 1))));
+        elevator.onEvent(bus, new Event.LoadPassenger(orig, elevator, new Passenger(orig, new Floor(9, 1))));
+        elevator.onEvent(bus, new Event.ElevatorArrived(elevator, new Floor(7, 1)));
+
+        assertThat(elevator.getPassengerCount(), is(1));
+        assertThat(elevator.getPeakLoad(), is(2));
+        assertThat(elevator.getCapacity(), is(4));
+    }
+
+    @Test
+    public void testBoardingBeforeUnloading() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        Floor orig = new Floor(3, 1);
+        Floor dest = new Floor(10, 1);
+        Elevator elevator = new ElevatorFactory(20).setCapacity(1).create(0);
+        Passenger first = new Passenger(orig, dest);
+        Passenger second = new Passenger(dest, orig);
+
+        assertThat(elevator.getRoom(3), is(1));
+        elevator.onEvent(bus, new Event.LoadPassenger(orig, elevator, first));
+        assertThat(elevator.getRoom(3), is(0));
+        assertThat(elevator.getRoom(10), is(1));
+
+        // The floor may board the next passenger before the elevator has let the first one off
+        elevator.onEvent(bus, new Event.LoadPassenger(dest, elevator, second));
+        assertThat(elevator.getPeakLoad(), is(1));
+
+        elevator.onEvent(bus, new Event.ElevatorArrived(0, 10, 0));
+        assertThat(elevator.getPassengers(), contains(second));
+
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(bus, times(1)).fireTopic(any(EventTopic.class), captor.capture());
+        assertThat(((Event.DropPassenger) captor.getValue()).getPassenger(), is(first));
+    }
+
     // TODO test request assignment
     // TODO test clock tick handling
 }
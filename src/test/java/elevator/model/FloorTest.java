@@ -7,6 +7,9 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.util.Collections;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,4 +37,35 @@ public class FloorTest {
         assertThat(captor.getValue(), is(instanceOf(Event.LoadPassenger.class)));
     }
 
+    @Test
+    public void testBoardsPlannedTrip() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        Floor floor = new Floor(3, 1);
+        Passenger first = new Passenger(3, 10);
+        Passenger second = new Passenger(3, 12);
+        Passenger third = new Passenger(3, 14);
+
+        // A full car plans the second passenger for its next stop here
+        floor.onEvent(bus, new Event.RequestAccepted(new Event.AssignRequest(second, 3, 0), 1));
+        floor.onEvent(bus, new Event.RequestAccepted(new Event.AssignRequest(first, 3, 0), 0));
+        floor.onEvent(bus, new Event.ElevatorArrived(0, 3, 5, 1));
+        assertThat(floor.getPassengers(), is(Collections.singleton(second)));
+
+        // Assigned during the stop, which repeats the arrival. The seat was taken by the first passenger already
+        floor.onEvent(bus, new Event.RequestAccepted(new Event.AssignRequest(third, 3, 0), -1));
+        floor.onEvent(bus, new Event.ElevatorArrived(0, 3, 5, 1));
+        assertThat(floor.getPassengerCount(), is(1));
+
+        floor.onEvent(bus, new Event.ElevatorArrived(0, 3, 19, 1));
+        assertThat(floor.getPassengerCount(), is(0));
+
+        // Only one fits per stop, the passenger left behind is handed back for rescheduling
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(bus, times(6)).fireTopic(any(EventTopic.class), captor.capture());
+        List<Event> fired = captor.getAllValues();
+        assertThat(((Event.LoadPassenger) fired.get(2)).getPassenger(), is(first));
+        assertThat(((Event.MissedConnection) fired.get(4)).getPassenger(), is(third));
+        assertThat(((Event.LoadPassenger) fired.get(5)).getPassenger(), is(second));
+    }
+
 }
@@ -0,0 +1,44 @@
+package elevator.model;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+public class PassengerSlotsTest {
+    @Test
+    public void testDrainSlot() {
+        PassengerSlots slots = new PassengerSlots(1000);
+        Passenger a = new Passenger(0, 10);
+        Passenger b = new Passenger(0, 10);
+        Passenger c = new Passenger(0, 20);
+
+        slots.add(10, a);
+        slots.add(10, b);
+        slots.add(20, c);
+
+        assertThat(slots.size(), is(3));
+        assertThat(slots.count(10), is(2));
+        assertThat(slots.drain(999), is(empty()));
+
+        assertThat(slots.drain(10), hasItems(a, b));
+        assertThat(slots.count(10), is(0));
+        assertThat(slots.size(), is(1));
+        assertThat(slots.toSet(), hasItems(c));
+    }
+
+    @Test
+    public void testReassignSlot() {
+        PassengerSlots slots = new PassengerSlots(4);
+        Passenger a = new Passenger(0, 1);
+
+        slots.add(1, a);
+        slots.add(3, a);
+
+        assertThat(slots.size(), is(1));
+        assertThat(slots.count(1), is(0));
+        assertThat(slots.drain(3), hasItems(a));
+    }
+}
@@ -0,0 +1,51 @@
+package elevator.model;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PassengerTest {
+    @Test
+    public void testIdsAreUniqueAcrossThreads() {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(new Passenger(0, 1).getId()));
+
+        assertThat(ids.size(), is(50_000));
+    }
+
+    @Test
+    public void testIdsCarryProcessPrefix() {
+        Passenger passenger = new Passenger(0, 1);
+
+        assertThat(passenger.getId() > 0, is(true));
+        assertThat(passenger.getId() >>> Passenger.SEQUENCE_BITS, is(Passenger.PROCESS_PREFIX));
+    }
+
+    @Test
+    public void testIdentity() {
+        Passenger a = new Passenger(0, 5);
+        Passenger b = new Passenger(0, 5);
+
+        assertThat(a, not(b));
+        assertThat(Passenger.withId(a.getId(), 5), is(a));
+        assertThat(Passenger.withId(a.getId(), 5).hashCode(), is(a.hashCode()));
+    }
+
+    @Test
+    public void testUuidRoundTrip() {
+        Passenger passenger = new Passenger(3, 7);
+
+        assertThat(Passenger.idOf(passenger.toUuid()), is(passenger.getId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignUuid() {
+        Passenger.idOf(java.util.UUID.randomUUID());
+    }
+}
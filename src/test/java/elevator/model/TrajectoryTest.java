@@ -177,6 +177,105 @@ public class TrajectoryTest {
         assertFalse(Splice.splice(79, points, 5, 10).isDefined());
 
         assertThat(Splice.splice(79, points, 45, 82).get(), is(Queue.of(44, 45, 65, 82, 90, 91)));
+
+        final int[] stops = new int[2];
+        Splice.splice(79, points, 82, 94, false, stops);
+        assertThat(stops[0], is(2));
+        assertThat(stops[1], is(5));
+
+        // Existing turnpoints are reused
+        Splice.splice(79, points, 65, 90, false, stops);
+        assertThat(stops[0], is(1));
+        assertThat(stops[1], is(2));
+    }
+
+    @Test
+    public void testLoad() {
+        Trajectory trajectory = new Trajectory(0, 0).extend(2, 10).augment(4, 8);
+
+        assertThat(trajectory.getTurnpoints(), is(List.of(2, 4, 8, 10).asJava()));
+        assertThat(trajectory.getLoad(), is(0));
+        assertThat(trajectory.getPeakLoad(), is(2));
+
+        // Passengers count as aboard once the elevator leaves their floor
+        assertThat(trajectory.advance(3).getLoad(), is(1));
+        assertThat(trajectory.advance(5).getLoad(), is(2));
+        assertThat(trajectory.advance(5).getPeakLoad(), is(2));
+        assertThat(trajectory.advance(9).getLoad(), is(1));
+        assertThat(trajectory.advance(9).getPeakLoad(), is(1));
+        assertThat(trajectory.advance(11).getLoad(), is(0));
+        assertThat(trajectory.advance(11).getPeakLoad(), is(0));
+
+        assertThat(trajectory.step().step().step().getLoad(), is(1));
+    }
+
+    @Test
+    public void testCapacity() {
+        Trajectory unlimited = new Trajectory(0, 0).extend(2, 10);
+        Trajectory full = unlimited.withCapacity(1);
+
+        assertTrue(unlimited.includes(4, 8));
+        assertFalse(full.includes(4, 8));
+
+        // A passenger who does not fit waits for the next trip
+        Trajectory augmented = full.augment(4, 8);
+        assertThat(augmented.getTurnpoints(), is(List.of(2, 10, 4, 8).asJava()));
+        assertThat(augmented.getPeakLoad(), is(1));
+        assertThat(augmented.getCapacity(), is(1));
+        assertThat(augmented.getEndTime(), is(20L));
+        assertThat(unlimited.augment(2, 6).getPickupTrip(), is(0));
+        assertThat(full.augment(2, 6).getPickupTrip(), is(1));
+        // Boarding where the last passenger gets off is the same stop
+        assertThat(unlimited.augment(10, 3).getTurnpoints(), is(List.of(2, 10, 10, 3).asJava()));
+        assertThat(unlimited.augment(10, 3).getPickupTrip(), is(0));
+        // The stop the elevator is on has already been arrived at
+        assertThat(unlimited.advance(2).augment(2, 6).getPickupTrip(), is(0));
+        assertThat(new Trajectory(0, 2).augment(2, 6).getPickupTrip(), is(-1));
+
+        // Fits between two passengers
+        Trajectory twoTrips = full.extend(12, 20);
+        assertTrue(twoTrips.includes(10, 12));
+        assertThat(twoTrips.augment(10, 12).getPeakLoad(), is(1));
+        assertFalse(twoTrips.includes(14, 16));
+    }
+
+    @Test
+    public void testAdvanceMatchesStepping() {
+        Trajectory start = Trajectory.createHoming(12, 0, 3)
+                .augment(5, 9)
+                .augment(20, 2);
+
+        Trajectory stepped = start;
+        for (int n = 1; n <= 60; n++) {
+            stepped = stepped.step();
+            Trajectory advanced = start.advance(n);
+
+            assertThat(advanced.getCurrentTime(), is(stepped.getCurrentTime()));
+            assertThat(advanced.getCurrentFloor(), is(stepped.getCurrentFloor()));
+            assertThat(advanced.getTimeLeftOnTask(), is(stepped.getTimeLeftOnTask()));
+            assertThat(advanced.getTurnpoints(), is(stepped.getTurnpoints()));
+            assertThat(advanced.shouldStop(), is(stepped.shouldStop()));
+        }
+
+        assertThat(start.advance(0), is(sameInstance(start)));
+    }
+
+    @Test
+    public void testTicksUntilNextEvent() {
+        Trajectory start = Trajectory.createHoming(12, 0, 3).extend(5, 9);
+
+        assertThat(start.ticksUntilNextEvent(), is(2L));
+        assertTrue(start.advance(2).shouldStop());
+        assertThat(start.advance(2).ticksUntilNextEvent(), is(4L));
+
+        // After the last stop the only event left is arriving home
+        Trajectory last = start.advance(6);
+        assertTrue(last.shouldStop());
+        assertThat(last.ticksUntilNextEvent(), is(3L));
+        assertTrue(last.advance(3).isIdle());
+
+        assertThat(last.advance(3).ticksUntilNextEvent(), is(Long.MAX_VALUE));
+        assertThat(new Trajectory(0, 0).ticksUntilNextEvent(), is(Long.MAX_VALUE));
     }
 }
 
@@ -49,6 +49,27 @@ public class GreedySchedulerTest {
         assertThat(assignment.get().getPassenger(), is(p1));
     }
 
+    @Test
+    public void testAllOnStartFloor() {
+        EventBus bus = Mockito.mock(EventBus.class);
+
+        GreedyScheduler scheduler = new GreedyScheduler();
+        Elevator[] elevators = Stream.range(0, 2).map(i -> Mockito.mock(Elevator.class)).toJavaArray(Elevator.class);
+        Mockito.when(elevators[0].getTrajectory()).thenReturn(Trajectory.createHoming(0, 20, 4).extend(4, 9));
+        Mockito.when(elevators[1].getTrajectory()).thenReturn(Trajectory.createHoming(4, 20, 4));
+
+        scheduler.setElevators(elevators);
+        Passenger p1 = new Passenger(1);
+        scheduler.onEvent(bus, new Event.ScheduleRequest(p1, 4));
+
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(bus).fireTopic(any(EventTopic.class), captor.capture());
+
+        Event.AssignRequest assignment = (Event.AssignRequest) captor.getValue();
+        assertThat(assignment.getElevator(), is(1));
+        assertThat(assignment.getPassenger(), is(p1));
+    }
+
     @Test
     public void testOpenScheduling() {
         EventBus bus = Mockito.mock(EventBus.class);
@@ -82,4 +103,30 @@ public class GreedySchedulerTest {
         assertThat(assignment.get().getFloor(), is(20));
         assertThat(assignment.get().getPassenger(), is(p1));
     }
+
+    @Test
+    public void testFullElevator() {
+        EventBus bus = Mockito.mock(EventBus.class);
+
+        GreedyScheduler scheduler = new GreedyScheduler();
+        Elevator[] elevators = Stream.range(0, 2).map(i -> Mockito.mock(Elevator.class)).toJavaArray(Elevator.class);
+
+        Mockito.when(elevators[0].getTrajectory()).thenReturn(Trajectory.create(0, 0).withCapacity(1).extend(2, 20));  // Passes 5 and 10, but full
+        Mockito.when(elevators[1].getTrajectory()).thenReturn(Trajectory.createHoming(12, 0, 12));
+
+        scheduler.setElevators(elevators);
+        scheduler.onEvent(bus, new Event.ScheduleRequest(new Passenger(10), 5));
+        // Elevator 0 could only pick up after its trip, idle at T=40
+        // Elevator 1 is back home at T=14 <-- winner
+
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(bus, atLeastOnce()).fireTopic(any(EventTopic.class), captor.capture());
+
+        Option<Event.AssignRequest> assignment = List.ofAll(captor.getAllValues())
+                .find(ev -> ev instanceof Event.AssignRequest)
+                .map(ev -> (Event.AssignRequest) ev);
+
+        assertTrue(assignment.isDefined());
+        assertThat(assignment.get().getElevator(), is(1));
+    }
 }
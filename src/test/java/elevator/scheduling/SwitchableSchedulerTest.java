@@ -0,0 +1,83 @@
+package elevator.scheduling;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.event.EventTopic;
+import elevator.model.Elevator;
+import elevator.model.Passenger;
+import elevator.model.Trajectory;
+import io.vavr.collection.List;
+import io.vavr.collection.Stream;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+
+public class SwitchableSchedulerTest {
+    private static Elevator[] elevators() {
+        int[] homeFloors = {3, 17, 25};
+        Elevator[] elevators = Stream.range(0, 3).map(i -> Mockito.mock(Elevator.class)).toJavaArray(Elevator.class);
+
+        long currentTime = 20;
+        Mockito.when(elevators[0].getTrajectory()).thenReturn(Trajectory.createHoming(homeFloors[0], currentTime, 5).extend(8, 1));
+        Mockito.when(elevators[1].getTrajectory()).thenReturn(Trajectory.createHoming(homeFloors[1], currentTime, 7).extend(2, 15));
+        Mockito.when(elevators[2].getTrajectory()).thenReturn(Trajectory.createHoming(homeFloors[2], currentTime, 9).extend(10, 13));
+        return elevators;
+    }
+
+    private static List<Event.AssignRequest> assignments(EventBus bus) {
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(bus, atLeastOnce()).fireTopic(any(EventTopic.class), captor.capture());
+
+        return List.ofAll(captor.getAllValues())
+                .filter(ev -> ev instanceof Event.AssignRequest)
+                .map(ev -> (Event.AssignRequest) ev);
+    }
+
+    @Test
+    public void testShadowIsNotApplied() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        SwitchableScheduler scheduler = new SwitchableScheduler("rrfifo", new RRFIFOScheduler());
+        scheduler.setElevators(elevators());
+        scheduler.shadow("greedy", new GreedyScheduler());
+
+        scheduler.syncEvent(bus, new Event.ScheduleRequest(new Passenger(10), 20));
+
+        // Only the round-robin choice reaches the bus, greedy would have picked elevator 2
+        final List<Event.AssignRequest> assigned = assignments(bus);
+        assertThat(assigned.size(), is(1));
+        assertThat(assigned.head().getElevator(), is(0));
+
+        final String json = scheduler.toJson();
+        assertThat(json, containsString("\"active\":\"rrfifo\""));
+        assertThat(json, containsString("\"shadow\":\"greedy\""));
+        assertThat(json, containsString("{\"name\":\"greedy\",\"decisions\":1,"));
+        assertThat(json, containsString("\"compared\":1,\"agreement\":0.0000}"));
+    }
+
+    @Test
+    public void testSwap() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        SwitchableScheduler scheduler = new SwitchableScheduler("rrfifo", new RRFIFOScheduler());
+        scheduler.setElevators(elevators());
+
+        scheduler.syncEvent(bus, new Event.ScheduleRequest(new Passenger(10), 20));
+        // The new scheduler gets the elevators of the old one
+        scheduler.swap("greedy", new GreedyScheduler());
+        scheduler.syncEvent(bus, new Event.ScheduleRequest(new Passenger(10), 20));
+
+        assertThat(assignments(bus).map(Event.AssignRequest::getElevator), is(List.of(0, 2)));
+        assertThat(scheduler.getActiveName(), is("greedy"));
+        assertThat(scheduler.toJson(), containsString("{\"name\":\"rrfifo\",\"decisions\":1,"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownScheduler() {
+        new SwitchableScheduler("nearest-car");
+    }
+}
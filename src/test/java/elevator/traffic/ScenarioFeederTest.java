@@ -0,0 +1,63 @@
+package elevator.traffic;
+
+import elevator.event.Event;
+import elevator.event.EventBus;
+import elevator.simulation.DeferredEventQueue;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+
+public class ScenarioFeederTest {
+    private static ScenarioReader csv(String text) {
+        return new CsvScenarioReader(new BufferedReader(new StringReader(text)));
+    }
+
+    @Test
+    public void testReadsAheadOfClock() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        DeferredEventQueue queue = new DeferredEventQueue();
+        ScenarioFeeder feeder = new ScenarioFeeder(csv("1,0,5\n3,2,7\n10,4,0\n20,1,9\n500,3,8\n"), queue, 10, 0, 5);
+
+        feeder.fill(0);
+        // Arrivals at 1 and 3 fall in the window, the one at 10 is kept as the next queued event
+        assertThat(feeder.getScheduled(), is(3L));
+        assertThat(queue.peekTime().get(), is(1L));
+
+        queue.onEvent(bus, new Event.ClockTick(10));
+        feeder.onEvent(bus, new Event.ClockTick(10));
+        assertThat(feeder.getScheduled(), is(4L));
+        assertThat(queue.peekTime().get(), is(20L));
+
+        queue.onEvent(bus, new Event.ClockTick(500));
+        feeder.onEvent(bus, new Event.ClockTick(500));
+        queue.onEvent(bus, new Event.ClockTick(501));
+        feeder.onEvent(bus, new Event.ClockTick(501));
+
+        assertThat(feeder.isExhausted(), is(true));
+        Mockito.verify(bus, times(5)).fireTopic(eq(elevator.event.EventTopic.SCHEDULING), any(Event.ScheduleRequest.class));
+    }
+
+    @Test
+    public void testSkipsInvalidTrips() {
+        EventBus bus = Mockito.mock(EventBus.class);
+        DeferredEventQueue queue = new DeferredEventQueue();
+        ScenarioFeeder feeder = new ScenarioFeeder(csv("1,0,5\n2,0,40\n3,7,7\n4,-1,3\n5,4,0\n"), queue, 10, 0, 5);
+
+        feeder.fill(0);
+        queue.onEvent(bus, new Event.ClockTick(5));
+        feeder.onEvent(bus, new Event.ClockTick(5));
+
+        assertThat(feeder.isExhausted(), is(true));
+        assertThat(feeder.getScheduled(), is(2L));
+        assertThat(feeder.getSkipped(), is(3L));
+        Mockito.verify(bus, times(2)).fireTopic(eq(elevator.event.EventTopic.SCHEDULING), any(Event.ScheduleRequest.class));
+    }
+}
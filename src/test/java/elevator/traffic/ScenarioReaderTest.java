@@ -0,0 +1,65 @@
+package elevator.traffic;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ScenarioReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<String> readAll(ScenarioReader reader) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (reader) {
+            while (reader.next())
+                result.add(reader.time() + ":" + reader.origin() + "->" + reader.destination());
+        }
+        return result;
+    }
+
+    @Test
+    public void testCsv() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("rush.csv");
+        Files.write(path, List.of("time,origin,destination", "# morning", "1, 0, 12", "", "1,0,30", "7,15,0"));
+
+        ScenarioReader reader = ScenarioReader.open(path);
+        assertThat(reader, instanceOf(CsvScenarioReader.class));
+        assertThat(readAll(reader), is(List.of("1:0->12", "1:0->30", "7:15->0")));
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        Path csv = folder.getRoot().toPath().resolve("rush.csv");
+        Path binary = folder.getRoot().toPath().resolve("rush.bin");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+            lines.add((i / 3) + "," + (i % 50) + "," + ((i + 7) % 50));
+        Files.write(csv, lines);
+
+        try (BinaryScenarioWriter writer = new BinaryScenarioWriter(binary);
+             ScenarioReader reader = ScenarioReader.open(csv)) {
+            assertThat(writer.appendAll(reader), is(10_000L));
+        }
+
+        assertThat(Files.size(binary), is(10_000L * BinaryScenarioReader.RECORD_SIZE));
+        assertThat(readAll(ScenarioReader.open(binary)), is(readAll(ScenarioReader.open(csv))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnordered() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("bad.csv");
+        Files.write(path, List.of("5,0,1", "4,0,1"));
+
+        readAll(ScenarioReader.open(path));
+    }
+}
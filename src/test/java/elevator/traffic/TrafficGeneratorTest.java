@@ -0,0 +1,112 @@
+package elevator.traffic;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class TrafficGeneratorTest {
+    @Test
+    public void testReproducible() {
+        TrafficGenerator a = TrafficGenerator.builder().floors(50).pattern(TrafficPattern.LUNCH).seed(7).limit(1000).build();
+        TrafficGenerator b = TrafficGenerator.builder().floors(50).pattern(TrafficPattern.LUNCH).seed(7).limit(1000).build();
+
+        long last = 0;
+        while (a.next()) {
+            assertThat(b.next(), is(true));
+            assertThat(a.time(), is(b.time()));
+            assertThat(a.origin(), is(b.origin()));
+            assertThat(a.destination(), is(b.destination()));
+            assertThat(a.origin(), is(not(a.destination())));
+            assertThat(a.time(), is(greaterThanOrEqualTo(last)));
+            last = a.time();
+        }
+
+        assertThat(b.next(), is(false));
+        assertThat(a.getGenerated(), is(1000L));
+    }
+
+    @Test
+    public void testPoissonRate() {
+        TrafficGenerator traffic = TrafficGenerator.builder().floors(10).poisson(2.5).until(100_000).build();
+        while (traffic.next());
+
+        assertThat(traffic.getGenerated() / 100_000.0, is(closeTo(2.5, 0.05)));
+    }
+
+    @Test
+    public void testMarkovModulatedRate() {
+        // Equal mean time in a quiet and a busy state averages the rates
+        TrafficGenerator traffic = TrafficGenerator.builder().floors(10)
+                .markovModulated(new double[]{0.5, 4.5}, new double[]{200, 200})
+                .until(1_000_000)
+                .build();
+        while (traffic.next());
+
+        assertThat(traffic.getGenerated() / 1_000_000.0, is(closeTo(2.5, 0.2)));
+    }
+
+    @Test
+    public void testBuilderSharesNoState() {
+        TrafficGenerator.Builder builder = TrafficGenerator.builder().floors(10).seed(3)
+                .markovModulated(new double[]{0.5, 4.5}, new double[]{20, 20})
+                .limit(1000);
+        TrafficGenerator a = builder.build();
+        TrafficGenerator b = builder.build();
+
+        // Interleaved, so a shared process would hand each one the other's state
+        while (a.next()) {
+            assertThat(b.next(), is(true));
+            assertThat(a.time(), is(b.time()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMarkovModulatedWithoutArrivals() {
+        TrafficGenerator.builder().markovModulated(new double[]{0, 0}, new double[]{200, 200});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMarkovModulatedZeroDuration() {
+        TrafficGenerator.builder().markovModulated(new double[]{0.5, 4.5}, new double[]{200, 0});
+    }
+
+    @Test
+    public void testUpPeakIsLobbyHeavy() {
+        TrafficGenerator traffic = TrafficGenerator.builder().floors(30).pattern(TrafficPattern.UP_PEAK).limit(100_000).build();
+        int fromLobby = 0;
+        while (traffic.next()) {
+            if (traffic.origin() == 0)
+                fromLobby++;
+        }
+
+        assertThat(fromLobby / 100_000.0, is(closeTo(0.85, 0.01)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSingleWeightedFloor() {
+        // Interfloor trips would have no second floor to go to
+        TrafficGenerator.builder().floors(5).pattern(TrafficPattern.INTERFLOOR)
+                .floorWeights(new double[]{1, 0, 0, 4, 0})
+                .build();
+    }
+
+    @Test
+    public void testAliasTable() {
+        AliasTable table = new AliasTable(new double[]{1, 0, 3, 6});
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[4];
+        for (int i = 0; i < 100_000; i++)
+            counts[table.sample(random)]++;
+
+        assertThat(counts[0] / 100_000.0, is(closeTo(0.1, 0.01)));
+        assertThat(counts[1], is(0));
+        assertThat(counts[2] / 100_000.0, is(closeTo(0.3, 0.01)));
+        assertThat(counts[3] / 100_000.0, is(closeTo(0.6, 0.01)));
+    }
+}
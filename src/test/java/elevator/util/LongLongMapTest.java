@@ -0,0 +1,56 @@
+package elevator.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongLongMapTest {
+    @Test
+    public void testBasicOperations() {
+        LongLongMap map = new LongLongMap(4);
+
+        map.put(1, 10);
+        map.put(-7, 70);
+        assertTrue(map.putIfAbsent(0, 5));
+        assertFalse(map.putIfAbsent(1, 99));
+
+        assertThat(map.size(), is(3));
+        assertThat(map.get(1, -1), is(10L));
+        assertThat(map.get(-7, -1), is(70L));
+        assertThat(map.get(42, -1), is(-1L));
+
+        assertThat(map.remove(1, -1), is(10L));
+        assertThat(map.remove(1, -1), is(-1L));
+        assertThat(map.size(), is(2));
+        assertFalse(map.containsKey(1));
+    }
+
+    // Random operations against java.util.HashMap exercise growth and backward-shift deletion
+    @Test
+    public void testAgainstHashMap() {
+        LongLongMap map = new LongLongMap(8);
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(1234);
+
+        for (int i = 0; i < 100_000; i++) {
+            final long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                reference.put(key, (long) i);
+            } else {
+                assertThat(map.remove(key, -1), is(reference.getOrDefault(key, -1L)));
+                reference.remove(key);
+            }
+        }
+
+        assertThat(map.size(), is(reference.size()));
+        reference.forEach((k, v) -> assertThat(map.get(k, -1), is(v)));
+    }
+}
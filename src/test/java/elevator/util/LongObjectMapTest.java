@@ -0,0 +1,71 @@
+package elevator.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongObjectMapTest {
+    @Test
+    public void testBasicOperations() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+
+        assertThat(map.put(1, "one"), is(nullValue()));
+        assertThat(map.put(1, "uno"), is("one"));
+        map.put(-7, "minus seven");
+
+        assertThat(map.size(), is(2));
+        assertThat(map.get(1), is("uno"));
+        assertThat(map.get(42), is(nullValue()));
+        assertTrue(map.containsKey(-7));
+
+        assertThat(map.remove(1), is("uno"));
+        assertThat(map.remove(1), is(nullValue()));
+        assertFalse(map.containsKey(1));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testRemoveIf() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        for (long k = 0; k < 100; k++)
+            map.put(k * 31, k % 3 == 0 ? "fizz" : "other");
+
+        assertThat(map.removeIf("fizz"::equals), is(34));
+        assertThat(map.size(), is(66));
+        for (long k = 0; k < 100; k++)
+            assertThat(map.containsKey(k * 31), is(k % 3 != 0));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        LongObjectMap<Integer> map = new LongObjectMap<>(8);
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(4321);
+
+        for (int i = 0; i < 100_000; i++) {
+            final long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertThat(map.put(key, i), is(reference.put(key, i)));
+            } else {
+                assertThat(map.remove(key), is(reference.remove(key)));
+            }
+        }
+
+        assertThat(map.size(), is(reference.size()));
+        Set<Integer> values = new HashSet<>();
+        map.forEachValue(values::add);
+        assertThat(values, is(new HashSet<>(reference.values())));
+    }
+}
@@ -0,0 +1,103 @@
+package elevator.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TimingWheelTest {
+    @Test
+    public void testFifoWithinTick() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(0);
+        wheel.schedule(70_000, 1);    // filed at level 2
+        wheel.schedule(300, 2);
+        wheel.schedule(70_000, 3);
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(69_999, expired::add);
+        assertThat(expired, is(List.of(2)));
+
+        wheel.schedule(70_000, 4);    // filed at level 0 after the cascade
+        wheel.advance(70_000, expired::add);
+        assertThat(expired, is(List.of(2, 1, 3, 4)));
+        assertThat(wheel.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testNextDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10);
+        assertThat(wheel.nextDeadline(), is(Long.MAX_VALUE));
+
+        wheel.schedule(1L << 40, "far");
+        assertThat(wheel.nextDeadline(), is(1L << 40));
+
+        wheel.schedule(5_000, "later");
+        wheel.schedule(4_097, "sooner");
+        assertThat(wheel.nextDeadline(), is(4_097L));
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(1L << 40, expired::add);
+        assertThat(expired, is(List.of("sooner", "later", "far")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPastDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.advance(100, x -> {});
+        wheel.schedule(99, "late");
+    }
+
+    // Random schedules and advances, including huge jumps, against a priority queue ordered by (deadline, sequence)
+    @Test
+    public void testAgainstPriorityQueue() {
+        Random random = new Random(99);
+        TimingWheel<long[]> wheel = new TimingWheel<>(0);
+        PriorityQueue<long[]> reference = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(e -> e[0]).thenComparingLong(e -> e[1]));
+        long now = 0;
+        long sequence = 0;
+
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = random.nextInt(50); i > 0; i--) {
+                final int range = random.nextInt(4);
+                final long delay = range == 0 ? random.nextInt(300)
+                        : range == 1 ? random.nextInt(100_000)
+                        : range == 2 ? random.nextInt(1 << 30)
+                        : (random.nextLong() >>> 20);
+                final long[] entry = {now + delay, sequence++};
+                wheel.schedule(entry[0], entry);
+                reference.add(entry);
+            }
+
+            final long target = random.nextInt(10) == 0 ? reference.isEmpty() ? now : reference.peek()[0] : now + random.nextInt(5_000);
+            List<long[]> expired = new ArrayList<>();
+            wheel.advance(target, expired::add);
+            now = Math.max(now, target);
+
+            List<long[]> expected = new ArrayList<>();
+            while (!reference.isEmpty() && reference.peek()[0] <= now)
+                expected.add(reference.remove());
+
+            assertThat(expired, is(expected));
+            assertThat(wheel.size(), is((long) reference.size()));
+            assertThat(wheel.nextDeadline(), is(reference.isEmpty() ? Long.MAX_VALUE : reference.peek()[0]));
+        }
+    }
+
+    @Test
+    public void testConcurrentScheduling() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(0);
+        IntStream.range(0, 100_000).parallel().forEach(i -> wheel.schedule(i % 1000, i));
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(1000, expired::add);
+        assertThat(expired.size(), is(100_000));
+    }
+}
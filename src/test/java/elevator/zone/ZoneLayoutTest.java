@@ -0,0 +1,55 @@
+package elevator.zone;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ZoneLayoutTest {
+    private final ZoneLayout layout = new ZoneLayout(0, 10, 20, 30);
+
+    @Test
+    public void testEven() {
+        final ZoneLayout even = ZoneLayout.even(1000, 10);
+        assertThat(even.getNumZones(), is(10));
+        assertThat(even.getNumFloors(), is(1000));
+        assertThat(even.getBottom(0), is(0));
+        assertThat(even.getTop(9), is(999));
+        assertThat(even.getNumFloors(0), is(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyZones() {
+        ZoneLayout.even(5, 3);
+    }
+
+    @Test
+    public void testZoneOf() {
+        assertThat(layout.zoneOf(0, 5), is(0));
+        assertThat(layout.zoneOf(5, 25), is(0));
+        assertThat(layout.zoneOf(15, 0), is(1));
+        assertThat(layout.zoneOf(30, 0), is(2));
+
+        // Sky lobbies board in the direction of travel
+        assertThat(layout.zoneOf(10, 15), is(1));
+        assertThat(layout.zoneOf(10, 5), is(0));
+        assertThat(layout.zoneOf(20, 29), is(2));
+        assertThat(layout.zoneOf(20, 0), is(1));
+    }
+
+    @Test
+    public void testLocalFloors() {
+        assertThat(layout.getNumFloors(1), is(11));
+        assertThat(layout.toLocal(1, 10), is(0));
+        assertThat(layout.toLocal(1, 20), is(10));
+        assertThat(layout.toGlobal(2, 3), is(23));
+    }
+
+    @Test
+    public void testExitFloor() {
+        assertThat(layout.exitFloor(0, 5), is(5));
+        assertThat(layout.exitFloor(0, 25), is(10));
+        assertThat(layout.exitFloor(2, 3), is(20));
+        assertThat(layout.exitFloor(1, 20), is(20));
+    }
+}